@@ -0,0 +1,59 @@
+package com.poc.pocpdf.adapters.out.docx;
+
+import com.poc.pocpdf.benchmarks.BenchmarkFiles;
+import com.poc.pocpdf.benchmarks.SyntheticTemplates;
+import com.poc.pocpdf.benchmarks.TemplateSpec;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Varredura do documento já carregado (sem o custo de abrir o ZIP): maior cláusula existente
+ * e o índice completo. Fica no pacote do adapter porque os métodos são package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClauseScanBenchmark {
+
+    @Param({"small", "medium", "large"})
+    public String template;
+
+    private Path dir;
+    private XWPFDocument doc;
+    private PoiDocxEditorAdapter adapter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("bench-scan-");
+        Path file = SyntheticTemplates.write(TemplateSpec.named(template), dir.resolve(template + ".docx"));
+        try (InputStream in = Files.newInputStream(file)) {
+            doc = new XWPFDocument(in);
+        }
+        adapter = new PoiDocxEditorAdapter();
+    }
+
+    @Benchmark
+    public int findMaxExistingClauseNumber() {
+        return adapter.findMaxExistingClauseNumber(doc);
+    }
+
+    @Benchmark
+    public TemplateIndex buildIndex() {
+        return adapter.buildIndex(doc);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        doc.close();
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+}
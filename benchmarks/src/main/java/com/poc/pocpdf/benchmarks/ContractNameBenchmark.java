@@ -0,0 +1,30 @@
+package com.poc.pocpdf.benchmarks;
+
+import com.poc.pocpdf.domain.model.ContractName;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContractNameBenchmark {
+
+    @Param({"contrato-simples", "Contrato de Prestação de Serviços nº 123/2024 — Anexo II"})
+    public String name;
+
+    private ContractName contractName;
+
+    @Setup
+    public void setUp() {
+        contractName = new ContractName(name);
+    }
+
+    @Benchmark
+    public String asKey() {
+        return contractName.asKey();
+    }
+}
@@ -0,0 +1,78 @@
+package com.poc.pocpdf.benchmarks;
+
+import com.poc.pocpdf.adapters.out.docx.PoiDocxEditorAdapter;
+import com.poc.pocpdf.adapters.out.docx.StreamingDocxEditorAdapter;
+import com.poc.pocpdf.application.port.out.DocxEditorPort;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * applyExtraClauses ponta a ponta (lê o template, edita, grava o DOCX de saída).
+ * Rodar com {@code -prof gc} para ver alocação por operação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocxEditBenchmark {
+
+    @Param({"small", "medium", "large", "medium-split"})
+    public String template;
+
+    @Param({"poi", "streaming"})
+    public String editor;
+
+    @Param({"3"})
+    public int clauses;
+
+    private Path dir;
+    private Path templateDocx;
+    private String templateHash;
+    private Path outputDocx;
+    private DocxEditorPort port;
+    private List<String> extraClauses;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("bench-docx-");
+        templateDocx = SyntheticTemplates.write(TemplateSpec.named(template), dir.resolve(template + ".docx"));
+        outputDocx = dir.resolve("out.docx");
+        // como no pipeline: o hash vem pronto de quem chama (índice do POI)
+        templateHash = sha256(templateDocx);
+
+        port = "streaming".equals(editor) ? new StreamingDocxEditorAdapter() : new PoiDocxEditorAdapter();
+
+        extraClauses = IntStream.rangeClosed(1, clauses)
+                .mapToObj(i -> "Texto da cláusula extra " + i + " gerada pelo benchmark.")
+                .toList();
+    }
+
+    @Benchmark
+    public Path applyExtraClauses() {
+        return port.applyExtraClauses(templateDocx, templateHash, outputDocx, extraClauses);
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+}
@@ -0,0 +1,66 @@
+package com.poc.pocpdf.benchmarks;
+
+import com.poc.pocpdf.adapters.out.pdf.LibreOfficePdfConverterAdapter;
+import com.poc.pocpdf.adapters.out.pdf.LibreOfficePoolSettings;
+import com.poc.pocpdf.adapters.out.pdf.PooledLibreOfficePdfConverterAdapter;
+import com.poc.pocpdf.application.port.out.PdfConverterPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DOCX -> PDF ponta a ponta. Precisa do LibreOffice instalado ({@code -Dsoffice=/caminho/soffice}
+ * se não estiver no PATH). "process" mede o custo de subir um soffice por conversão; "pool" mede
+ * a conversão com os processos já de pé.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PdfConversionBenchmark {
+
+    @Param({"small", "medium"})
+    public String template;
+
+    @Param({"process", "pool"})
+    public String mode;
+
+    private Path dir;
+    private Path docx;
+    private Path outDir;
+    private PdfConverterPort converter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("bench-pdf-");
+        docx = SyntheticTemplates.write(TemplateSpec.named(template), dir.resolve(template + ".docx"));
+        outDir = Files.createDirectories(dir.resolve("pdf"));
+
+        String soffice = System.getProperty("soffice", "soffice");
+        if ("pool".equals(mode)) {
+            converter = new PooledLibreOfficePdfConverterAdapter(new LibreOfficePoolSettings(
+                    PooledLibreOfficePdfConverterAdapter.officeHomeFrom(soffice),
+                    1, 2002, 0, 200, 30_000, 120_000, 120_000,
+                    dir.resolve("profiles").toString()));
+        } else {
+            converter = new LibreOfficePdfConverterAdapter(soffice, 1, 0, dir.resolve("profiles"), new SimpleMeterRegistry());
+        }
+    }
+
+    @Benchmark
+    public Path docxToPdf() {
+        return converter.docxToPdf(docx, outDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (converter instanceof AutoCloseable c) c.close();
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+}
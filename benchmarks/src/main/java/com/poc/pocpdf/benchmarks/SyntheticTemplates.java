@@ -0,0 +1,117 @@
+package com.poc.pocpdf.benchmarks;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.util.Units;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Gera templates DOCX sintéticos com o marcador {{CLAUSULAS_EXTRAS}} perto do fim do documento.
+ * Semente fixa: o mesmo spec gera sempre o mesmo conteúdo.
+ */
+public final class SyntheticTemplates {
+
+    private static final String LOREM =
+            "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor incididunt "
+                    + "ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation.";
+
+    private SyntheticTemplates() {
+    }
+
+    public static Path write(TemplateSpec spec, Path file) {
+        Random random = new Random(42);
+
+        try (XWPFDocument doc = new XWPFDocument()) {
+            int clausesWritten = 0;
+            int tablesWritten = 0;
+            int imagesWritten = 0;
+
+            for (int i = 0; i < spec.paragraphs(); i++) {
+                XWPFRun run = doc.createParagraph().createRun();
+                run.setFontFamily("Arial");
+                run.setFontSize(11);
+
+                // cláusulas existentes espalhadas pelo documento
+                if (clausesWritten < spec.existingClauses() && i % Math.max(1, spec.paragraphs() / Math.max(1, spec.existingClauses())) == 0) {
+                    clausesWritten++;
+                    run.setText("Cláusula adicional " + clausesWritten + ": " + LOREM);
+                } else {
+                    run.setText(i + ". " + LOREM);
+                }
+
+                if (tablesWritten < spec.tables() && i % Math.max(1, spec.paragraphs() / Math.max(1, spec.tables())) == 0) {
+                    writeTable(doc, spec.tableRows(), tablesWritten++);
+                }
+                if (imagesWritten < spec.images() && i % Math.max(1, spec.paragraphs() / Math.max(1, spec.images())) == 0) {
+                    writeImage(doc, random, imagesWritten++);
+                }
+            }
+
+            writePlaceholder(doc, spec.splitPlaceholder());
+
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                doc.write(out);
+            }
+            return file;
+        } catch (Exception e) {
+            throw new RuntimeException("Falha ao gerar template sintético: " + spec, e);
+        }
+    }
+
+    private static void writeTable(XWPFDocument doc, int rows, int index) {
+        XWPFTable table = doc.createTable(Math.max(1, rows), 3);
+        for (int r = 0; r < table.getNumberOfRows(); r++) {
+            for (int c = 0; c < 3; c++) {
+                table.getRow(r).getCell(c).setText("T" + index + " L" + r + " C" + c);
+            }
+        }
+    }
+
+    private static void writeImage(XWPFDocument doc, Random random, int index) throws IOException, InvalidFormatException {
+        BufferedImage img = new BufferedImage(512, 512, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < img.getHeight(); y++) {
+            for (int x = 0; x < img.getWidth(); x++) {
+                img.setRGB(x, y, random.nextInt(0xFFFFFF));
+            }
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", png);
+
+        XWPFRun run = doc.createParagraph().createRun();
+        run.addPicture(new ByteArrayInputStream(png.toByteArray()), Document.PICTURE_TYPE_PNG,
+                "img" + index + ".png", Units.toEMU(200), Units.toEMU(200));
+    }
+
+    private static void writePlaceholder(XWPFDocument doc, boolean split) {
+        XWPFParagraph p = doc.createParagraph();
+        if (split) {
+            run(p, "{{CLAUSULAS_");
+            run(p, "EXTRAS}}");
+        } else {
+            run(p, "{{CLAUSULAS_EXTRAS}}");
+        }
+        doc.createParagraph().createRun().setText("Fim do contrato.");
+    }
+
+    private static void run(XWPFParagraph p, String text) {
+        XWPFRun r = p.createRun();
+        r.setFontFamily("Arial");
+        r.setFontSize(11);
+        r.setText(text);
+    }
+}
@@ -0,0 +1,35 @@
+package com.poc.pocpdf.benchmarks;
+
+/**
+ * Forma do template sintético.
+ *
+ * @param paragraphs        parágrafos de texto no corpo
+ * @param tables            tabelas no corpo (cada uma com tableRows x 3 células)
+ * @param tableRows         linhas por tabela
+ * @param images            imagens PNG embutidas (ruído, ~0,75 MB cada: não comprimem)
+ * @param existingClauses   "Cláusula adicional N" já presentes no texto
+ * @param splitPlaceholder  marcador quebrado em dois runs, como o Word às vezes salva
+ */
+public record TemplateSpec(
+        int paragraphs,
+        int tables,
+        int tableRows,
+        int images,
+        int existingClauses,
+        boolean splitPlaceholder
+) {
+
+    /** small / medium / large / huge; sufixo "-split" liga o marcador quebrado (ex.: "medium-split"). */
+    public static TemplateSpec named(String name) {
+        boolean split = name.endsWith("-split");
+        String size = split ? name.substring(0, name.length() - "-split".length()) : name;
+
+        return switch (size) {
+            case "small" -> new TemplateSpec(50, 2, 5, 0, 3, split);
+            case "medium" -> new TemplateSpec(500, 20, 10, 2, 10, split);
+            case "large" -> new TemplateSpec(3_000, 100, 20, 10, 30, split);
+            case "huge" -> new TemplateSpec(10_000, 300, 30, 40, 100, split);
+            default -> throw new IllegalArgumentException("Template sintético desconhecido: " + name);
+        };
+    }
+}
@@ -0,0 +1,291 @@
+package com.poc.pocpdf.benchmarks;
+
+import com.poc.pocpdf.adapters.out.docx.PoiDocxEditorAdapter;
+import com.poc.pocpdf.adapters.out.docx.StreamingDocxEditorAdapter;
+import com.poc.pocpdf.adapters.out.pdf.LibreOfficePdfConverterAdapter;
+import com.poc.pocpdf.adapters.out.scratch.DirectoryScratchSpaceAdapter;
+import com.poc.pocpdf.application.port.out.*;
+import com.poc.pocpdf.application.service.UpdateTemplateService;
+import com.poc.pocpdf.domain.model.Clause;
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.Version;
+import com.poc.pocpdf.domain.model.VersionInfo;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Carga no UpdateTemplateService sem Azure: storage, versões e lock ficam em memória; o editor
+ * DOCX é o real e o conversor pode ser falso (copia o docx) ou o LibreOffice de verdade.
+ *
+ * <pre>
+ * threads=8 seconds=60 contracts=4 template=medium editor=poi converter=fake convertMs=0 mode=locked
+ * </pre>
+ */
+public final class UpdateTemplateLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        int threads = Integer.parseInt(opts.getOrDefault("threads", "8"));
+        int seconds = Integer.parseInt(opts.getOrDefault("seconds", "60"));
+        int contracts = Integer.parseInt(opts.getOrDefault("contracts", "4"));
+        String template = opts.getOrDefault("template", "medium");
+        String editor = opts.getOrDefault("editor", "poi");
+        String converter = opts.getOrDefault("converter", "fake");
+        long convertMs = Long.parseLong(opts.getOrDefault("convertMs", "0"));
+        boolean optimistic = "optimistic".equalsIgnoreCase(opts.getOrDefault("mode", "locked"));
+
+        Path dir = Files.createTempDirectory("load-update-");
+        Path templateDocx = SyntheticTemplates.write(TemplateSpec.named(template), dir.resolve(template + ".docx"));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ExecutorService stages = Executors.newVirtualThreadPerTaskExecutor();
+
+        PdfConverterPort pdf = "soffice".equals(converter)
+                ? new LibreOfficePdfConverterAdapter(opts.getOrDefault("soffice", "soffice"), 1, 0, dir.resolve("profiles"), registry)
+                : new FakePdfConverter(convertMs);
+
+        InMemoryVersionedOutput output = new InMemoryVersionedOutput();
+        UpdateTemplateService service = new UpdateTemplateService(
+                new InMemoryTemplateStorage(),
+                output,
+                new InMemoryLock(),
+                "streaming".equals(editor) ? new StreamingDocxEditorAdapter() : new PoiDocxEditorAdapter(),
+                pdf,
+                new DirectoryScratchSpaceAdapter(dir.resolve("work")),
+                stages,
+                registry,
+                optimistic,
+                false,
+                TemplateEventsPort.none(),
+                LatestDocxCachePort.none());
+
+        List<Clause> clauses = List.of(
+                new Clause("Texto da primeira cláusula extra."),
+                new Clause("Texto da segunda cláusula extra."));
+
+        System.out.printf("threads=%d seconds=%d contracts=%d template=%s editor=%s converter=%s mode=%s%n",
+                threads, seconds, contracts, template, editor, converter, optimistic ? "optimistic" : "locked");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicInteger seq = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    ContractName cn = new ContractName("contrato-" + (seq.getAndIncrement() % contracts));
+                    long s = System.nanoTime();
+                    try {
+                        service.updateTemplate(cn, templateDocx, clauses);
+                        latencies.add(System.nanoTime() - s);
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 300L, TimeUnit.SECONDS);
+        double elapsedSec = (System.nanoTime() - start) / 1e9;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("ok=%d erros=%d throughput=%.1f/s%n", sorted.length, errors.get(), sorted.length / elapsedSec);
+        System.out.printf("latência ms: p50=%.1f p95=%.1f p99=%.1f max=%.1f%n",
+                pct(sorted, 0.50), pct(sorted, 0.95), pct(sorted, 0.99), pct(sorted, 1.0));
+
+        for (Timer timer : registry.find("template.update.stage").timers()) {
+            System.out.printf("  %-14s %-7s n=%d média=%.1fms max=%.1fms%n",
+                    timer.getId().getTag("stage"), timer.getId().getTag("outcome"), timer.count(),
+                    timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS));
+        }
+
+        stages.shutdown();
+        if (pdf instanceof AutoCloseable c) c.close();
+        BenchmarkFiles.deleteRecursively(dir);
+    }
+
+    private static double pct(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))] / 1e6;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Argumento inválido (use chave=valor): " + a);
+            opts.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        return opts;
+    }
+
+    static final class InMemoryTemplateStorage implements TemplateStoragePort {
+
+        private final Map<String, byte[]> templates = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean exists(ContractName contractName) {
+            return templates.containsKey(contractName.asKey());
+        }
+
+        @Override
+        public void save(ContractName contractName, byte[] docxBytes) {
+            templates.put(contractName.asKey(), docxBytes.clone());
+        }
+
+        @Override
+        public void save(ContractName contractName, Path docxFile) {
+            try {
+                templates.put(contractName.asKey(), Files.readAllBytes(docxFile));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public byte[] load(ContractName contractName) {
+            byte[] bytes = templates.get(contractName.asKey());
+            if (bytes == null) throw new RuntimeException("Template não encontrado: " + contractName.value());
+            return bytes.clone();
+        }
+
+        @Override
+        public Optional<StoredDocument> findLatest(ContractName contractName) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<ContractName> findContracts(String keyPrefix) {
+            String pfx = keyPrefix == null ? "" : keyPrefix;
+            return templates.keySet().stream().filter(k -> k.startsWith(pfx)).sorted().map(ContractName::new).toList();
+        }
+    }
+
+    static final class InMemoryVersionedOutput implements VersionedOutputPort {
+
+        private final Map<String, AtomicInteger> versions = new ConcurrentHashMap<>();
+        private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+
+        @Override
+        public Version nextVersion(ContractName contractName) {
+            return new Version(versions.computeIfAbsent(contractName.asKey(), k -> new AtomicInteger()).incrementAndGet());
+        }
+
+        @Override
+        public void save(ContractName contractName, Version version, String fileName, Path file,
+                         Map<String, String> metadata) {
+            try {
+                files.put(name(contractName, version, fileName), Files.readAllBytes(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void delete(ContractName contractName, Version version, String fileName) {
+            files.remove(name(contractName, version, fileName));
+        }
+
+        @Override
+        public Optional<StoredDocument> find(ContractName contractName, Version version, String fileName) {
+            byte[] bytes = files.get(name(contractName, version, fileName));
+            if (bytes == null) return Optional.empty();
+            return Optional.of(new StoredDocument() {
+                @Override
+                public String etag() {
+                    return Integer.toHexString(Arrays.hashCode(bytes));
+                }
+
+                @Override
+                public long size() {
+                    return bytes.length;
+                }
+
+                @Override
+                public void copyTo(OutputStream out, long offset, long count) throws IOException {
+                    out.write(bytes, (int) offset, (int) count);
+                }
+            });
+        }
+
+        @Override
+        public void publish(ContractName contractName, Version version) {
+            // sem ponteiro de "última": a carga só mede o pipeline
+        }
+
+        @Override
+        public Optional<Version> latest(ContractName contractName) {
+            return Optional.empty();
+        }
+
+        @Override
+        public List<VersionInfo> listVersions(ContractName contractName) {
+            return List.of();
+        }
+
+        private static String name(ContractName contractName, Version version, String fileName) {
+            return contractName.asKey() + "/" + version.asString() + "/" + fileName;
+        }
+    }
+
+    static final class InMemoryLock implements LockPort {
+
+        private final ConcurrentHashMap<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+        @Override
+        public <T> T withLock(String lockKey, Duration ttl, LockedAction<T> action) {
+            ReentrantLock lock = locks.computeIfAbsent(lockKey, k -> new ReentrantLock(true));
+            lock.lock();
+            try {
+                return action.run(LockHandle.unlocked(lockKey));
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** Copia o docx como ".pdf"; convertMs simula o tempo do LibreOffice. */
+    static final class FakePdfConverter implements PdfConverterPort {
+
+        private final long convertMs;
+
+        FakePdfConverter(long convertMs) {
+            this.convertMs = convertMs;
+        }
+
+        @Override
+        public Path docxToPdf(Path docx, Path outDir) {
+            try {
+                if (convertMs > 0) Thread.sleep(convertMs);
+                String name = docx.getFileName().toString().replaceFirst("\\.docx$", "") + ".pdf";
+                return Files.copy(docx, outDir.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrompido na conversão falsa.", e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
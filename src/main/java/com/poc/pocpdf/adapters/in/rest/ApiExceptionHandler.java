@@ -1,7 +1,11 @@
 package com.poc.pocpdf.adapters.in.rest;
 
 import com.poc.pocpdf.adapters.in.rest.dto.ErrorResponseDto;
+import com.poc.pocpdf.application.exception.IdempotencyInProgressException;
+import com.poc.pocpdf.application.exception.IdempotencyKeyMismatchException;
+import com.poc.pocpdf.application.exception.QueueFullException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -45,6 +49,48 @@ public class ApiExceptionHandler {
                 ));
     }
 
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ErrorResponseDto> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException ex,
+                                                                         HttpServletRequest req) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(new ErrorResponseDto(
+                        Instant.now(),
+                        HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                        HttpStatus.UNPROCESSABLE_ENTITY.getReasonPhrase(),
+                        ex.getMessage(),
+                        req.getRequestURI()
+                ));
+    }
+
+    @ExceptionHandler(IdempotencyInProgressException.class)
+    public ResponseEntity<ErrorResponseDto> handleIdempotencyInProgress(IdempotencyInProgressException ex,
+                                                                        HttpServletRequest req) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponseDto(
+                        Instant.now(),
+                        HttpStatus.CONFLICT.value(),
+                        HttpStatus.CONFLICT.getReasonPhrase(),
+                        ex.getMessage(),
+                        req.getRequestURI()
+                ));
+    }
+
+    // só filas de entrada; rejeição de executor interno continua sendo 500
+    @ExceptionHandler(QueueFullException.class)
+    public ResponseEntity<ErrorResponseDto> handleQueueFull(QueueFullException ex,
+                                                            HttpServletRequest req) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(new ErrorResponseDto(
+                        Instant.now(),
+                        HttpStatus.TOO_MANY_REQUESTS.value(),
+                        HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+                        "Fila de processamento cheia. Tente novamente em instantes.",
+                        req.getRequestURI()
+                ));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDto> handleGeneric(Exception ex, HttpServletRequest req) {
         String msg = ex.getMessage();
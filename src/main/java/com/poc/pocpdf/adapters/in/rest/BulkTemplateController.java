@@ -0,0 +1,140 @@
+package com.poc.pocpdf.adapters.in.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.pocpdf.adapters.in.rest.dto.BulkItemResponseDto;
+import com.poc.pocpdf.adapters.in.rest.dto.BulkSummaryResponseDto;
+import com.poc.pocpdf.adapters.in.rest.dto.BulkUpdateRequestDto;
+import com.poc.pocpdf.application.port.in.BulkUpdateUseCase;
+import com.poc.pocpdf.domain.command.BulkTemplateUpdate;
+import com.poc.pocpdf.domain.event.BulkItemProcessed;
+import com.poc.pocpdf.domain.event.BulkUpdateCompleted;
+import com.poc.pocpdf.domain.event.TemplateVersionCreated;
+import com.poc.pocpdf.domain.model.Clause;
+import com.poc.pocpdf.domain.model.ContractName;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/contracts/bulk")
+public class BulkTemplateController {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final BulkUpdateUseCase bulkUpdateUseCase;
+    private final ObjectMapper objectMapper;
+
+    public BulkTemplateController(BulkUpdateUseCase bulkUpdateUseCase, ObjectMapper objectMapper) {
+        this.bulkUpdateUseCase = bulkUpdateUseCase;
+        this.objectMapper = objectMapper;
+    }
+
+    @Operation(
+            summary = "Aplica as mesmas cláusulas à última versão de vários contratos",
+            description = """
+                    Recebe uma lista de contratos e/ou um prefixo de chave e as cláusulas a incluir.
+                    Cada contrato gera uma nova versão (DOCX + PDF) a partir da última, em paralelo no pool
+                    do lote. A resposta é NDJSON: uma linha por contrato, na ordem em que terminam, e uma
+                    linha final com o resumo.
+
+                    curl -N -X POST "http://localhost:8080/contracts/bulk/template" \\
+                      -H "Content-Type: application/json" \\
+                      -d '{"keyPrefix":"contrato-locacao","clauses":["O locatário concorda com ..."]}'
+                    """,
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Progresso em NDJSON",
+                            content = @Content(
+                                    mediaType = "application/x-ndjson",
+                                    examples = @ExampleObject(value = """
+                                            {"type":"item","contractName":"contrato-locacao-001","status":"SUCCEEDED","version":"v3","docxPath":"...","pdfPath":"...","error":null,"durationMs":2150}
+                                            {"type":"summary","total":1,"succeeded":1,"failed":0,"durationMs":2153}
+                                            """)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Sem contratos/prefixo ou sem cláusulas")
+            }
+    )
+    @PostMapping(
+            value = "/template",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = "application/x-ndjson"
+    )
+    public ResponseEntity<StreamingResponseBody> updateAll(@RequestBody BulkUpdateRequestDto request) {
+        // valida antes de abrir o stream: erro aqui ainda vira 400
+        BulkTemplateUpdate command = toCommand(request);
+
+        StreamingResponseBody body = out -> {
+            BulkUpdateCompleted completed = bulkUpdateUseCase.updateAll(command, item -> writeLine(out, toDto(item)));
+            writeLine(out, new BulkSummaryResponseDto(
+                    "summary",
+                    completed.total(),
+                    completed.succeeded(),
+                    completed.failed(),
+                    completed.durationMs()
+            ));
+        };
+
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private static BulkTemplateUpdate toCommand(BulkUpdateRequestDto request) {
+        if (request == null) throw new IllegalArgumentException("Corpo da requisição obrigatório.");
+
+        List<ContractName> contracts = request.contractNames() == null
+                ? List.of()
+                : request.contractNames().stream()
+                .filter(s -> s != null && !s.isBlank())
+                .map(ContractName::new)
+                .toList();
+
+        List<Clause> clauses = request.clauses() == null
+                ? List.of()
+                : request.clauses().stream()
+                .filter(s -> s != null && !s.isBlank())
+                .map(String::trim)
+                .map(Clause::new)
+                .toList();
+
+        return new BulkTemplateUpdate(contracts, request.keyPrefix(), clauses);
+    }
+
+    private static BulkItemResponseDto toDto(BulkItemProcessed item) {
+        TemplateVersionCreated created = item.created();
+        return new BulkItemResponseDto(
+                "item",
+                item.contractName().value(),
+                item.succeeded() ? "SUCCEEDED" : "FAILED",
+                created == null ? null : created.version().asString(),
+                created == null ? null : created.docxPath(),
+                created == null ? null : created.pdfPath(),
+                item.error(),
+                item.durationMs()
+        );
+    }
+
+    // uma linha por evento, com flush para o cliente ver o progresso na hora
+    private void writeLine(OutputStream out, Object line) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.poc.pocpdf.adapters.in.rest;
+
+import com.poc.pocpdf.application.port.out.StoredDocument;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * Monta a resposta de download a partir de um {@link StoredDocument}: ETag / If-None-Match (304),
+ * Range de um único intervalo (206 / 416) e corpo transmitido direto do storage para o cliente.
+ */
+final class DocumentDownloads {
+
+    static final MediaType DOCX = MediaType.parseMediaType(
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document");
+
+    private DocumentDownloads() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> stream(StoredDocument doc,
+                                                         String filename,
+                                                         MediaType contentType,
+                                                         String ifNoneMatch,
+                                                         String rangeHeader) {
+        String etag = quoted(doc.etag());
+        long size = doc.size();
+
+        if (etag != null && matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        long start = 0;
+        long count = size;
+        HttpStatus status = HttpStatus.OK;
+
+        if (rangeHeader != null && !rangeHeader.isBlank()) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // vários intervalos (multipart/byteranges) não são suportados: responde o documento inteiro
+                if (ranges.size() == 1) {
+                    HttpRange r = ranges.get(0);
+                    start = r.getRangeStart(size);
+                    long end = r.getRangeEnd(size);
+                    count = end - start + 1;
+                    status = HttpStatus.PARTIAL_CONTENT;
+                }
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                        .build();
+            }
+        }
+
+        long offset = start;
+        long length = count;
+        StreamingResponseBody body = out -> doc.copyTo(out, offset, length);
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(contentType)
+                .contentLength(length);
+
+        if (etag != null) builder.eTag(etag);
+        if (status == HttpStatus.PARTIAL_CONTENT) {
+            builder.header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + count - 1) + "/" + size);
+        }
+
+        return builder.body(body);
+    }
+
+    private static String quoted(String etag) {
+        if (etag == null || etag.isBlank()) return null;
+        return etag.startsWith("\"") ? etag : "\"" + etag + "\"";
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.equals("*")) return true;
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals(etag)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,68 @@
+package com.poc.pocpdf.adapters.in.rest;
+
+import com.poc.pocpdf.adapters.in.rest.dto.JobStatusResponseDto;
+import com.poc.pocpdf.application.port.in.TemplateJobUseCase;
+import com.poc.pocpdf.domain.event.TemplateVersionCreated;
+import com.poc.pocpdf.domain.model.TemplateJob;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/jobs")
+public class JobController {
+
+    private final TemplateJobUseCase templateJobUseCase;
+
+    public JobController(TemplateJobUseCase templateJobUseCase) {
+        this.templateJobUseCase = templateJobUseCase;
+    }
+
+    @Operation(
+            summary = "Consulta o status de um job assíncrono de atualização de template",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Status do job",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = JobStatusResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "404", description = "Job não encontrado ou expirado")
+            }
+    )
+    @GetMapping(value = "/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JobStatusResponseDto> getJob(
+            @Parameter(description = "Id retornado pelo POST assíncrono")
+            @PathVariable String jobId
+    ) {
+        return templateJobUseCase.find(jobId)
+                .map(JobController::toDto)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private static JobStatusResponseDto toDto(TemplateJob job) {
+        TemplateVersionCreated r = job.result();
+        return new JobStatusResponseDto(
+                job.id(),
+                job.contractName().value(),
+                job.status().name(),
+                job.createdAt(),
+                job.updatedAt(),
+                r == null ? null : r.version().asString(),
+                r == null ? null : r.docxPath(),
+                r == null ? null : r.pdfPath(),
+                job.error()
+        );
+    }
+}
@@ -0,0 +1,44 @@
+package com.poc.pocpdf.adapters.in.rest;
+
+import com.poc.pocpdf.application.port.out.ScratchDir;
+import com.poc.pocpdf.application.port.out.ScratchSpacePort;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Grava o upload uma única vez na área de rascunho gerenciada (cota e limpeza de órfãos valem para
+ * ele também). Quando o Tomcat já tem a parte em disco, {@link MultipartFile#transferTo(Path)} só
+ * move o arquivo; nada passa pelo heap.
+ */
+@Component
+public class MultipartSpool {
+
+    private final ScratchSpacePort scratchSpace;
+
+    public MultipartSpool(ScratchSpacePort scratchSpace) {
+        this.scratchSpace = scratchSpace;
+    }
+
+    public SpooledUpload spool(MultipartFile file, String prefix) throws IOException {
+        ScratchDir dir = scratchSpace.allocate("upload-" + prefix);
+        try {
+            Path target = dir.path().resolve(prefix + ".docx");
+            file.transferTo(target);
+            return new SpooledUpload(target, dir);
+        } catch (IOException | RuntimeException e) {
+            dir.close();
+            throw e;
+        }
+    }
+
+    /** Arquivo do upload e o diretório de rascunho dele; close apaga os dois. */
+    public record SpooledUpload(Path file, ScratchDir dir) implements AutoCloseable {
+        @Override
+        public void close() {
+            dir.close();
+        }
+    }
+}
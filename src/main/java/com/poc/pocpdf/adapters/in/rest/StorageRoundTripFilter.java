@@ -0,0 +1,56 @@
+package com.poc.pocpdf.adapters.in.rest;
+
+import com.poc.pocpdf.adapters.out.blob.StorageRoundTrips;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registra quantas requisições ao Storage cada request da API gerou
+ * ({@code storage.requests.per.request{method,uri}}).
+ */
+@Component
+public class StorageRoundTripFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageRoundTripFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public StorageRoundTripFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        AtomicInteger counter = StorageRoundTrips.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            StorageRoundTrips.end();
+
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+            DistributionSummary.builder("storage.requests.per.request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(counter.get());
+
+            log.debug("{} {} -> {} round trips ao Storage", request.getMethod(), uri, counter.get());
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package com.poc.pocpdf.adapters.in.rest;
 
+import com.poc.pocpdf.adapters.in.rest.dto.AppendClausesRequestDto;
+import com.poc.pocpdf.adapters.in.rest.dto.JobAcceptedResponseDto;
 import com.poc.pocpdf.adapters.in.rest.dto.TemplateExistsResponseDto;
 import com.poc.pocpdf.adapters.in.rest.dto.UpdateTemplateResponseDto;
-import com.poc.pocpdf.application.port.in.UpdateTemplateUseCase;
+import com.poc.pocpdf.adapters.in.rest.dto.VersionListResponseDto;
+import com.poc.pocpdf.adapters.in.rest.dto.VersionResponseDto;
+import com.poc.pocpdf.application.port.in.IdempotentUpdateUseCase;
+import com.poc.pocpdf.application.port.in.TemplateJobUseCase;
+import com.poc.pocpdf.application.port.in.VersionHistoryUseCase;
 import com.poc.pocpdf.application.port.out.TemplateStoragePort;
+import com.poc.pocpdf.application.port.out.VersionedOutputPort;
 import com.poc.pocpdf.domain.event.TemplateVersionCreated;
 import com.poc.pocpdf.domain.model.Clause;
 import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.TemplateJob;
+import com.poc.pocpdf.domain.model.Version;
+import com.poc.pocpdf.domain.model.VersionPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,24 +24,39 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
 @RequestMapping("/contracts")
 public class TemplateController {
 
-    private final UpdateTemplateUseCase updateTemplateUseCase;
+    private final IdempotentUpdateUseCase idempotentUpdateUseCase;
+    private final TemplateJobUseCase templateJobUseCase;
+    private final VersionHistoryUseCase versionHistoryUseCase;
     private final TemplateStoragePort templateStoragePort;
+    private final VersionedOutputPort versionedOutputPort;
+    private final MultipartSpool multipartSpool;
 
-    public TemplateController(UpdateTemplateUseCase updateTemplateUseCase,
-                              TemplateStoragePort templateStoragePort) {
-        this.updateTemplateUseCase = updateTemplateUseCase;
+    public TemplateController(IdempotentUpdateUseCase idempotentUpdateUseCase,
+                              TemplateJobUseCase templateJobUseCase,
+                              VersionHistoryUseCase versionHistoryUseCase,
+                              TemplateStoragePort templateStoragePort,
+                              VersionedOutputPort versionedOutputPort,
+                              MultipartSpool multipartSpool) {
+        this.idempotentUpdateUseCase = idempotentUpdateUseCase;
+        this.templateJobUseCase = templateJobUseCase;
+        this.versionHistoryUseCase = versionHistoryUseCase;
         this.templateStoragePort = templateStoragePort;
+        this.versionedOutputPort = versionedOutputPort;
+        this.multipartSpool = multipartSpool;
     }
 
     @Operation(
@@ -46,6 +71,13 @@ public class TemplateController {
                       -F "clauses=O cliente concorda com ..." ^
                       -F "clauses=Fica estabelecido que ..."
 
+                    Com async=true o processamento roda em fila própria: a resposta é 202 com o id do job,
+                    consultável em GET /jobs/{id}. Se a fila estiver cheia, responde 429.
+
+                    Com o header Idempotency-Key, repetir o pedido com a mesma chave devolve a versão já
+                    criada; se o original ainda está rodando, a repetição espera por ele. Com async=true a
+                    repetição recebe outro job, que termina com a mesma versão do original.
+
                     Envio via curl (Linux/Mac):
                     curl -X POST "http://localhost:8080/contracts/contrato-locacao/template" \\
                       -F "file=@./templates/contrato-template.docx;type=application/vnd.openxmlformats-officedocument.wordprocessingml.document" \\
@@ -72,7 +104,18 @@ public class TemplateController {
                                     )
                             )
                     ),
+                    @ApiResponse(
+                            responseCode = "202",
+                            description = "Job enfileirado (async=true)",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = JobAcceptedResponseDto.class)
+                            )
+                    ),
                     @ApiResponse(responseCode = "400", description = "Arquivo não enviado ou inválido"),
+                    @ApiResponse(responseCode = "409", description = "Pedido original com a mesma Idempotency-Key ainda em andamento em outro nó (Retry-After)"),
+                    @ApiResponse(responseCode = "422", description = "Idempotency-Key reutilizada com outro conteúdo (no async, o job falha)"),
+                    @ApiResponse(responseCode = "429", description = "Fila de conversão cheia (async=true)"),
                     @ApiResponse(responseCode = "500", description = "Erro interno")
             }
     )
@@ -81,7 +124,7 @@ public class TemplateController {
             consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public ResponseEntity<UpdateTemplateResponseDto> updateTemplate(
+    public ResponseEntity<?> updateTemplate(
             @Parameter(description = "Identificador do contrato", example = "contrato-locacao")
             @PathVariable String contractName,
 
@@ -107,14 +150,18 @@ public class TemplateController {
                             @ExampleObject(name = "Outra cláusula", value = "Fica estabelecido que ...")
                     }
             )
-            @RequestParam(value = "clauses", required = false) List<String> clauses
+            @RequestParam(value = "clauses", required = false) List<String> clauses,
+
+            @Parameter(description = "Processa em background e retorna 202 com o id do job")
+            @RequestParam(value = "async", defaultValue = "false") boolean async,
+
+            @Parameter(description = "Chave para deduplicar repetições do mesmo pedido (ex.: retry após timeout)")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     ) throws Exception {
         if (file == null || file.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
 
-        byte[] templateDocx = file.getBytes();
-
         List<Clause> extraClauses = (clauses == null)
                 ? List.of()
                 : clauses.stream()
@@ -123,11 +170,35 @@ public class TemplateController {
                 .map(Clause::new)
                 .toList();
 
-        TemplateVersionCreated created = updateTemplateUseCase.updateTemplate(
-                new ContractName(contractName),
-                templateDocx,
-                extraClauses
-        );
+        ContractName cn = new ContractName(contractName);
+
+        // upload vai para disco uma vez e segue como Path (sem file.getBytes())
+        MultipartSpool.SpooledUpload upload = multipartSpool.spool(file, cn.asKey());
+
+        if (async) {
+            TemplateJob job;
+            try {
+                job = templateJobUseCase.submit(idempotencyKey, cn, upload.file(), upload.dir(), extraClauses);
+            } catch (RuntimeException e) {
+                upload.close();
+                throw e;
+            }
+            String statusUrl = "/jobs/" + job.id();
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create(statusUrl))
+                    .body(new JobAcceptedResponseDto(
+                            job.id(),
+                            job.contractName().value(),
+                            job.status().name(),
+                            statusUrl
+                    ));
+        }
+
+        TemplateVersionCreated created;
+        try (upload) {
+            created = idempotentUpdateUseCase.updateTemplate(idempotencyKey, cn, upload.file(), extraClauses);
+        }
 
         UpdateTemplateResponseDto resp = new UpdateTemplateResponseDto(
                 created.contractName().value(),
@@ -139,6 +210,66 @@ public class TemplateController {
         return ResponseEntity.ok(resp);
     }
 
+    @Operation(
+            summary = "Acrescenta cláusulas à última versão e cria vN+1, sem reenviar o template",
+            description = """
+                    Parte da última versão publicada (docx), acrescenta as cláusulas no fim continuando a
+                    numeração e gera docx + PDF da nova versão. O template base não é alterado.
+
+                    Com Idempotency-Key, a repetição do mesmo pedido (mesmas cláusulas) devolve a versão já
+                    criada em vez de acrescentar as cláusulas de novo.
+
+                    curl -X PATCH "http://localhost:8080/contracts/contrato-locacao/clauses" \\
+                      -H "Content-Type: application/json" \\
+                      -H "Idempotency-Key: 7f9c2e10-0d7a-4a57-9b0e-1b2f7c4d9a11" \\
+                      -d '{"clauses":["O locatário concorda com ..."]}'
+                    """,
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Versão gerada",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                    schema = @Schema(implementation = UpdateTemplateResponseDto.class)
+                            )
+                    ),
+                    @ApiResponse(responseCode = "400", description = "Sem cláusulas ou contrato sem versão"),
+                    @ApiResponse(responseCode = "409", description = "Pedido original com a mesma Idempotency-Key ainda em andamento em outro nó (Retry-After)"),
+                    @ApiResponse(responseCode = "422", description = "Idempotency-Key reutilizada com outras cláusulas"),
+                    @ApiResponse(responseCode = "500", description = "Erro interno")
+            }
+    )
+    @PatchMapping(
+            value = "/{contractName}/clauses",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public UpdateTemplateResponseDto appendClauses(
+            @Parameter(description = "Identificador do contrato", example = "contrato-locacao")
+            @PathVariable String contractName,
+            @RequestBody AppendClausesRequestDto request,
+
+            @Parameter(description = "Chave para deduplicar repetições do mesmo pedido (ex.: retry após timeout)")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
+    ) {
+        List<Clause> clauses = (request == null || request.clauses() == null)
+                ? List.of()
+                : request.clauses().stream()
+                .filter(s -> s != null && !s.isBlank())
+                .map(String::trim)
+                .map(Clause::new)
+                .toList();
+
+        TemplateVersionCreated created = idempotentUpdateUseCase.appendClauses(idempotencyKey, new ContractName(contractName), clauses);
+
+        return new UpdateTemplateResponseDto(
+                created.contractName().value(),
+                created.version().asString(),
+                created.docxPath(),
+                created.pdfPath()
+        );
+    }
+
     @Operation(
             summary = "Verifica se existe template atual para o contrato",
             responses = @ApiResponse(
@@ -164,30 +295,114 @@ public class TemplateController {
 
     @Operation(
             summary = "Baixa o template atual (DOCX)",
+            description = "Transmite direto do storage. Suporta Range (um intervalo) e If-None-Match.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Arquivo DOCX retornado"),
-                    @ApiResponse(responseCode = "404", description = "Template não encontrado")
+                    @ApiResponse(responseCode = "206", description = "Intervalo solicitado via Range"),
+                    @ApiResponse(responseCode = "304", description = "ETag igual ao If-None-Match"),
+                    @ApiResponse(responseCode = "404", description = "Template não encontrado"),
+                    @ApiResponse(responseCode = "416", description = "Range inválido")
             }
     )
     @GetMapping(value = "/{contractName}/template")
-    public ResponseEntity<byte[]> downloadCurrentTemplate(
+    public ResponseEntity<StreamingResponseBody> downloadCurrentTemplate(
             @Parameter(description = "Identificador do contrato", example = "contrato-locacao")
-            @PathVariable String contractName
+            @PathVariable String contractName,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range
     ) {
         ContractName cn = new ContractName(contractName);
 
-        if (!templateStoragePort.exists(cn)) {
-            return ResponseEntity.notFound().build();
-        }
+        return templateStoragePort.findLatest(cn)
+                .map(doc -> DocumentDownloads.stream(doc, cn.asKey() + ".docx", DocumentDownloads.DOCX, ifNoneMatch, range))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-        byte[] bytes = templateStoragePort.load(cn);
-        String filename = cn.asKey() + ".docx";
+    @Operation(
+            summary = "Lista as versões do contrato, da mais nova para a mais antiga",
+            description = """
+                    Paginação por cursor: passe o nextCursor da resposta em cursor para a próxima página.
+                    Servido de um índice em memória por contrato (TTL), invalidado quando este nó cria versão.
+                    """,
+            responses = @ApiResponse(
+                    responseCode = "200",
+                    description = "Página de versões",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = VersionListResponseDto.class),
+                            examples = @ExampleObject(value = """
+                                    {
+                                      "contractName": "contrato-locacao",
+                                      "items": [
+                                        { "version": "v2", "createdAt": "2025-01-10T14:03:11Z", "docxSize": 48211, "pdfSize": 91544, "fingerprint": "9f2c..." }
+                                      ],
+                                      "nextCursor": "djI"
+                                    }
+                                    """)
+                    )
+            )
+    )
+    @GetMapping(value = "/{contractName}/versions", produces = MediaType.APPLICATION_JSON_VALUE)
+    public VersionListResponseDto listVersions(
+            @Parameter(description = "Identificador do contrato", example = "contrato-locacao")
+            @PathVariable String contractName,
+            @Parameter(description = "nextCursor da página anterior")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Itens por página (máx. 100)")
+            @RequestParam(value = "limit", defaultValue = "20") int limit
+    ) {
+        VersionPage page = versionHistoryUseCase.listVersions(new ContractName(contractName), cursor, limit);
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.parseMediaType(
-                        "application/vnd.openxmlformats-officedocument.wordprocessingml.document"
+        List<VersionResponseDto> items = page.items().stream()
+                .map(v -> new VersionResponseDto(
+                        v.version().asString(),
+                        v.createdAt(),
+                        v.docxSize(),
+                        v.pdfSize(),
+                        v.fingerprint()
                 ))
-                .body(bytes);
+                .toList();
+
+        return new VersionListResponseDto(page.contractName().value(), items, page.nextCursor());
+    }
+
+    @Operation(
+            summary = "Baixa o DOCX ou o PDF de uma versão específica",
+            description = "Transmite direto do storage. Suporta Range (um intervalo) e If-None-Match.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Arquivo retornado"),
+                    @ApiResponse(responseCode = "206", description = "Intervalo solicitado via Range"),
+                    @ApiResponse(responseCode = "304", description = "ETag igual ao If-None-Match"),
+                    @ApiResponse(responseCode = "400", description = "Versão ou formato inválido"),
+                    @ApiResponse(responseCode = "404", description = "Versão não encontrada"),
+                    @ApiResponse(responseCode = "416", description = "Range inválido")
+            }
+    )
+    @GetMapping(value = "/{contractName}/versions/{version}/{format}")
+    public ResponseEntity<StreamingResponseBody> downloadVersion(
+            @Parameter(description = "Identificador do contrato", example = "contrato-locacao")
+            @PathVariable String contractName,
+            @Parameter(description = "Versão", example = "v2")
+            @PathVariable String version,
+            @Parameter(description = "docx ou pdf", example = "pdf")
+            @PathVariable String format,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range
+    ) {
+        ContractName cn = new ContractName(contractName);
+        Version v = Version.parse(version);
+
+        String ext = format == null ? "" : format.trim().toLowerCase();
+        MediaType type = switch (ext) {
+            case "docx" -> DocumentDownloads.DOCX;
+            case "pdf" -> MediaType.APPLICATION_PDF;
+            default -> throw new IllegalArgumentException("Formato inválido: " + format + " (use docx ou pdf)");
+        };
+
+        String filename = cn.asKey() + "." + ext;
+
+        return versionedOutputPort.find(cn, v, filename)
+                .map(doc -> DocumentDownloads.stream(doc, filename, type, ifNoneMatch, range))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
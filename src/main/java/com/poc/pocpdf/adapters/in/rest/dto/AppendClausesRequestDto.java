@@ -0,0 +1,10 @@
+package com.poc.pocpdf.adapters.in.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "AppendClausesRequest")
+public record AppendClausesRequestDto(
+        @Schema(example = "[\"O locatário concorda com ...\", \"Fica estabelecido que ...\"]") List<String> clauses
+) {}
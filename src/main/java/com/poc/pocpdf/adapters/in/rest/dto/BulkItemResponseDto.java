@@ -0,0 +1,16 @@
+package com.poc.pocpdf.adapters.in.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/** Uma linha do NDJSON por contrato concluído. */
+@Schema(name = "BulkItemResponse")
+public record BulkItemResponseDto(
+        @Schema(example = "item") String type,
+        String contractName,
+        @Schema(example = "SUCCEEDED") String status,
+        @Schema(example = "v3") String version,
+        String docxPath,
+        String pdfPath,
+        String error,
+        long durationMs
+) {}
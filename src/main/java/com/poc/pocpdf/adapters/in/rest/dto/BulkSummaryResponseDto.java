@@ -0,0 +1,13 @@
+package com.poc.pocpdf.adapters.in.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/** Última linha do NDJSON. */
+@Schema(name = "BulkSummaryResponse")
+public record BulkSummaryResponseDto(
+        @Schema(example = "summary") String type,
+        int total,
+        int succeeded,
+        int failed,
+        long durationMs
+) {}
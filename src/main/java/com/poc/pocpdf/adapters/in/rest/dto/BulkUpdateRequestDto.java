@@ -0,0 +1,12 @@
+package com.poc.pocpdf.adapters.in.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "BulkUpdateRequest")
+public record BulkUpdateRequestDto(
+        @Schema(example = "[\"contrato-locacao-001\", \"contrato-locacao-002\"]") List<String> contractNames,
+        @Schema(example = "contrato-locacao") String keyPrefix,
+        @Schema(example = "[\"O locatário concorda com ...\"]") List<String> clauses
+) {}
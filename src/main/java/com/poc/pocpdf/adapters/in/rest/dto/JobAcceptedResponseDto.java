@@ -0,0 +1,11 @@
+package com.poc.pocpdf.adapters.in.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "JobAcceptedResponse")
+public record JobAcceptedResponseDto(
+        @Schema(example = "3f1c2a8e-5b1d-4c1e-9a57-0c6f1f0d2b11") String jobId,
+        @Schema(example = "contrato-locacao") String contractName,
+        @Schema(example = "QUEUED") String status,
+        @Schema(example = "/jobs/3f1c2a8e-5b1d-4c1e-9a57-0c6f1f0d2b11") String statusUrl
+) {}
@@ -0,0 +1,18 @@
+package com.poc.pocpdf.adapters.in.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(name = "JobStatusResponse")
+public record JobStatusResponseDto(
+        String jobId,
+        String contractName,
+        @Schema(example = "SUCCEEDED") String status,
+        Instant createdAt,
+        Instant updatedAt,
+        @Schema(example = "v2") String version,
+        String docxPath,
+        String pdfPath,
+        String error
+) {}
@@ -0,0 +1,12 @@
+package com.poc.pocpdf.adapters.in.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "VersionListResponse")
+public record VersionListResponseDto(
+        String contractName,
+        List<VersionResponseDto> items,
+        @Schema(description = "Passar em cursor para a próxima página; null na última") String nextCursor
+) {}
@@ -0,0 +1,14 @@
+package com.poc.pocpdf.adapters.in.rest.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(name = "VersionResponse")
+public record VersionResponseDto(
+        @Schema(example = "v3") String version,
+        Instant createdAt,
+        long docxSize,
+        long pdfSize,
+        @Schema(description = "SHA-256 do template + cláusulas de entrada (null em versões antigas)") String fingerprint
+) {}
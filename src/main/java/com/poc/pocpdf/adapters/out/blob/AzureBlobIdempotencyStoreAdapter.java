@@ -0,0 +1,314 @@
+package com.poc.pocpdf.adapters.out.blob;
+
+import com.azure.core.util.BinaryData;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.models.BlobDownloadContentResponse;
+import com.azure.storage.blob.models.BlobHttpHeaders;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.pocpdf.adapters.out.blob.dto.IdempotencyRecordDto;
+import com.poc.pocpdf.application.exception.IdempotencyInProgressException;
+import com.poc.pocpdf.application.port.out.IdempotencyStorePort;
+import com.poc.pocpdf.application.port.out.IdempotentRequest;
+import com.poc.pocpdf.domain.event.TemplateVersionCreated;
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.Version;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Idempotency-Key compartilhada entre nós: {@code idem/<contrato>/<chave>} no container de saída,
+ * criado só se ainda não existir (If-None-Match: *). Quem cria executa e regrava o registro com a
+ * versão criada; os outros nós devolvem o resultado guardado ou esperam (polling) o dono concluir
+ * por até remoteWait, depois respondem "em andamento" (IdempotencyInProgressException).
+ * No mesmo nó as repetições continuam juntando no future local, sem ir ao Blob.
+ * <p>
+ * Registro concluído vale por ttl; em andamento há mais de pendingTimeout é de um nó que caiu e pode
+ * ser assumido. Os blobs não são apagados depois do ttl: usar uma regra de lifecycle no prefixo {@code idem/}.
+ */
+public class AzureBlobIdempotencyStoreAdapter implements IdempotencyStorePort {
+
+    private static final Logger log = LoggerFactory.getLogger(AzureBlobIdempotencyStoreAdapter.class);
+
+    private static final int MAX_CAS_ATTEMPTS = 10;
+    private static final int MAX_ENCODED_KEY = 256;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+    private static final int MAX_COMPLETE_ATTEMPTS = 3;
+    private static final Duration COMPLETE_BACKOFF = Duration.ofMillis(200);
+
+    private final BlobContainerClient container;
+    private final IdempotencyStorePort local;
+    private final long ttlMillis;
+    private final long pendingTimeoutMillis;
+    private final long remoteWaitMillis;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    // registros criados por este nó: concluir/liberar só se ainda forem os nossos (If-Match)
+    private final ConcurrentHashMap<IdempotentRequest, Owned> owned = new ConcurrentHashMap<>();
+
+    public AzureBlobIdempotencyStoreAdapter(BlobServiceClient serviceClient,
+                                            String outputContainer,
+                                            IdempotencyStorePort local,
+                                            Duration ttl,
+                                            Duration pendingTimeout,
+                                            Duration remoteWait) {
+        this.container = serviceClient.getBlobContainerClient(outputContainer);
+        this.local = local;
+        this.ttlMillis = ttl.toMillis();
+        this.pendingTimeoutMillis = pendingTimeout.toMillis();
+        this.remoteWaitMillis = remoteWait.toMillis();
+    }
+
+    @Override
+    public Optional<IdempotentRequest> putIfAbsent(String key, IdempotentRequest request) {
+        Optional<IdempotentRequest> here = local.putIfAbsent(key, request);
+        if (here.isPresent()) return here;
+
+        try {
+            Optional<IdempotentRequest> elsewhere = claim(key, request);
+            // a execução é de outro nó: a entrada local não pode ficar como se fosse deste
+            if (elsewhere.isPresent()) local.remove(key, request);
+            return elsewhere;
+        } catch (RuntimeException e) {
+            local.remove(key, request);
+            throw e;
+        }
+    }
+
+    @Override
+    public void remove(String key, IdempotentRequest request) {
+        local.remove(key, request);
+
+        Owned mine = owned.remove(request);
+        if (mine == null) return;
+        try {
+            container.getBlobClient(blobName(key)).deleteIfExistsWithResponse(
+                    null, new BlobRequestConditions().setIfMatch(mine.etag()), null, StorageRoundTrips.context());
+        } catch (BlobStorageException e) {
+            // 412: o registro já foi assumido por outro nó
+            if (e.getStatusCode() != 412) throw e;
+        }
+    }
+
+    private Optional<IdempotentRequest> claim(String key, IdempotentRequest request) {
+        BlobClient blob = container.getBlobClient(blobName(key));
+        long createdAt = System.currentTimeMillis();
+        IdempotencyRecordDto pending = new IdempotencyRecordDto(request.fingerprint(), createdAt, null, null, null, null, null);
+
+        String ifMatch = null;
+        for (int attempt = 1; attempt <= MAX_CAS_ATTEMPTS; attempt++) {
+            Optional<String> etag = tryWrite(blob, pending, ifMatch);
+            if (etag.isPresent()) {
+                owned.put(request, new Owned(etag.get(), createdAt));
+                request.result().whenComplete((created, error) -> {
+                    if (error == null) complete(blob, key, request, created);
+                });
+                return Optional.empty();
+            }
+
+            Optional<Stored> current = read(blob);
+            if (current.isEmpty()) {
+                // liberado entre a criação e a leitura
+                ifMatch = null;
+                continue;
+            }
+            Stored stored = current.get();
+            if (stored.dto() == null || expired(stored.dto(), System.currentTimeMillis())) {
+                ifMatch = stored.etag();
+                continue;
+            }
+            return Optional.of(toRequest(blob, stored.dto()));
+        }
+        throw new RuntimeException("Não foi possível registrar Idempotency-Key (concorrência): " + key);
+    }
+
+    // a versão já foi criada: se o registro não for concluído, fica em andamento até pendingTimeout
+    // e a repetição em outro nó gera outra versão; por isso tenta algumas vezes antes de desistir
+    private void complete(BlobClient blob, String key, IdempotentRequest request, TemplateVersionCreated created) {
+        Owned mine = owned.remove(request);
+        if (mine == null) return;
+        IdempotencyRecordDto done = new IdempotencyRecordDto(
+                request.fingerprint(),
+                mine.createdAt(),
+                System.currentTimeMillis(),
+                created.contractName().value(),
+                created.version().number(),
+                created.docxPath(),
+                created.pdfPath());
+
+        String etag = mine.etag();
+        for (int attempt = 1; attempt <= MAX_COMPLETE_ATTEMPTS; attempt++) {
+            try {
+                if (tryWrite(blob, done, etag).isPresent()) return;
+
+                // 412: o ETag mudou; só regrava se o registro ainda for o nosso
+                Optional<Stored> current = read(blob);
+                IdempotencyRecordDto dto = current.map(Stored::dto).orElse(null);
+                if (dto == null || dto.createdAt() != mine.createdAt() || dto.completedAt() != null) {
+                    log.warn("Registro de Idempotency-Key {} assumido por outro nó antes de concluir {}",
+                            key, created.version().asString());
+                    return;
+                }
+                etag = current.get().etag();
+            } catch (RuntimeException e) {
+                log.warn("Falha ao concluir registro de Idempotency-Key {} (tentativa {}/{})",
+                        key, attempt, MAX_COMPLETE_ATTEMPTS, e);
+                if (!pause(COMPLETE_BACKOFF.multipliedBy(attempt))) break;
+            }
+        }
+        log.error("Registro de Idempotency-Key {} ficou em andamento; {} criada mas não registrada",
+                key, created.version().asString());
+    }
+
+    private static boolean pause(Duration delay) {
+        try {
+            Thread.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private IdempotentRequest toRequest(BlobClient blob, IdempotencyRecordDto dto) {
+        if (dto.completedAt() != null) {
+            return new IdempotentRequest(dto.fingerprint(), CompletableFuture.completedFuture(toEvent(dto)));
+        }
+        CompletableFuture<TemplateVersionCreated> result = new CompletableFuture<>();
+        Thread.ofVirtual().name("idem-wait").start(() -> awaitOwner(blob, dto.createdAt(), result));
+        return new IdempotentRequest(dto.fingerprint(), result);
+    }
+
+    // pedido em andamento em outro nó: espera o registro ser concluído, liberado ou abandonado, até remoteWait
+    private void awaitOwner(BlobClient blob, long createdAt, CompletableFuture<TemplateVersionCreated> result) {
+        long deadline = System.currentTimeMillis() + remoteWaitMillis;
+        try {
+            while (true) {
+                if (System.currentTimeMillis() >= deadline) {
+                    result.completeExceptionally(new IdempotencyInProgressException(
+                            "O pedido original com essa Idempotency-Key ainda está em andamento; tente novamente.",
+                            Math.max(1, Duration.ofMillis(remoteWaitMillis).toSeconds())));
+                    return;
+                }
+                Thread.sleep(POLL_INTERVAL);
+                Optional<Stored> current = read(blob);
+                IdempotencyRecordDto dto = current.map(Stored::dto).orElse(null);
+
+                if (dto == null || dto.createdAt() != createdAt) {
+                    result.completeExceptionally(new IllegalStateException(
+                            "O pedido original com essa Idempotency-Key falhou; tente novamente."));
+                    return;
+                }
+                if (dto.completedAt() != null) {
+                    result.complete(toEvent(dto));
+                    return;
+                }
+                if (expired(dto, System.currentTimeMillis())) {
+                    result.completeExceptionally(new IllegalStateException(
+                            "O pedido original com essa Idempotency-Key não terminou; tente novamente."));
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(new RuntimeException("Espera pela Idempotency-Key interrompida.", e));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private boolean expired(IdempotencyRecordDto dto, long now) {
+        return dto.completedAt() != null
+                ? now - dto.completedAt() > ttlMillis
+                : now - dto.createdAt() > pendingTimeoutMillis;
+    }
+
+    private Optional<Stored> read(BlobClient blob) {
+        BlobDownloadContentResponse resp;
+        try {
+            resp = BlobContainers.retryIfMissing(container,
+                    () -> blob.downloadContentWithResponse(null, null, null, StorageRoundTrips.context()));
+        } catch (BlobStorageException e) {
+            if (e.getStatusCode() == 404) return Optional.empty();
+            throw e;
+        }
+
+        String etag = resp.getDeserializedHeaders().getETag();
+        try {
+            return Optional.of(new Stored(mapper.readValue(resp.getValue().toBytes(), IdempotencyRecordDto.class), etag));
+        } catch (IOException e) {
+            // registro corrompido: pode ser sobrescrito (If-Match)
+            return Optional.of(new Stored(null, etag));
+        }
+    }
+
+    /**
+     * @param etag ETag lido; null = só cria se ainda não existir
+     * @return ETag gravado, ou vazio quando outro nó escreveu antes (412/409)
+     */
+    private Optional<String> tryWrite(BlobClient blob, IdempotencyRecordDto dto, String etag) {
+        BlobRequestConditions conditions = (etag == null)
+                ? new BlobRequestConditions().setIfNoneMatch("*")
+                : new BlobRequestConditions().setIfMatch(etag);
+
+        try {
+            byte[] json = mapper.writeValueAsBytes(dto);
+            return Optional.of(BlobContainers.retryIfMissing(container, () -> blob.uploadWithResponse(
+                    new BlobParallelUploadOptions(BinaryData.fromBytes(json))
+                            .setHeaders(new BlobHttpHeaders().setContentType("application/json"))
+                            .setRequestConditions(conditions),
+                    null,
+                    StorageRoundTrips.context())).getValue().getETag());
+        } catch (BlobStorageException e) {
+            if (e.getStatusCode() == 412 || e.getStatusCode() == 409) return Optional.empty();
+            throw e;
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao serializar registro de Idempotency-Key.", e);
+        }
+    }
+
+    /** A chave do serviço é {@code <chave-do-contrato>:<Idempotency-Key>}. */
+    static String blobName(String key) {
+        int sep = key.indexOf(':');
+        String contract = sep < 0 ? "_" : key.substring(0, sep);
+        String encoded = URLEncoder.encode(key.substring(sep + 1), StandardCharsets.UTF_8);
+        // nome de blob tem limite; chaves longas viram hash
+        if (encoded.length() > MAX_ENCODED_KEY) encoded = sha256(encoded);
+        return "idem/" + contract + "/" + encoded;
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível.", e);
+        }
+    }
+
+    private static TemplateVersionCreated toEvent(IdempotencyRecordDto dto) {
+        return new TemplateVersionCreated(
+                new ContractName(dto.contractName()),
+                new Version(dto.version()),
+                dto.docxPath(),
+                dto.pdfPath());
+    }
+
+    private record Owned(String etag, long createdAt) {}
+
+    private record Stored(IdempotencyRecordDto dto, String etag) {}
+}
@@ -1,31 +1,79 @@
 package com.poc.pocpdf.adapters.out.blob;
 
+import com.azure.core.http.RequestConditions;
+import com.azure.core.util.Context;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.models.BlobStorageException;
 import com.azure.storage.blob.specialized.BlobLeaseClient;
 import com.azure.storage.blob.specialized.BlobLeaseClientBuilder;
+import com.poc.pocpdf.application.port.out.LockHandle;
 import com.poc.pocpdf.application.port.out.LockPort;
+import com.poc.pocpdf.application.port.out.LockedAction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.time.Duration;
-import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public class AzureBlobLeaseLockAdapter implements LockPort {
+public class AzureBlobLeaseLockAdapter implements LockPort, AutoCloseable {
 
-    private final BlobServiceClient serviceClient;
-    private final String outputContainer;
+    private static final Logger log = LoggerFactory.getLogger(AzureBlobLeaseLockAdapter.class);
 
-    public AzureBlobLeaseLockAdapter(BlobServiceClient serviceClient, String outputContainer) {
-        this.serviceClient = serviceClient;
-        this.outputContainer = outputContainer;
+    private final BlobContainerClient container;
+    private final Duration acquireTimeout;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+
+    // só agenda; cada renovação roda na sua virtual thread, para uma chamada lenta não atrasar os outros leases
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "lock-lease-renewer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final DistributionSummary leaseAttempts;
+    private final MeterRegistry registry;
+    private final Counter renewed;
+    private final Counter renewFailed;
+    private final Counter leaseLost;
+
+    public AzureBlobLeaseLockAdapter(BlobServiceClient serviceClient,
+                                     String outputContainer,
+                                     MeterRegistry meterRegistry) {
+        this(serviceClient, outputContainer, Duration.ofSeconds(60), 100, 5_000, meterRegistry);
     }
 
-    private BlobContainerClient container() {
-        BlobContainerClient c = serviceClient.getBlobContainerClient(outputContainer);
-        if (!c.exists()) c.create();
-        return c;
+    public AzureBlobLeaseLockAdapter(BlobServiceClient serviceClient,
+                                     String outputContainer,
+                                     Duration acquireTimeout,
+                                     long backoffBaseMs,
+                                     long backoffMaxMs,
+                                     MeterRegistry meterRegistry) {
+        // container criado na subida; o client é só referência local (sem round trip)
+        this.container = serviceClient.getBlobContainerClient(outputContainer);
+        this.acquireTimeout = (acquireTimeout == null || acquireTimeout.isNegative() || acquireTimeout.isZero())
+                ? Duration.ofSeconds(60)
+                : acquireTimeout;
+        this.backoffBaseMs = Math.max(1, backoffBaseMs);
+        this.backoffMaxMs = Math.max(this.backoffBaseMs, backoffMaxMs);
+
+        this.leaseAttempts = DistributionSummary.builder("lock.lease.attempts").register(meterRegistry);
+        this.registry = meterRegistry;
+        this.renewed = Counter.builder("lock.lease.renewals").tag("outcome", "success").register(meterRegistry);
+        this.renewFailed = Counter.builder("lock.lease.renewals").tag("outcome", "failure").register(meterRegistry);
+        this.leaseLost = Counter.builder("lock.lease.lost").register(meterRegistry);
     }
 
     private String lockBlobName(String lockKey) {
@@ -35,51 +83,190 @@ public class AzureBlobLeaseLockAdapter implements LockPort {
     }
 
     @Override
-    public <T> T withLock(String lockKey, Duration ttl, Callable<T> action) {
-        BlobClient lockBlob = container().getBlobClient(lockBlobName(lockKey));
-
-        if (!lockBlob.exists()) {
-            lockBlob.upload(new ByteArrayInputStream(new byte[0]), 0, true);
-        }
+    public <T> T withLock(String lockKey, Duration ttl, LockedAction<T> action) {
+        BlobClient lockBlob = container.getBlobClient(lockBlobName(lockKey));
 
         BlobLeaseClient leaseClient = new BlobLeaseClientBuilder()
                 .blobClient(lockBlob)
                 .buildClient();
 
+        // duração do lease (limites do Azure); a ação pode passar disso porque o lease é renovado
         int seconds = (int) Math.max(15, Math.min(60, ttl == null ? 60 : ttl.getSeconds()));
-        String leaseId = null;
 
-        for (int attempt = 1; attempt <= 30; attempt++) {
-            try {
-                leaseId = leaseClient.acquireLease(seconds);
-                break;
-            } catch (BlobStorageException e) {
-                if (e.getStatusCode() == 409) {
-                    try {
-                        Thread.sleep(200L * attempt);
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        throw new RuntimeException("Interrompido aguardando lock.", ie);
-                    }
-                } else {
-                    throw e;
-                }
-            }
-        }
+        acquire(lockKey, lockBlob, leaseClient, seconds);
 
-        if (leaseId == null) {
-            throw new RuntimeException("Não foi possível adquirir lock para: " + lockKey);
-        }
+        LeaseHandle handle = new LeaseHandle(lockKey, seconds);
+        long period = Math.max(1, seconds / 3);
+        // timeout por chamada = um período: a próxima tentativa ainda cabe antes do lease vencer
+        Duration renewTimeout = Duration.ofSeconds(period);
+        ScheduledFuture<?> renewal = renewer.scheduleAtFixedRate(() -> {
+            if (handle.startRenewal()) {
+                Thread.ofVirtual().name("lock-lease-renew").start(() -> renew(leaseClient, handle, renewTimeout));
+            }
+        }, period, period, TimeUnit.SECONDS);
 
         try {
-            return action.call();
+            return action.run(handle);
+        } catch (RuntimeException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         } finally {
+            renewal.cancel(false);
+            handle.released();
             try {
                 leaseClient.releaseLease();
             } catch (Exception ignore) {
             }
         }
     }
+
+    /** Backoff exponencial com jitter ("full jitter"), limitado por acquireTimeout. */
+    private void acquire(String lockKey, BlobClient lockBlob, BlobLeaseClient leaseClient, int seconds) {
+        boolean lockBlobCreated = false;
+        int attempts = 0;
+        long start = System.nanoTime();
+        long deadline = start + acquireTimeout.toNanos();
+        String outcome = "error";
+
+        try {
+            while (true) {
+                try {
+                    attempts++;
+                    leaseClient.acquireLease(seconds);
+                    outcome = "acquired";
+                    return;
+                } catch (BlobStorageException e) {
+                    if (e.getStatusCode() == 404 && !lockBlobCreated) {
+                        // primeira vez desse lock (ou container recriado): cria o blob e tenta de novo
+                        createLockBlob(lockBlob);
+                        lockBlobCreated = true;
+                        continue;
+                    }
+                    if (e.getStatusCode() != 409) throw e;
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    outcome = "timeout";
+                    throw new RuntimeException("Não foi possível adquirir lock para: " + lockKey);
+                }
+
+                long cap = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempts - 1, 20));
+                long sleep = Math.min(ThreadLocalRandom.current().nextLong(cap + 1), TimeUnit.NANOSECONDS.toMillis(remaining));
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrompido aguardando lock.", ie);
+                }
+            }
+        } finally {
+            leaseAttempts.record(attempts);
+            // mesmas chaves de tag do lock.wait dos outros níveis (tier, outcome)
+            Timer.builder("lock.wait")
+                    .tag("tier", "lease")
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void renew(BlobLeaseClient leaseClient, LeaseHandle handle, Duration timeout) {
+        try {
+            if (!handle.isValid()) return;
+            leaseClient.renewLeaseWithResponse((RequestConditions) null, timeout, Context.NONE);
+            handle.renewed();
+            renewed.increment();
+        } catch (BlobStorageException e) {
+            // renovação que ainda estava em voo quando o lock foi solto
+            if (handle.isReleased()) return;
+            renewFailed.increment();
+            // 409/412: o lease já é de outro (ou expirou e foi tomado); não adianta insistir
+            if (e.getStatusCode() == 409 || e.getStatusCode() == 412) {
+                handle.lost();
+                leaseLost.increment();
+                log.warn("Lease perdido para {}: {}", handle.key(), e.getErrorCode());
+            } else {
+                log.warn("Falha ao renovar lease de {} (tenta de novo até expirar)", handle.key(), e);
+            }
+        } catch (RuntimeException e) {
+            // inclui o timeout da chamada
+            if (handle.isReleased()) return;
+            renewFailed.increment();
+            log.warn("Falha ao renovar lease de {} (tenta de novo até expirar)", handle.key(), e);
+        } finally {
+            handle.renewalDone();
+        }
+    }
+
+    private void createLockBlob(BlobClient lockBlob) {
+        try {
+            BlobContainers.retryIfMissing(container,
+                    () -> lockBlob.upload(new ByteArrayInputStream(new byte[0]), 0, false));
+        } catch (BlobStorageException e) {
+            // outro nó criou ao mesmo tempo
+            if (e.getStatusCode() != 409) throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        renewer.shutdownNow();
+    }
+
+    /**
+     * Válido enquanto não houve falha definitiva de renovação e a última renovação não venceu.
+     * A margem de 2s cobre a latência da gravação que vem logo depois do check.
+     */
+    private static final class LeaseHandle implements LockHandle {
+
+        private final String key;
+        private final long leaseNanos;
+        private volatile long expiresAt;
+        private volatile boolean lost;
+        private volatile boolean released;
+        // no máximo uma renovação em andamento por lease
+        private final AtomicBoolean renewing = new AtomicBoolean();
+
+        LeaseHandle(String key, int leaseSeconds) {
+            this.key = key;
+            this.leaseNanos = TimeUnit.SECONDS.toNanos(leaseSeconds) - TimeUnit.SECONDS.toNanos(2);
+            this.expiresAt = System.nanoTime() + leaseNanos;
+        }
+
+        void renewed() {
+            expiresAt = System.nanoTime() + leaseNanos;
+        }
+
+        void lost() {
+            lost = true;
+        }
+
+        void released() {
+            released = true;
+        }
+
+        boolean isReleased() {
+            return released;
+        }
+
+        boolean startRenewal() {
+            return renewing.compareAndSet(false, true);
+        }
+
+        void renewalDone() {
+            renewing.set(false);
+        }
+
+        @Override
+        public String key() {
+            return key;
+        }
+
+        @Override
+        public boolean isValid() {
+            return !lost && !released && System.nanoTime() - expiresAt < 0;
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package com.poc.pocpdf.adapters.out.blob;
+
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRange;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.poc.pocpdf.application.port.out.StoredDocument;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Metadados vêm de um HEAD; o download vai direto do Blob para o stream de saída, preso ao ETag
+ * lido (If-Match) para não misturar bytes de duas versões do blob.
+ */
+class AzureBlobStoredDocument implements StoredDocument {
+
+    private final BlobClient blob;
+    private final String etag;
+    private final long size;
+    private final Map<String, String> metadata;
+
+    private AzureBlobStoredDocument(BlobClient blob, String etag, long size, Map<String, String> metadata) {
+        this.blob = blob;
+        this.etag = etag;
+        this.size = size;
+        this.metadata = metadata == null ? Map.of() : Map.copyOf(metadata);
+    }
+
+    static Optional<StoredDocument> head(BlobClient blob) {
+        try {
+            BlobProperties props = blob.getProperties();
+            return Optional.of(new AzureBlobStoredDocument(blob, props.getETag(), props.getBlobSize(), props.getMetadata()));
+        } catch (BlobStorageException e) {
+            if (e.getStatusCode() == 404) return Optional.empty();
+            throw e;
+        }
+    }
+
+    @Override
+    public String etag() {
+        return etag;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public Map<String, String> metadata() {
+        return metadata;
+    }
+
+    @Override
+    public void copyTo(OutputStream out, long offset, long count) throws IOException {
+        if (count <= 0) return;
+        try {
+            blob.downloadStreamWithResponse(
+                    out,
+                    new BlobRange(offset, count),
+                    null,
+                    new BlobRequestConditions().setIfMatch(etag),
+                    false,
+                    null,
+                    StorageRoundTrips.context());
+        } catch (BlobStorageException e) {
+            throw new IOException("Falha ao transmitir blob " + blob.getBlobName(), e);
+        }
+    }
+}
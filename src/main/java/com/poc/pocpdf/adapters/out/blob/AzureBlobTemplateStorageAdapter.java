@@ -3,43 +3,46 @@ package com.poc.pocpdf.adapters.out.blob;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
-import com.azure.storage.blob.models.BlobItem;
 import com.azure.storage.blob.models.BlobStorageException;
-import com.azure.storage.blob.models.ListBlobsOptions;
+import com.poc.pocpdf.application.port.out.StoredDocument;
 import com.poc.pocpdf.application.port.out.TemplateStoragePort;
 import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.Version;
+import io.micrometer.core.instrument.MeterRegistry;
 
-import java.io.ByteArrayInputStream;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
 
 public class AzureBlobTemplateStorageAdapter implements TemplateStoragePort {
 
-    private final BlobServiceClient serviceClient;
-    private final String templatesContainer;
-    private final String outputContainer;
+    private final BlobContainerClient templatesContainer;
+    private final BlobContainerClient outputContainer;
 
-    // versions ficam no outputContainer
-    private static final Pattern VERSION_PATTERN = Pattern.compile("/v(\\d+)/", Pattern.CASE_INSENSITIVE);
+    // versions ficam no outputContainer; a última é apontada por contratos/<key>/latest.json
+    private final ContractManifestStore manifest;
+    private final BlobUploads uploads;
 
     public AzureBlobTemplateStorageAdapter(BlobServiceClient serviceClient,
                                            String templatesContainer,
-                                           String outputContainer) {
-        this.serviceClient = serviceClient;
-        this.templatesContainer = templatesContainer;
-        this.outputContainer = outputContainer;
+                                           String outputContainer,
+                                           BlobTransferSettings transfer,
+                                           MeterRegistry meterRegistry) {
+        // containers criados na subida; clients cacheados (sem exists() a cada operação)
+        this.templatesContainer = serviceClient.getBlobContainerClient(templatesContainer);
+        this.outputContainer = serviceClient.getBlobContainerClient(outputContainer);
+        this.manifest = new ContractManifestStore(serviceClient, outputContainer);
+        this.uploads = new BlobUploads(transfer, meterRegistry);
     }
 
     private BlobContainerClient templates() {
-        BlobContainerClient c = serviceClient.getBlobContainerClient(templatesContainer);
-        if (!c.exists()) c.create();
-        return c;
+        return templatesContainer;
     }
 
     private BlobContainerClient output() {
-        BlobContainerClient c = serviceClient.getBlobContainerClient(outputContainer);
-        if (!c.exists()) c.create();
-        return c;
+        return outputContainer;
     }
 
     private String baseTemplateBlobName(ContractName contractName) {
@@ -61,12 +64,32 @@ public class AzureBlobTemplateStorageAdapter implements TemplateStoragePort {
 
         BlobClient blob = templates().getBlobClient(baseTemplateBlobName(contractName));
         try {
-            blob.upload(new ByteArrayInputStream(docxBytes), docxBytes.length, true);
+            BlobContainers.retryIfMissing(templates(),
+                    () -> uploads.upload(blob, docxBytes, "template"));
         } catch (BlobStorageException e) {
             throw new RuntimeException("Falha ao salvar template base no Blob: " + baseTemplateBlobName(contractName), e);
         }
     }
 
+    @Override
+    public void save(ContractName contractName, Path docxFile) {
+        // salva o template BASE em streaming a partir do arquivo
+        if (docxFile == null || !Files.isRegularFile(docxFile)) {
+            throw new IllegalArgumentException("Template DOCX não encontrado: " + docxFile);
+        }
+
+        BlobClient blob = templates().getBlobClient(baseTemplateBlobName(contractName));
+        try {
+            if (Files.size(docxFile) == 0) {
+                throw new IllegalArgumentException("Template DOCX vazio.");
+            }
+            BlobContainers.retryIfMissing(templates(),
+                    () -> uploads.uploadFile(blob, docxFile, "template"));
+        } catch (IOException | BlobStorageException e) {
+            throw new RuntimeException("Falha ao salvar template base no Blob: " + baseTemplateBlobName(contractName), e);
+        }
+    }
+
     @Override
     public byte[] load(ContractName contractName) {
         // carrega SEMPRE a ÚLTIMA versão vN do output
@@ -79,43 +102,56 @@ public class AzureBlobTemplateStorageAdapter implements TemplateStoragePort {
         try {
             return output().getBlobClient(latest).downloadContent().toBytes();
         } catch (BlobStorageException e) {
-            throw new RuntimeException("Falha ao carregar template do Blob para contrato: " + contractName.value(), e);
+            if (e.getStatusCode() != 404) {
+                throw new RuntimeException("Falha ao carregar template do Blob para contrato: " + contractName.value(), e);
+            }
         }
-    }
-
-    private String findLatestVersionDocxBlobName(ContractName contractName) {
-        String key = contractName.asKey();
-        String prefix = "contratos/" + key + "/"; // dentro do outputContainer
-
-        int bestVersion = -1;
-        String bestBlobName = null;
-
-        Iterable<BlobItem> items = output().listBlobs(new ListBlobsOptions().setPrefix(prefix), null);
 
-        for (BlobItem item : items) {
-            if (item == null) continue;
+        // ponteiro desatualizado (blob removido): reconstrói pela listagem e tenta de novo
+        String rebuilt = manifest.rebuild(contractName)
+                .map(v -> latestDocxBlobName(contractName, v))
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Nenhuma versão encontrada para contrato: " + contractName.value()));
 
-            String name = item.getName();
-            if (name == null) continue;
+        try {
+            return output().getBlobClient(rebuilt).downloadContent().toBytes();
+        } catch (BlobStorageException e) {
+            throw new RuntimeException("Falha ao carregar template do Blob para contrato: " + contractName.value(), e);
+        }
+    }
 
-            if (!name.toLowerCase().endsWith(".docx")) continue;
+    @Override
+    public Optional<StoredDocument> findLatest(ContractName contractName) {
+        String latest = findLatestVersionDocxBlobName(contractName);
+        if (latest == null) return Optional.empty();
 
-            Matcher m = VERSION_PATTERN.matcher(name);
-            if (!m.find()) continue;
+        Optional<StoredDocument> doc = AzureBlobStoredDocument.head(output().getBlobClient(latest));
+        if (doc.isPresent()) return doc;
 
-            int v;
-            try {
-                v = Integer.parseInt(m.group(1));
-            } catch (NumberFormatException e) {
-                continue;
-            }
+        // ponteiro desatualizado: reconstrói e tenta uma vez
+        return manifest.rebuild(contractName)
+                .map(v -> latestDocxBlobName(contractName, v))
+                .flatMap(name -> AzureBlobStoredDocument.head(output().getBlobClient(name)));
+    }
 
-            if (v > bestVersion) {
-                bestVersion = v;
-                bestBlobName = name;
-            }
+    @Override
+    public List<ContractName> findContracts(String keyPrefix) {
+        try {
+            return manifest.keys(keyPrefix).stream().map(ContractName::new).toList();
+        } catch (BlobStorageException e) {
+            throw new RuntimeException("Falha ao listar contratos no Blob com prefixo: " + keyPrefix, e);
         }
+    }
 
-        return bestBlobName;
+    private String findLatestVersionDocxBlobName(ContractName contractName) {
+        // um GET em contratos/<key>/latest.json em vez de listar todas as versões
+        return manifest.latest(contractName)
+                .map(v -> latestDocxBlobName(contractName, v))
+                .orElse(null);
+    }
+
+    private String latestDocxBlobName(ContractName contractName, Version version) {
+        String key = contractName.asKey();
+        return ContractManifestStore.prefix(contractName) + version.asString() + "/" + key + ".docx";
     }
 }
@@ -4,56 +4,57 @@ import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobListDetails;
 import com.azure.storage.blob.models.ListBlobsOptions;
+import com.poc.pocpdf.application.port.out.StoredDocument;
 import com.poc.pocpdf.application.port.out.VersionedOutputPort;
 import com.poc.pocpdf.domain.model.ContractName;
 import com.poc.pocpdf.domain.model.Version;
+import com.poc.pocpdf.domain.model.VersionInfo;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class AzureBlobVersionedOutputAdapter implements VersionedOutputPort {
 
-    private final BlobServiceClient serviceClient;
-    private final String outputContainer;
+    private final BlobContainerClient container;
+    private final ContractManifestStore manifest;
+    private final BlobUploads uploads;
 
-    public AzureBlobVersionedOutputAdapter(BlobServiceClient serviceClient, String outputContainer) {
-        this.serviceClient = serviceClient;
-        this.outputContainer = outputContainer;
+    public AzureBlobVersionedOutputAdapter(BlobServiceClient serviceClient,
+                                           String outputContainer,
+                                           BlobTransferSettings transfer,
+                                           MeterRegistry meterRegistry) {
+        this.container = serviceClient.getBlobContainerClient(outputContainer);
+        this.manifest = new ContractManifestStore(serviceClient, outputContainer);
+        this.uploads = new BlobUploads(transfer, meterRegistry);
     }
 
     private BlobContainerClient container() {
-        BlobContainerClient c = serviceClient.getBlobContainerClient(outputContainer);
-        if (!c.exists()) c.create();
-        return c;
+        return container;
     }
 
     private String prefix(ContractName contractName) {
-        return "contratos/" + contractName.asKey() + "/";
+        return ContractManifestStore.prefix(contractName);
     }
 
     @Override
     public Version nextVersion(ContractName contractName) {
-        String pfx = prefix(contractName);
-
-        Pattern pat = Pattern.compile("^" + Pattern.quote(pfx) + "v(\\d+)/.*$");
-        int max = 0;
-
-        for (BlobItem item : container().listBlobs(new ListBlobsOptions().setPrefix(pfx), null)) {
-            Matcher m = pat.matcher(item.getName());
-            if (m.matches()) {
-                int v = Integer.parseInt(m.group(1));
-                if (v > max) max = v;
-            }
-        }
-
-        return new Version(max + 1);
+        // claim create-only em contratos/<key>/vN/.claim; seguro com ou sem lock
+        return manifest.claim(contractName);
     }
 
     @Override
-    public void save(ContractName contractName, Version version, String fileName, Path file) {
+    public void save(ContractName contractName, Version version, String fileName, Path file,
+                     Map<String, String> metadata) {
         if (file == null || !Files.exists(file)) {
             throw new IllegalArgumentException("Arquivo não existe: " + (file == null ? "null" : file.toAbsolutePath()));
         }
@@ -61,6 +62,90 @@ public class AzureBlobVersionedOutputAdapter implements VersionedOutputPort {
         String blobName = prefix(contractName) + version.asString() + "/" + fileName;
 
         BlobClient blob = container().getBlobClient(blobName);
-        blob.uploadFromFile(file.toAbsolutePath().toString(), true);
+        BlobContainers.retryIfMissing(container(),
+                () -> uploads.uploadFile(blob, file, extension(fileName), metadata));
+    }
+
+    // tag da métrica: docx / pdf
+    private static String extension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "other" : fileName.substring(dot + 1).toLowerCase();
+    }
+
+    @Override
+    public void delete(ContractName contractName, Version version, String fileName) {
+        String blobName = prefix(contractName) + version.asString() + "/" + fileName;
+        BlobContainers.retryIfMissing(container(),
+                () -> container().getBlobClient(blobName).deleteIfExists());
+    }
+
+    @Override
+    public Optional<StoredDocument> find(ContractName contractName, Version version, String fileName) {
+        String blobName = prefix(contractName) + version.asString() + "/" + fileName;
+        return AzureBlobStoredDocument.head(container().getBlobClient(blobName));
+    }
+
+    @Override
+    public void publish(ContractName contractName, Version version) {
+        manifest.publish(contractName, version);
+    }
+
+    @Override
+    public Optional<Version> latest(ContractName contractName) {
+        return manifest.latest(contractName);
+    }
+
+    @Override
+    public List<VersionInfo> listVersions(ContractName contractName) {
+        String pfx = prefix(contractName);
+        String key = contractName.asKey();
+        Pattern pat = Pattern.compile("^" + Pattern.quote(pfx) + "v(\\d+)/(.*)$");
+
+        // metadados vêm na própria listagem
+        ListBlobsOptions options = new ListBlobsOptions()
+                .setPrefix(pfx)
+                .setDetails(new BlobListDetails().setRetrieveMetadata(true));
+        List<BlobItem> items = BlobContainers.retryIfMissing(container(),
+                () -> container().listBlobs(options, null).stream().toList());
+
+        // acima do ponteiro estão versões ainda não publicadas (docx/pdf gravados, publish pendente)
+        int latest = manifest.latest(contractName).map(Version::number).orElse(0);
+
+        Map<Integer, VersionFiles> versions = new HashMap<>();
+        for (BlobItem item : items) {
+            if (item == null || item.getName() == null || item.getProperties() == null) continue;
+
+            Matcher m = pat.matcher(item.getName());
+            if (!m.matches() || m.group(1).length() > 9 || Integer.parseInt(m.group(1)) < 1) continue;
+
+            VersionFiles files = versions.computeIfAbsent(Integer.parseInt(m.group(1)), n -> new VersionFiles());
+            long size = item.getProperties().getContentLength() == null ? 0 : item.getProperties().getContentLength();
+            if (m.group(2).equals(key + ".docx")) {
+                files.docxSize = size;
+                files.createdAt = item.getProperties().getCreationTime() == null
+                        ? null
+                        : item.getProperties().getCreationTime().toInstant();
+                files.fingerprint = item.getMetadata() == null ? null : item.getMetadata().get("fingerprint");
+            } else if (m.group(2).equals(key + ".pdf")) {
+                files.pdfSize = size;
+            }
+        }
+
+        return versions.entrySet().stream()
+                .filter(e -> e.getKey() <= latest)
+                .filter(e -> e.getValue().docxSize >= 0 && e.getValue().pdfSize >= 0)
+                .map(e -> e.getValue().toInfo(e.getKey()))
+                .toList();
+    }
+
+    private static final class VersionFiles {
+        long docxSize = -1;
+        long pdfSize = -1;
+        Instant createdAt;
+        String fingerprint;
+
+        VersionInfo toInfo(int number) {
+            return new VersionInfo(new Version(number), createdAt, docxSize, pdfSize, fingerprint);
+        }
     }
 }
@@ -0,0 +1,38 @@
+package com.poc.pocpdf.adapters.out.blob;
+
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobStorageException;
+
+import java.util.function.Supplier;
+
+/**
+ * Os containers são criados na subida (ver AzureClientConfig). Nas operações não se faz mais
+ * exists()/create() preventivo: se o container sumiu, cria e repete a operação uma vez.
+ */
+final class BlobContainers {
+
+    private BlobContainers() {
+    }
+
+    static <T> T retryIfMissing(BlobContainerClient container, Supplier<T> operation) {
+        try {
+            return operation.get();
+        } catch (BlobStorageException e) {
+            if (!isContainerNotFound(e)) throw e;
+            container.createIfNotExists();
+            return operation.get();
+        }
+    }
+
+    static void retryIfMissing(BlobContainerClient container, Runnable operation) {
+        retryIfMissing(container, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    static boolean isContainerNotFound(BlobStorageException e) {
+        return e.getStatusCode() == 404 && BlobErrorCode.CONTAINER_NOT_FOUND.equals(e.getErrorCode());
+    }
+}
@@ -0,0 +1,27 @@
+package com.poc.pocpdf.adapters.out.blob;
+
+/**
+ * Upload em blocos paralelos: acima de maxSingleUploadSizeBytes o arquivo é quebrado em blocos de
+ * blockSizeBytes enviados com até maxConcurrency requisições simultâneas.
+ */
+public record BlobTransferSettings(
+        long blockSizeBytes,
+        int maxConcurrency,
+        long maxSingleUploadSizeBytes
+) {
+    // limites do serviço: bloco até 4000 MiB, upload único até 5000 MiB
+    private static final long MAX_BLOCK_SIZE = 4000L * 1024 * 1024;
+    private static final long MAX_SINGLE_UPLOAD_SIZE = 5000L * 1024 * 1024;
+
+    public BlobTransferSettings {
+        if (blockSizeBytes < 1) throw new IllegalArgumentException("blockSize deve ser > 0");
+        if (blockSizeBytes > MAX_BLOCK_SIZE) throw new IllegalArgumentException("blockSize acima do limite do Azure: " + blockSizeBytes);
+        if (maxConcurrency < 1) maxConcurrency = 1;
+        if (maxSingleUploadSizeBytes < 1) maxSingleUploadSizeBytes = blockSizeBytes;
+        if (maxSingleUploadSizeBytes > MAX_SINGLE_UPLOAD_SIZE) maxSingleUploadSizeBytes = MAX_SINGLE_UPLOAD_SIZE;
+    }
+
+    public static BlobTransferSettings defaults() {
+        return new BlobTransferSettings(8L * 1024 * 1024, 4, 32L * 1024 * 1024);
+    }
+}
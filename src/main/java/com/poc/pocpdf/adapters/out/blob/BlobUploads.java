@@ -0,0 +1,85 @@
+package com.poc.pocpdf.adapters.out.blob;
+
+import com.azure.core.util.BinaryData;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.models.ParallelTransferOptions;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
+import com.azure.storage.blob.options.BlobUploadFromFileOptions;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uploads com {@link ParallelTransferOptions} configurado e medição por upload:
+ * {@code storage.upload{kind}} (tempo) e {@code storage.upload.throughput{kind}} (bytes/s).
+ * Sem condições de escrita: sobrescreve, como o uploadFromFile(path, true) de antes.
+ */
+final class BlobUploads {
+
+    private final ParallelTransferOptions transferOptions;
+    private final MeterRegistry registry;
+
+    BlobUploads(BlobTransferSettings settings, MeterRegistry registry) {
+        BlobTransferSettings s = settings == null ? BlobTransferSettings.defaults() : settings;
+        this.transferOptions = new ParallelTransferOptions()
+                .setBlockSizeLong(s.blockSizeBytes())
+                .setMaxConcurrency(s.maxConcurrency())
+                .setMaxSingleUploadSizeLong(s.maxSingleUploadSizeBytes());
+        this.registry = registry;
+    }
+
+    void uploadFile(BlobClient blob, Path file, String kind) {
+        uploadFile(blob, file, kind, Map.of());
+    }
+
+    /** Metadados vão na mesma requisição do upload (sem setMetadata depois). */
+    void uploadFile(BlobClient blob, Path file, String kind, Map<String, String> metadata) {
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long start = System.nanoTime();
+        blob.uploadFromFileWithResponse(
+                new BlobUploadFromFileOptions(file.toAbsolutePath().toString())
+                        .setParallelTransferOptions(transferOptions)
+                        .setMetadata(metadata == null || metadata.isEmpty() ? null : metadata),
+                null,
+                StorageRoundTrips.context());
+        record(kind, size, System.nanoTime() - start);
+    }
+
+    void upload(BlobClient blob, byte[] bytes, String kind) {
+        long start = System.nanoTime();
+        blob.uploadWithResponse(
+                new BlobParallelUploadOptions(BinaryData.fromBytes(bytes))
+                        .setParallelTransferOptions(transferOptions),
+                null,
+                StorageRoundTrips.context());
+        record(kind, bytes.length, System.nanoTime() - start);
+    }
+
+    private void record(String kind, long bytes, long nanos) {
+        Timer.builder("storage.upload")
+                .tag("kind", kind)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        if (nanos > 0) {
+            DistributionSummary.builder("storage.upload.throughput")
+                    .baseUnit("bytes_per_second")
+                    .tag("kind", kind)
+                    .register(registry)
+                    .record(bytes * 1_000_000_000.0 / nanos);
+        }
+    }
+}
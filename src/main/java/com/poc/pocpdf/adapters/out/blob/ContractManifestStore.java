@@ -0,0 +1,282 @@
+package com.poc.pocpdf.adapters.out.blob;
+
+import com.azure.core.util.BinaryData;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.models.BlobDownloadContentResponse;
+import com.azure.storage.blob.models.BlobHttpHeaders;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.ListBlobsOptions;
+import com.azure.storage.blob.options.BlobParallelUploadOptions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.pocpdf.adapters.out.blob.dto.LatestPointerDto;
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.Version;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Ponteiro por contrato ({@code contratos/<key>/latest.json}) com a última versão publicada e a
+ * maior versão conhecida. Toda escrita é condicional por ETag (If-Match / If-None-Match: *), então
+ * achar a última versão vira um GET pequeno em vez de listar todas as versões. A reserva de número
+ * de versão fica nos blobs {@code vN/.claim}; o ponteiro só indica por onde começar.
+ * <p>
+ * Quando o ponteiro não existe (contratos antigos) ou aponta para algo que sumiu, é reconstruído
+ * a partir da listagem.
+ */
+public class ContractManifestStore {
+
+    private static final int MAX_CAS_ATTEMPTS = 10;
+    private static final int MAX_CLAIM_ATTEMPTS = 100;
+
+    private final BlobContainerClient container;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public ContractManifestStore(BlobServiceClient serviceClient, String outputContainer) {
+        this.container = serviceClient.getBlobContainerClient(outputContainer);
+    }
+
+    private BlobContainerClient container() {
+        return container;
+    }
+
+    static String prefix(ContractName contractName) {
+        return "contratos/" + contractName.asKey() + "/";
+    }
+
+    private static String pointerBlobName(ContractName contractName) {
+        return prefix(contractName) + "latest.json";
+    }
+
+    private static String claimBlobName(ContractName contractName, int version) {
+        return prefix(contractName) + "v" + version + "/.claim";
+    }
+
+    /** Chaves de contrato em {@code contratos/} que começam com keyPrefix (listagem por hierarquia). */
+    public List<String> keys(String keyPrefix) {
+        String root = "contratos/";
+        ListBlobsOptions options = new ListBlobsOptions().setPrefix(root + normalizeKeyPrefix(keyPrefix));
+
+        List<BlobItem> items = BlobContainers.retryIfMissing(container(),
+                () -> container().listBlobsByHierarchy("/", options, null).stream().toList());
+
+        return items.stream()
+                .filter(i -> Boolean.TRUE.equals(i.isPrefix()) && i.getName() != null)
+                .map(i -> i.getName().substring(root.length(), i.getName().length() - 1))
+                .filter(k -> !k.isBlank())
+                .sorted()
+                .toList();
+    }
+
+    static String normalizeKeyPrefix(String keyPrefix) {
+        return keyPrefix == null ? "" : keyPrefix.trim().toLowerCase().replaceAll("[^a-z0-9_-]", "");
+    }
+
+    /** Última versão publicada (docx e pdf gravados). */
+    public Optional<Version> latest(ContractName contractName) {
+        Optional<Pointer> current = read(contractName);
+        if (current.isPresent()) return toVersion(current.get().dto().latest());
+
+        // leitura de contrato inexistente não deve criar ponteiro vazio
+        LatestPointerDto scanned = scan(contractName);
+        if (scanned.lastAllocated() > 0) tryWrite(contractName, scanned, null);
+        return toVersion(scanned.latest());
+    }
+
+    /**
+     * Reserva o próximo número de versão criando {@code vN/.claim} só se ainda não existir
+     * (If-None-Match: *). O ponteiro é só a dica de onde começar: quem perde a corrida tenta N+1.
+     * Não precisa de lock; a criação condicional do claim é a única operação atômica.
+     */
+    public Version claim(ContractName contractName) {
+        LatestPointerDto hint = readOrRebuild(contractName).dto();
+        int latest = toVersion(hint.latest()).map(Version::number).orElse(0);
+        int next = Math.max(hint.lastAllocated(), latest) + 1;
+
+        for (int attempt = 1; attempt <= MAX_CLAIM_ATTEMPTS; attempt++, next++) {
+            if (tryClaim(contractName, next)) {
+                advanceLastAllocated(contractName, next);
+                return new Version(next);
+            }
+        }
+        throw new RuntimeException("Não foi possível alocar versão para contrato (concorrência): " + contractName.value());
+    }
+
+    // só a dica: sem ela, cada claim concorrente refaz as tentativas desde o publicado.
+    // Uma tentativa; se outro nó gravou antes, o próximo claim corrige pelo .claim existente
+    private void advanceLastAllocated(ContractName contractName, int allocated) {
+        try {
+            Optional<Pointer> current = read(contractName);
+            if (current.isEmpty() || current.get().dto().lastAllocated() >= allocated) return;
+            tryWrite(contractName,
+                    new LatestPointerDto(current.get().dto().latest(), allocated),
+                    current.get().etag());
+        } catch (RuntimeException ignore) {
+        }
+    }
+
+    /** Marca a versão como a última publicada; nunca regride. */
+    public void publish(ContractName contractName, Version version) {
+        for (int attempt = 1; attempt <= MAX_CAS_ATTEMPTS; attempt++) {
+            Pointer current = readOrRebuild(contractName);
+            int latest = toVersion(current.dto().latest()).map(Version::number).orElse(0);
+            if (latest >= version.number()) return;
+
+            LatestPointerDto updated = new LatestPointerDto(
+                    version.asString(),
+                    Math.max(current.dto().lastAllocated(), version.number()));
+            if (tryWrite(contractName, updated, current.etag())) return;
+        }
+        throw new RuntimeException("Não foi possível publicar versão " + version.asString()
+                + " para contrato (concorrência): " + contractName.value());
+    }
+
+    /** Ponteiro aponta para blob inexistente: descarta e reconstrói pela listagem. */
+    public Optional<Version> rebuild(ContractName contractName) {
+        LatestPointerDto rebuilt = scan(contractName);
+        for (int attempt = 1; attempt <= MAX_CAS_ATTEMPTS; attempt++) {
+            Optional<Pointer> current = read(contractName);
+            LatestPointerDto merged = current
+                    .map(p -> new LatestPointerDto(rebuilt.latest(),
+                            Math.max(p.dto().lastAllocated(), rebuilt.lastAllocated())))
+                    .orElse(rebuilt);
+            if (tryWrite(contractName, merged, current.map(Pointer::etag).orElse(null))) break;
+        }
+        return toVersion(rebuilt.latest());
+    }
+
+    private Pointer readOrRebuild(ContractName contractName) {
+        for (int attempt = 1; attempt <= MAX_CAS_ATTEMPTS; attempt++) {
+            Optional<Pointer> current = read(contractName);
+            if (current.isPresent()) return current.get();
+
+            // ponteiro ausente: cria a partir da listagem (create-only)
+            tryWrite(contractName, scan(contractName), null);
+        }
+        throw new RuntimeException("Não foi possível criar ponteiro de versões para: " + contractName.value());
+    }
+
+    private Optional<Pointer> read(ContractName contractName) {
+        BlobClient blob = container().getBlobClient(pointerBlobName(contractName));
+        BlobDownloadContentResponse resp;
+        try {
+            resp = BlobContainers.retryIfMissing(container(),
+                    () -> blob.downloadContentWithResponse(null, null, null, StorageRoundTrips.context()));
+        } catch (BlobStorageException e) {
+            if (e.getStatusCode() == 404) return Optional.empty();
+            throw e;
+        }
+
+        String etag = resp.getDeserializedHeaders().getETag();
+        try {
+            LatestPointerDto dto = mapper.readValue(resp.getValue().toBytes(), LatestPointerDto.class);
+            return Optional.of(new Pointer(dto, etag));
+        } catch (IOException e) {
+            // ponteiro corrompido: apaga só se ainda for o mesmo que foi lido (If-Match), para não
+            // destruir um ponteiro válido gravado nesse meio-tempo; as gravações seguintes são create-only
+            discardCorrupt(blob, etag);
+            return Optional.empty();
+        }
+    }
+
+    private void discardCorrupt(BlobClient blob, String etag) {
+        try {
+            blob.deleteIfExistsWithResponse(null, new BlobRequestConditions().setIfMatch(etag), null, StorageRoundTrips.context());
+        } catch (BlobStorageException e) {
+            // 412: outro nó já regravou o ponteiro
+            if (e.getStatusCode() != 412) throw e;
+        }
+    }
+
+    /**
+     * @param etag ETag lido; null = só cria se ainda não existir
+     * @return false quando outro nó escreveu antes (412/409)
+     */
+    private boolean tryWrite(ContractName contractName, LatestPointerDto dto, String etag) {
+        BlobClient blob = container().getBlobClient(pointerBlobName(contractName));
+
+        BlobRequestConditions conditions = (etag == null)
+                ? new BlobRequestConditions().setIfNoneMatch("*")
+                : new BlobRequestConditions().setIfMatch(etag);
+
+        try {
+            byte[] json = mapper.writeValueAsBytes(dto);
+            BlobContainers.retryIfMissing(container(), () -> blob.uploadWithResponse(
+                    new BlobParallelUploadOptions(BinaryData.fromBytes(json))
+                            .setHeaders(new BlobHttpHeaders().setContentType("application/json"))
+                            .setRequestConditions(conditions),
+                    null,
+                    StorageRoundTrips.context()));
+            return true;
+        } catch (BlobStorageException e) {
+            if (e.getStatusCode() == 412 || e.getStatusCode() == 409) return false;
+            throw e;
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao serializar ponteiro de versões.", e);
+        }
+    }
+
+    /** @return false quando a versão já foi reservada por outra atualização (409/412) */
+    private boolean tryClaim(ContractName contractName, int version) {
+        BlobClient blob = container().getBlobClient(claimBlobName(contractName, version));
+        try {
+            BlobContainers.retryIfMissing(container(), () -> blob.uploadWithResponse(
+                    new BlobParallelUploadOptions(BinaryData.fromBytes(new byte[0]))
+                            .setRequestConditions(new BlobRequestConditions().setIfNoneMatch("*")),
+                    null,
+                    StorageRoundTrips.context()));
+            return true;
+        } catch (BlobStorageException e) {
+            if (e.getStatusCode() == 409 || e.getStatusCode() == 412) return false;
+            throw e;
+        }
+    }
+
+    private LatestPointerDto scan(ContractName contractName) {
+        String pfx = prefix(contractName);
+        Pattern pat = Pattern.compile("^" + Pattern.quote(pfx) + "v(\\d+)/(.*)$");
+
+        int maxAny = 0;
+        int maxDocx = 0;
+
+        List<BlobItem> items = BlobContainers.retryIfMissing(container(),
+                () -> container().listBlobs(new ListBlobsOptions().setPrefix(pfx), null).stream().toList());
+
+        for (BlobItem item : items) {
+            if (item == null || item.getName() == null) continue;
+
+            Matcher m = pat.matcher(item.getName());
+            if (!m.matches()) continue;
+
+            int v;
+            try {
+                v = Integer.parseInt(m.group(1));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+
+            if (v > maxAny) maxAny = v;
+            if (m.group(2).toLowerCase().endsWith(".docx") && v > maxDocx) maxDocx = v;
+        }
+
+        return new LatestPointerDto(maxDocx == 0 ? null : "v" + maxDocx, maxAny);
+    }
+
+    private static Optional<Version> toVersion(String latest) {
+        if (latest == null || latest.isBlank()) return Optional.empty();
+        try {
+            return Optional.of(new Version(Integer.parseInt(latest.trim().substring(1))));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private record Pointer(LatestPointerDto dto, String etag) {}
+}
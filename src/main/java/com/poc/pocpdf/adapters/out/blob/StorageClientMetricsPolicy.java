@@ -0,0 +1,68 @@
+package com.poc.pocpdf.adapters.out.blob;
+
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpPipelineNextSyncPolicy;
+import com.azure.core.http.HttpPipelinePosition;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Métricas do lado do cliente HTTP: requisições em voo ({@code storage.http.in_flight}) e
+ * tentativas repetidas pela política de retry ({@code storage.http.retries}).
+ */
+public class StorageClientMetricsPolicy implements HttpPipelinePolicy {
+
+    private static final String ATTEMPT_KEY = "pocpdf.storage.attempt";
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter retries;
+
+    public StorageClientMetricsPolicy(MeterRegistry registry) {
+        Gauge.builder("storage.http.in_flight", inFlight, AtomicInteger::get)
+                .description("Requisições HTTP ao Blob Storage aguardando resposta")
+                .register(registry);
+        this.retries = Counter.builder("storage.http.retries")
+                .description("Tentativas repetidas pela política de retry do SDK")
+                .register(registry);
+    }
+
+    @Override
+    public Mono<HttpResponse> process(HttpPipelineCallContext context, HttpPipelineNextPolicy next) {
+        countAttempt(context);
+        inFlight.incrementAndGet();
+        return next.process().doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    @Override
+    public HttpResponse processSync(HttpPipelineCallContext context, HttpPipelineNextSyncPolicy next) {
+        countAttempt(context);
+        inFlight.incrementAndGet();
+        try {
+            return next.processSync();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public HttpPipelinePosition getPipelinePosition() {
+        return HttpPipelinePosition.PER_RETRY;
+    }
+
+    // o contexto é o mesmo em todas as tentativas da mesma chamada
+    private void countAttempt(HttpPipelineCallContext context) {
+        AtomicInteger attempt = (AtomicInteger) context.getData(ATTEMPT_KEY).orElse(null);
+        if (attempt == null) {
+            context.setData(ATTEMPT_KEY, new AtomicInteger(1));
+        } else if (attempt.incrementAndGet() > 1) {
+            retries.increment();
+        }
+    }
+}
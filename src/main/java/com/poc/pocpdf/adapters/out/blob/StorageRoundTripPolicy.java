@@ -0,0 +1,47 @@
+package com.poc.pocpdf.adapters.out.blob;
+
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpPipelineNextSyncPolicy;
+import com.azure.core.http.HttpPipelinePosition;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Conta cada tentativa HTTP (inclusive retries) feita ao Storage.
+ */
+public class StorageRoundTripPolicy implements HttpPipelinePolicy {
+
+    private final Counter total;
+
+    public StorageRoundTripPolicy(MeterRegistry registry) {
+        this.total = Counter.builder("storage.requests")
+                .description("Requisições HTTP enviadas ao Blob Storage (inclui retries)")
+                .register(registry);
+    }
+
+    @Override
+    public Mono<HttpResponse> process(HttpPipelineCallContext context, HttpPipelineNextPolicy next) {
+        count(context);
+        return next.process();
+    }
+
+    @Override
+    public HttpResponse processSync(HttpPipelineCallContext context, HttpPipelineNextSyncPolicy next) {
+        count(context);
+        return next.processSync();
+    }
+
+    @Override
+    public HttpPipelinePosition getPipelinePosition() {
+        return HttpPipelinePosition.PER_RETRY;
+    }
+
+    private void count(HttpPipelineCallContext context) {
+        total.increment();
+        StorageRoundTrips.increment(context.getData(StorageRoundTrips.CONTEXT_KEY).orElse(null));
+    }
+}
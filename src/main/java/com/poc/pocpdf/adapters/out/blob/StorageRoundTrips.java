@@ -0,0 +1,67 @@
+package com.poc.pocpdf.adapters.out.blob;
+
+import com.azure.core.util.Context;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contador de requisições HTTP ao Storage no escopo da request atual. Não é herdado por threads
+ * novas (threads de pool reaproveitadas levariam o contador de outra request): quem repassa
+ * trabalho para outra thread usa {@link #propagating(Executor)}, que instala e limpa no finally.
+ * <p>
+ * O SDK pode mandar as requisições por threads próprias (upload em blocos paralelos, retries);
+ * por isso as chamadas com {@code Context} usam {@link #context()}, que leva o contador junto.
+ */
+public final class StorageRoundTrips {
+
+    static final String CONTEXT_KEY = "pocpdf.storage-round-trips";
+
+    private static final ThreadLocal<AtomicInteger> CURRENT = new ThreadLocal<>();
+
+    private StorageRoundTrips() {
+    }
+
+    public static AtomicInteger begin() {
+        AtomicInteger counter = new AtomicInteger();
+        CURRENT.set(counter);
+        return counter;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /** Tarefas submetidas contam no contador de quem submeteu (se houver). */
+    public static Executor propagating(Executor delegate) {
+        return task -> {
+            AtomicInteger counter = CURRENT.get();
+            if (counter == null) {
+                delegate.execute(task);
+                return;
+            }
+            delegate.execute(() -> {
+                AtomicInteger previous = CURRENT.get();
+                CURRENT.set(counter);
+                try {
+                    task.run();
+                } finally {
+                    if (previous == null) CURRENT.remove();
+                    else CURRENT.set(previous);
+                }
+            });
+        };
+    }
+
+    /** Context do SDK com o contador atual (Context.NONE fora de request). */
+    static Context context() {
+        AtomicInteger counter = CURRENT.get();
+        return counter == null ? Context.NONE : Context.NONE.addData(CONTEXT_KEY, counter);
+    }
+
+    /** @param fromContext valor de {@link #CONTEXT_KEY} na chamada; sem ele, o da thread atual */
+    static void increment(Object fromContext) {
+        AtomicInteger counter = fromContext instanceof AtomicInteger c ? c : CURRENT.get();
+        if (counter != null) counter.incrementAndGet();
+    }
+}
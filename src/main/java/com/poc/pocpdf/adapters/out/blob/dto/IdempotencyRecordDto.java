@@ -0,0 +1,20 @@
+package com.poc.pocpdf.adapters.out.blob.dto;
+
+/**
+ * Conteúdo de {@code idem/<contrato>/<chave>}: criado pelo nó que executa (sem resultado) e
+ * regravado por ele com a versão criada.
+ *
+ * @param fingerprint template + cláusulas do pedido original
+ * @param createdAt   epoch millis do registro
+ * @param completedAt epoch millis da conclusão; null enquanto em andamento
+ */
+public record IdempotencyRecordDto(
+        String fingerprint,
+        long createdAt,
+        Long completedAt,
+        String contractName,
+        Integer version,
+        String docxPath,
+        String pdfPath
+) {
+}
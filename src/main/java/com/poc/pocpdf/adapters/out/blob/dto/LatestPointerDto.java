@@ -1,5 +1,11 @@
 package com.poc.pocpdf.adapters.out.blob.dto;
 
-public record LatestPointerDto(String latest) {
+/**
+ * Conteúdo de {@code contratos/<key>/latest.json}.
+ *
+ * @param latest        última versão publicada (docx + pdf gravados), ex.: "v7"; null se nenhuma
+ * @param lastAllocated maior versão conhecida (publicada ou reconstruída da listagem); ponto de partida do próximo claim
+ */
+public record LatestPointerDto(String latest, int lastAllocated) {
 
 }
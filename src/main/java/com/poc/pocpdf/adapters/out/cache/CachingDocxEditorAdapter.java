@@ -0,0 +1,68 @@
+package com.poc.pocpdf.adapters.out.cache;
+
+import com.poc.pocpdf.application.port.out.DocxEditorPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Na frente do editor: mesmo editor + mesmo DOCX de entrada + mesmas cláusulas (normalizadas) =
+ * mesmo DOCX editado. O id do editor entra na chave porque poi e streaming geram bytes diferentes.
+ */
+public class CachingDocxEditorAdapter implements DocxEditorPort {
+
+    private final DocxEditorPort delegate;
+    private final String editorId;
+    private final LocalArtifactCache cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public CachingDocxEditorAdapter(DocxEditorPort delegate,
+                                    String editorId,
+                                    LocalArtifactCache cache,
+                                    MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.editorId = editorId;
+        this.cache = cache;
+        this.hits = Counter.builder("render.cache").tag("artifact", "docx").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("render.cache").tag("artifact", "docx").tag("result", "miss").register(meterRegistry);
+    }
+
+    @Override
+    public Path applyExtraClauses(Path templateDocx, String templateHash, Path outputDocx, List<String> extraClauses) {
+        String key;
+        try {
+            // o hash do template vem de quem chama (o pipeline já calculou); só relê o arquivo sem ele
+            String template = templateHash != null ? templateHash : ContentHash.sha256().file(templateDocx).hex();
+            key = ContentHash.sha256()
+                    .text("docx-edit")
+                    .text(editorId)
+                    .text(template)
+                    .texts(normalize(extraClauses))
+                    .hex();
+        } catch (Exception e) {
+            return delegate.applyExtraClauses(templateDocx, templateHash, outputDocx, extraClauses);
+        }
+
+        if (cache.copyTo(key, "docx", outputDocx)) {
+            hits.increment();
+            return outputDocx;
+        }
+
+        misses.increment();
+        Path result = delegate.applyExtraClauses(templateDocx, templateHash, outputDocx, extraClauses);
+        cache.put(key, "docx", result);
+        return result;
+    }
+
+    // o editor ignora vazias e faz trim; a chave segue a mesma regra
+    static List<String> normalize(List<String> clauses) {
+        if (clauses == null) return List.of();
+        return clauses.stream()
+                .filter(c -> c != null && !c.isBlank())
+                .map(String::trim)
+                .toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.poc.pocpdf.adapters.out.cache;
+
+import com.poc.pocpdf.application.port.out.PdfConversionResult;
+import com.poc.pocpdf.application.port.out.PdfConverterPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Na frente do conversor, chaveado pelo hash do DOCX editado. Quando o editor acerta o cache, o DOCX
+ * é byte a byte o mesmo e a conversão também é pulada.
+ */
+public class CachingPdfConverterAdapter implements PdfConverterPort, AutoCloseable {
+
+    private final PdfConverterPort delegate;
+    private final LocalArtifactCache cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public CachingPdfConverterAdapter(PdfConverterPort delegate, LocalArtifactCache cache, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.hits = Counter.builder("render.cache").tag("artifact", "pdf").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("render.cache").tag("artifact", "pdf").tag("result", "miss").register(meterRegistry);
+    }
+
+    @Override
+    public Path docxToPdf(Path docx, Path outDir) {
+        String key;
+        try {
+            key = ContentHash.sha256().text("pdf").file(docx).hex();
+        } catch (Exception e) {
+            return delegate.docxToPdf(docx, outDir);
+        }
+
+        String baseName = docx.getFileName().toString().replaceAll("\\.docx$", "");
+        Path target = outDir.resolve(baseName + ".pdf");
+
+        if (cache.copyTo(key, "pdf", target)) {
+            hits.increment();
+            return target;
+        }
+
+        misses.increment();
+        Path pdf = delegate.docxToPdf(docx, outDir);
+        cache.put(key, "pdf", pdf);
+        return pdf;
+    }
+
+    @Override
+    public List<PdfConversionResult> docxToPdfBatch(List<Path> docxs, Path outDir) {
+        // antes do cache: um hit copiaria por cima do PDF de outro item do lote
+        PdfConverterPort.requireDistinctNames(docxs);
+        PdfConversionResult[] results = new PdfConversionResult[docxs.size()];
+        List<Path> pending = new ArrayList<>();
+        List<Integer> pendingIdx = new ArrayList<>();
+        List<String> pendingKeys = new ArrayList<>();
+
+        for (int i = 0; i < docxs.size(); i++) {
+            Path docx = docxs.get(i);
+            String key = null;
+            try {
+                key = ContentHash.sha256().text("pdf").file(docx).hex();
+                Path target = outDir.resolve(docx.getFileName().toString().replaceAll("\\.docx$", "") + ".pdf");
+                if (cache.copyTo(key, "pdf", target)) {
+                    hits.increment();
+                    results[i] = PdfConversionResult.ok(docx, target);
+                    continue;
+                }
+            } catch (Exception ignore) {
+            }
+            misses.increment();
+            pending.add(docx);
+            pendingIdx.add(i);
+            pendingKeys.add(key);
+        }
+
+        // só os que faltam vão para o conversor, mantendo o lote dele
+        if (!pending.isEmpty()) {
+            List<PdfConversionResult> converted = delegate.docxToPdfBatch(pending, outDir);
+            for (int j = 0; j < converted.size(); j++) {
+                PdfConversionResult r = converted.get(j);
+                if (r.succeeded() && pendingKeys.get(j) != null) cache.put(pendingKeys.get(j), "pdf", r.pdf());
+                results[pendingIdx.get(j)] = r;
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    // o pool/dispatcher do LibreOffice por trás precisa ser encerrado junto com o bean
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable c) c.close();
+    }
+}
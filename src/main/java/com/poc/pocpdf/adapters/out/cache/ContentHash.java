@@ -0,0 +1,56 @@
+package com.poc.pocpdf.adapters.out.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * SHA-256 incremental sobre arquivos e textos, para chavear artefatos pelo conteúdo.
+ */
+final class ContentHash {
+
+    private final MessageDigest digest;
+
+    private ContentHash() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static ContentHash sha256() {
+        return new ContentHash();
+    }
+
+    ContentHash file(Path file) throws IOException {
+        byte[] buf = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buf)) > 0) digest.update(buf, 0, n);
+        }
+        return this;
+    }
+
+    ContentHash text(String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0); // separador: ["ab","c"] != ["a","bc"]
+        return this;
+    }
+
+    ContentHash texts(List<String> values) {
+        text(String.valueOf(values.size()));
+        for (String v : values) text(v);
+        return this;
+    }
+
+    String hex() {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
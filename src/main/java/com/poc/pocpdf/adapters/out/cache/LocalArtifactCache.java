@@ -0,0 +1,152 @@
+package com.poc.pocpdf.adapters.out.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Cache em disco endereçado por conteúdo ({@code <hash>.<ext>}), limitado por tamanho total com
+ * descarte LRU. O índice de acesso fica em memória e é reconstruído pela data dos arquivos na subida.
+ */
+public class LocalArtifactCache {
+
+    private final Path dir;
+    private final long maxBytes;
+
+    // nome do arquivo -> tamanho; ordem de acesso (LRU primeiro)
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public LocalArtifactCache(Path dir, long maxBytes, MeterRegistry meterRegistry) {
+        this.dir = dir.toAbsolutePath();
+        this.maxBytes = Math.max(0, maxBytes);
+        try {
+            Files.createDirectories(this.dir);
+            loadIndex();
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao preparar cache local em " + this.dir, e);
+        }
+
+        Gauge.builder("render.cache.size.bytes", this, LocalArtifactCache::totalBytes)
+                .register(meterRegistry);
+    }
+
+    /** Copia o artefato para {@code target} se existir no cache. */
+    public boolean copyTo(String key, String ext, Path target) {
+        String name = key + "." + ext;
+        synchronized (this) {
+            if (!entries.containsKey(name)) return false;
+            entries.get(name); // marca acesso
+        }
+
+        try {
+            Path parent = target.getParent();
+            if (parent != null) Files.createDirectories(parent);
+            Files.copy(dir.resolve(name), target, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (NoSuchFileException e) {
+            // descartado entre o lookup e a cópia
+            forget(name);
+            return false;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public void put(String key, String ext, Path source) {
+        String name = key + "." + ext;
+        try {
+            long size = Files.size(source);
+            if (size > maxBytes) return;
+
+            Path tmp = Files.createTempFile(dir, name, ".tmp");
+            Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tmp, dir.resolve(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            synchronized (this) {
+                Long previous = entries.put(name, size);
+                totalBytes += size - (previous == null ? 0 : previous);
+            }
+            evict();
+        } catch (IOException ignore) {
+            // cache é best-effort
+        }
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    private void evict() {
+        while (true) {
+            String victim;
+            synchronized (this) {
+                if (totalBytes <= maxBytes || entries.isEmpty()) return;
+                Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+                Map.Entry<String, Long> eldest = it.next();
+                victim = eldest.getKey();
+                totalBytes -= eldest.getValue();
+                it.remove();
+            }
+            try {
+                Files.deleteIfExists(dir.resolve(victim));
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private synchronized void forget(String name) {
+        Long size = entries.remove(name);
+        if (size != null) totalBytes -= size;
+    }
+
+    private void loadIndex() throws IOException {
+        List<Path> files;
+        try (Stream<Path> s = Files.list(dir)) {
+            files = s.filter(Files::isRegularFile).toList();
+        }
+
+        // sobras de escrita interrompida
+        for (Path f : files) {
+            if (f.getFileName().toString().endsWith(".tmp")) Files.deleteIfExists(f);
+        }
+
+        files.stream()
+                .filter(f -> !f.getFileName().toString().endsWith(".tmp"))
+                .sorted(Comparator.comparingLong(LocalArtifactCache::lastModified))
+                .forEach(f -> {
+                    long size = sizeOf(f);
+                    entries.put(f.getFileName().toString(), size);
+                    totalBytes += size;
+                });
+
+        evict();
+    }
+
+    private static long lastModified(Path f) {
+        try {
+            return Files.getLastModifiedTime(f).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static long sizeOf(Path f) {
+        try {
+            return Files.size(f);
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
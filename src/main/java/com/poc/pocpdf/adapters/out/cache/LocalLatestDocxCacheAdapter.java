@@ -0,0 +1,46 @@
+package com.poc.pocpdf.adapters.out.cache;
+
+import com.poc.pocpdf.application.port.out.LatestDocxCachePort;
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.Version;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.file.Path;
+
+/**
+ * Última versão de cada contrato no mesmo cache em disco dos renders, chaveada por contrato +
+ * versão: versão nova = chave nova, a antiga sai pelo LRU.
+ */
+public class LocalLatestDocxCacheAdapter implements LatestDocxCachePort {
+
+    private final LocalArtifactCache cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public LocalLatestDocxCacheAdapter(LocalArtifactCache cache, MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.hits = Counter.builder("render.cache").tag("artifact", "latest-docx").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("render.cache").tag("artifact", "latest-docx").tag("result", "miss").register(meterRegistry);
+    }
+
+    @Override
+    public boolean copyTo(ContractName contractName, Version version, Path target) {
+        boolean hit = cache.copyTo(key(contractName, version), "docx", target);
+        (hit ? hits : misses).increment();
+        return hit;
+    }
+
+    @Override
+    public void put(ContractName contractName, Version version, Path docx) {
+        cache.put(key(contractName, version), "docx", docx);
+    }
+
+    private static String key(ContractName contractName, Version version) {
+        return ContentHash.sha256()
+                .text("latest-docx")
+                .text(contractName.asKey())
+                .text(version.asString())
+                .hex();
+    }
+}
@@ -7,41 +7,68 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class PoiDocxEditorAdapter implements DocxEditorPort {
 
-    private static final String PLACEHOLDER = "{{CLAUSULAS_EXTRAS}}";
+    static final String PLACEHOLDER = "{{CLAUSULAS_EXTRAS}}";
 
-    private static final Pattern CLAUSE_NUM_PATTERN =
+    static final Pattern CLAUSE_NUM_PATTERN =
             Pattern.compile("Cláusula adicional\\s+(\\d+)", Pattern.CASE_INSENSITIVE);
 
-    private static final Pattern PREFIX_PATTERN =
+    static final Pattern PREFIX_PATTERN =
             Pattern.compile("^\\s*Cláusula adicional\\s+\\d+\\s*:\\s*", Pattern.CASE_INSENSITIVE);
 
+    // hash do template -> índice (marcador, maior cláusula, fonte base); LRU
+    private final Map<String, TemplateIndex> indexCache;
+
+    public PoiDocxEditorAdapter() {
+        this(256);
+    }
+
+    public PoiDocxEditorAdapter(int indexCacheSize) {
+        int max = Math.max(1, indexCacheSize);
+        this.indexCache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TemplateIndex> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
     @Override
-    public Path applyExtraClauses(Path templateDocx, Path outputDocx, List<String> extraClauses) {
+    public Path applyExtraClauses(Path templateDocx, String templateHash, Path outputDocx, List<String> extraClauses) {
         try (InputStream in = Files.newInputStream(templateDocx);
              XWPFDocument doc = new XWPFDocument(in)) {
 
-            int startNumber = findMaxExistingClauseNumber(doc) + 1;
+            TemplateIndex index = indexFor(templateHash, doc);
 
-            boolean done = applyInParagraphs(doc.getParagraphs(), extraClauses, startNumber);
+            if (index.placeholder() != null) {
+                XWPFParagraph p = index.placeholder().resolve(doc);
 
-            if (!done) {
-                for (XWPFTable table : doc.getTables()) {
-                    for (XWPFTableRow row : table.getRows()) {
-                        for (XWPFTableCell cell : row.getTableCells()) {
-                            if (applyInParagraphs(cell.getParagraphs(), extraClauses, startNumber)) {
-                                done = true;
-                                break;
-                            }
-                        }
-                        if (done) break;
-                    }
-                    if (done) break;
+                // o índice é por conteúdo, então deve bater; se não bater, recalcula na hora
+                if (p == null || !paragraphContains(p, PLACEHOLDER)) {
+                    index = buildIndex(doc);
+                    p = index.placeholder() == null ? null : index.placeholder().resolve(doc);
+                }
+
+                if (p != null) {
+                    replacePlaceholderWithClausesRuns(p, index, extraClauses, index.maxClauseNumber() + 1);
+                }
+            } else if (index.lastClause() != null) {
+                // versão já gerada (marcador consumido): continua depois da última cláusula adicional
+                XWPFParagraph p = index.lastClause().resolve(doc);
+                if (p == null || maxClauseNumber(p.getText()) != index.maxClauseNumber()) {
+                    index = buildIndex(doc);
+                    p = index.lastClause() == null ? null : index.lastClause().resolve(doc);
+                }
+
+                if (p != null) {
+                    appendClausesRuns(p, index, extraClauses, index.maxClauseNumber() + 1);
                 }
             }
 
@@ -58,14 +85,88 @@ public class PoiDocxEditorAdapter implements DocxEditorPort {
         }
     }
 
-    private boolean applyInParagraphs(List<XWPFParagraph> paragraphs, List<String> clauses, int startNumber) {
-        for (XWPFParagraph p : paragraphs) {
-            if (!paragraphContains(p, PLACEHOLDER)) continue;
+    // sem hash de quem chama não há chave: monta o índice sem cache (não relê o arquivo só para isso)
+    private TemplateIndex indexFor(String hash, XWPFDocument doc) {
+        if (hash == null) return buildIndex(doc);
+
+        synchronized (indexCache) {
+            TemplateIndex cached = indexCache.get(hash);
+            if (cached != null) return cached;
+        }
 
-            replacePlaceholderWithClausesRuns(p, clauses, startNumber);
-            return true;
+        TemplateIndex built = buildIndex(doc);
+        synchronized (indexCache) {
+            indexCache.put(hash, built);
         }
-        return false;
+        return built;
+    }
+
+    /**
+     * Uma passada só: calcula o maior número de cláusula e acha o marcador (corpo primeiro,
+     * depois tabelas, como antes).
+     */
+    TemplateIndex buildIndex(XWPFDocument doc) {
+        int max = 0;
+        TemplateIndex.PlaceholderLocation location = null;
+        TemplateIndex.PlaceholderLocation lastClause = null;
+        XWPFParagraph placeholderParagraph = null;
+        XWPFParagraph lastClauseParagraph = null;
+
+        List<XWPFParagraph> body = doc.getParagraphs();
+        for (int i = 0; i < body.size(); i++) {
+            XWPFParagraph p = body.get(i);
+            String text = p.getText();
+            int n = maxClauseNumber(text);
+            if (n > max) {
+                max = n;
+                lastClause = TemplateIndex.PlaceholderLocation.inBody(i, p.getRuns().size() - 1);
+                lastClauseParagraph = p;
+            }
+
+            if (location == null && text != null && text.contains(PLACEHOLDER)) {
+                location = TemplateIndex.PlaceholderLocation.inBody(i, findRunIndexContaining(p, PLACEHOLDER));
+                placeholderParagraph = p;
+            }
+        }
+
+        List<XWPFTable> tables = doc.getTables();
+        for (int t = 0; t < tables.size(); t++) {
+            List<XWPFTableRow> rows = tables.get(t).getRows();
+            for (int r = 0; r < rows.size(); r++) {
+                List<XWPFTableCell> cells = rows.get(r).getTableCells();
+                for (int c = 0; c < cells.size(); c++) {
+                    List<XWPFParagraph> paragraphs = cells.get(c).getParagraphs();
+                    for (int i = 0; i < paragraphs.size(); i++) {
+                        XWPFParagraph p = paragraphs.get(i);
+                        String text = p.getText();
+                        int n = maxClauseNumber(text);
+                        if (n > max) {
+                            max = n;
+                            lastClause = new TemplateIndex.PlaceholderLocation(t, r, c, i, p.getRuns().size() - 1);
+                            lastClauseParagraph = p;
+                        }
+
+                        if (location == null && text != null && text.contains(PLACEHOLDER)) {
+                            location = new TemplateIndex.PlaceholderLocation(
+                                    t, r, c, i, findRunIndexContaining(p, PLACEHOLDER));
+                            placeholderParagraph = p;
+                        }
+                    }
+                }
+            }
+        }
+
+        // fonte/tamanho base para manter igual ao template
+        XWPFParagraph base = (placeholderParagraph != null) ? placeholderParagraph : lastClauseParagraph;
+        String font = null;
+        Integer fontSize = null;
+        if (base != null && !base.getRuns().isEmpty()) {
+            XWPFRun r0 = base.getRuns().get(0);
+            font = r0.getFontFamily();
+            fontSize = r0.getFontSize();
+        }
+
+        return new TemplateIndex(location, lastClause, max, font, fontSize);
     }
 
     private boolean paragraphContains(XWPFParagraph p, String token) {
@@ -73,25 +174,21 @@ public class PoiDocxEditorAdapter implements DocxEditorPort {
         return text != null && text.contains(token);
     }
 
-    private void replacePlaceholderWithClausesRuns(XWPFParagraph p, List<String> clauses, int startNumber) {
+    private void replacePlaceholderWithClausesRuns(XWPFParagraph p,
+                                                   TemplateIndex index,
+                                                   List<String> clauses,
+                                                   int startNumber) {
         if (clauses == null) clauses = List.of();
 
-        // achar run que contém o marcador
-        int markerRunIdx = findRunIndexContaining(p, PLACEHOLDER);
+        String font = index.baseFont();
+        Integer fontSize = index.baseFontSize();
+
+        // run que contém o marcador já vem do índice
+        int markerRunIdx = index.placeholder().runIdx();
 
         // fallback: marcador pode ter sido quebrado em vários runs
         // nesse caso, simplifica: limpa os runs e recria um run-base mantendo estilo do 1o run
-        if (markerRunIdx < 0) {
-            if (!paragraphContains(p, PLACEHOLDER)) return;
-
-            String font = null;
-            Integer fontSize = null;
-            if (!p.getRuns().isEmpty()) {
-                XWPFRun r0 = p.getRuns().get(0);
-                font = r0.getFontFamily();
-                fontSize = r0.getFontSize();
-            }
-
+        if (markerRunIdx < 0 || markerRunIdx >= p.getRuns().size()) {
             int runs = p.getRuns().size();
             for (int i = runs - 1; i >= 0; i--) p.removeRun(i);
 
@@ -110,16 +207,33 @@ public class PoiDocxEditorAdapter implements DocxEditorPort {
             }
         }
 
-        // fonte/tamanho base para manter igual ao template
-        String font = null;
-        Integer fontSize = null;
-        if (!p.getRuns().isEmpty()) {
-            XWPFRun r0 = p.getRuns().get(0);
-            font = r0.getFontFamily();
-            fontSize = r0.getFontSize();
-        }
+        insertClauseRuns(p, markerRunIdx + 1, index, clauses, startNumber);
+    }
 
-        int insertPos = markerRunIdx + 1;
+    /** Sem marcador: as novas cláusulas entram no fim do parágrafo da última, separadas por linha em branco. */
+    private void appendClausesRuns(XWPFParagraph p,
+                                   TemplateIndex index,
+                                   List<String> clauses,
+                                   int startNumber) {
+        if (clauses == null || clauses.stream().allMatch(c -> c == null || c.isBlank())) return;
+
+        XWPFRun gap = p.createRun();
+        if (index.baseFont() != null) gap.setFontFamily(index.baseFont());
+        if (index.baseFontSize() != null && index.baseFontSize() > 0) gap.setFontSize(index.baseFontSize());
+        gap.setText("");
+        gap.addBreak();
+        gap.addBreak();
+
+        insertClauseRuns(p, p.getRuns().size(), index, clauses, startNumber);
+    }
+
+    private void insertClauseRuns(XWPFParagraph p,
+                                  int insertPos,
+                                  TemplateIndex index,
+                                  List<String> clauses,
+                                  int startNumber) {
+        String font = index.baseFont();
+        Integer fontSize = index.baseFontSize();
         int n = startNumber;
 
         // insere cláusulas como runs no MESMO parágrafo, com quebra de linha entre elas
@@ -166,36 +280,19 @@ public class PoiDocxEditorAdapter implements DocxEditorPort {
         return -1;
     }
 
-    private int findMaxExistingClauseNumber(XWPFDocument doc) {
-        int max = 0;
-
-        max = Math.max(max, findMaxInParagraphs(doc.getParagraphs()));
-
-        for (XWPFTable table : doc.getTables()) {
-            for (XWPFTableRow row : table.getRows()) {
-                for (XWPFTableCell cell : row.getTableCells()) {
-                    max = Math.max(max, findMaxInParagraphs(cell.getParagraphs()));
-                }
-            }
-        }
-
-        return max;
+    int findMaxExistingClauseNumber(XWPFDocument doc) {
+        return buildIndex(doc).maxClauseNumber();
     }
 
-    private int findMaxInParagraphs(List<XWPFParagraph> paragraphs) {
-        int max = 0;
-
-        for (XWPFParagraph p : paragraphs) {
-            String t = p.getText();
-            if (t == null || t.isBlank()) continue;
+    private int maxClauseNumber(String text) {
+        if (text == null || text.isBlank()) return 0;
 
-            Matcher m = CLAUSE_NUM_PATTERN.matcher(t);
-            while (m.find()) {
-                int v = Integer.parseInt(m.group(1));
-                if (v > max) max = v;
-            }
+        int max = 0;
+        Matcher m = CLAUSE_NUM_PATTERN.matcher(text);
+        while (m.find()) {
+            int v = Integer.parseInt(m.group(1));
+            if (v > max) max = v;
         }
-
         return max;
     }
 }
@@ -0,0 +1,481 @@
+package com.poc.pocpdf.adapters.out.docx;
+
+import com.poc.pocpdf.application.port.out.DocxEditorPort;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import javax.xml.namespace.QName;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+
+/**
+ * Editor para templates grandes: copia o DOCX entrada a entrada sem descomprimir (mídia, estilos,
+ * cabeçalhos...) e reescreve só o word/document.xml via StAX, sem montar o modelo XWPF.
+ * Segue as mesmas regras do {@link PoiDocxEditorAdapter} (onde procura o marcador, numeração,
+ * fonte base e o fallback quando o Word quebra o marcador em vários runs).
+ */
+public class StreamingDocxEditorAdapter implements DocxEditorPort {
+
+    private static final String DOCUMENT_PART = "word/document.xml";
+    private static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private static final XMLInputFactory INPUT = newInputFactory();
+    private static final XMLOutputFactory OUTPUT = XMLOutputFactory.newFactory();
+    private static final XMLEventFactory EVENTS = XMLEventFactory.newFactory();
+
+    @Override
+    public Path applyExtraClauses(Path templateDocx, String templateHash, Path outputDocx, List<String> extraClauses) {
+        List<String> clauses = (extraClauses == null) ? List.of() : extraClauses;
+
+        try {
+            Path parent = outputDocx.getParent();
+            if (parent != null) Files.createDirectories(parent);
+
+            try (ZipFile zip = ZipFile.builder().setPath(templateDocx).get();
+                 ZipArchiveOutputStream out = new ZipArchiveOutputStream(outputDocx)) {
+
+                ZipArchiveEntry document = zip.getEntry(DOCUMENT_PART);
+                if (document == null) {
+                    throw new IllegalArgumentException("DOCX sem " + DOCUMENT_PART + ".");
+                }
+
+                // 1a passada: onde está o marcador e qual o maior número de cláusula
+                DocumentScan scan;
+                try (InputStream in = zip.getInputStream(document)) {
+                    scan = scan(in, hasClauses(clauses));
+                }
+
+                Enumeration<ZipArchiveEntry> entries = zip.getEntriesInPhysicalOrder();
+                while (entries.hasMoreElements()) {
+                    ZipArchiveEntry entry = entries.nextElement();
+
+                    if (entry.getName().equals(DOCUMENT_PART) && scan.target() != null) {
+                        // 2a passada: reescreve o document.xml injetando as cláusulas
+                        ZipArchiveEntry rewritten = new ZipArchiveEntry(DOCUMENT_PART);
+                        rewritten.setMethod(ZipArchiveEntry.DEFLATED);
+                        out.putArchiveEntry(rewritten);
+                        try (InputStream in = zip.getInputStream(entry)) {
+                            rewrite(in, out, scan, clauses);
+                        }
+                        out.closeArchiveEntry();
+                    } else {
+                        // bytes comprimidos copiados como estão
+                        out.addRawArchiveEntry(entry, zip.getRawInputStream(entry));
+                    }
+                }
+            }
+
+            return outputDocx;
+        } catch (Exception e) {
+            throw new RuntimeException("Falha ao editar DOCX em streaming.", e);
+        }
+    }
+
+    // ---- 1a passada ----
+
+    /**
+     * Igual ao POI: só contam parágrafos do corpo e das células de tabelas do corpo; o marcador é
+     * procurado primeiro no corpo, depois nas tabelas. Sem marcador (versão já gerada), o alvo é o
+     * parágrafo com a maior cláusula, na mesma ordem (corpo antes de tabelas).
+     */
+    private DocumentScan scan(InputStream in, boolean appendIfNoMarker) throws XMLStreamException {
+        XMLStreamReader r = INPUT.createXMLStreamReader(in);
+        try {
+            Deque<String> path = new ArrayDeque<>();
+            Deque<ParagraphScan> open = new ArrayDeque<>();
+            int ordinal = -1;
+            int bodyMax = 0;
+            int tableMax = 0;
+            Target inBody = null;
+            Target inTable = null;
+            Target lastInBody = null;
+            Target lastInTable = null;
+
+            while (r.hasNext()) {
+                int event = r.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = r.getLocalName();
+                    ParagraphScan p = open.peek();
+                    boolean w = W_NS.equals(r.getNamespaceURI());
+
+                    if (w && name.equals("p")) {
+                        open.push(new ParagraphScan(++ordinal, kindOf(path)));
+                    } else if (w && p != null && name.equals("r")) {
+                        p.runTexts.add(null);
+                    } else if (w && p != null && name.equals("t")) {
+                        boolean direct = "r".equals(path.peek());
+                        String text = r.getElementText(); // já consome o END_ELEMENT
+                        p.text.append(text);
+                        int last = p.runTexts.size() - 1;
+                        if (direct && last >= 0 && p.runTexts.get(last) == null) p.runTexts.set(last, text);
+                        continue;
+                    } else if (w && p != null && name.equals("tab") && "r".equals(path.peek())) {
+                        p.text.append('\t');
+                    } else if (w && p != null && (name.equals("br") || name.equals("cr")) && "r".equals(path.peek())) {
+                        p.text.append('\n');
+                    } else if (w && p != null && p.runTexts.size() == 1 && isRunProperty(path)) {
+                        // fonte/tamanho do 1o run, como o POI faz
+                        if (name.equals("rFonts")) p.font = r.getAttributeValue(W_NS, "ascii");
+                        if (name.equals("sz")) p.fontSize = halfPointsToPoints(r.getAttributeValue(W_NS, "val"));
+                    }
+
+                    path.push(name);
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    path.pop();
+                    if (!W_NS.equals(r.getNamespaceURI()) || !r.getLocalName().equals("p")) continue;
+
+                    ParagraphScan p = open.pop();
+                    if (p.kind == Kind.OTHER) continue;
+
+                    String text = p.text.toString();
+                    int n = maxClauseNumber(text);
+                    if (p.kind == Kind.BODY && n > bodyMax) {
+                        bodyMax = n;
+                        lastInBody = p.toAppendTarget();
+                    }
+                    if (p.kind == Kind.TABLE && n > tableMax) {
+                        tableMax = n;
+                        lastInTable = p.toAppendTarget();
+                    }
+
+                    if (text.contains(PoiDocxEditorAdapter.PLACEHOLDER)) {
+                        if (p.kind == Kind.BODY && inBody == null) inBody = p.toTarget();
+                        if (p.kind == Kind.TABLE && inTable == null) inTable = p.toTarget();
+                    }
+                }
+            }
+
+            int max = Math.max(bodyMax, tableMax);
+            Target target = inBody != null ? inBody : inTable;
+            if (target == null && appendIfNoMarker) {
+                target = bodyMax >= tableMax ? lastInBody : lastInTable;
+            }
+            return new DocumentScan(target, max);
+        } finally {
+            r.close();
+        }
+    }
+
+    private static boolean hasClauses(List<String> clauses) {
+        return clauses.stream().anyMatch(c -> c != null && !c.isBlank());
+    }
+
+    private static Kind kindOf(Deque<String> path) {
+        Iterator<String> up = path.iterator();
+        String parent = up.hasNext() ? up.next() : null;
+        if ("body".equals(parent)) return Kind.BODY;
+        if ("tc".equals(parent)
+                && up.hasNext() && "tr".equals(up.next())
+                && up.hasNext() && "tbl".equals(up.next())
+                && up.hasNext() && "body".equals(up.next())) {
+            return Kind.TABLE;
+        }
+        return Kind.OTHER;
+    }
+
+    private static boolean isRunProperty(Deque<String> path) {
+        Iterator<String> up = path.iterator();
+        return up.hasNext() && "rPr".equals(up.next()) && up.hasNext() && "r".equals(up.next());
+    }
+
+    // w:sz vem em meios-pontos
+    private static Integer halfPointsToPoints(String val) {
+        if (val == null || val.isBlank()) return null;
+        try {
+            return (int) Math.round(Double.parseDouble(val) / 2.0);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int maxClauseNumber(String text) {
+        if (text == null || text.isBlank()) return 0;
+
+        int max = 0;
+        Matcher m = PoiDocxEditorAdapter.CLAUSE_NUM_PATTERN.matcher(text);
+        while (m.find()) {
+            int v = Integer.parseInt(m.group(1));
+            if (v > max) max = v;
+        }
+        return max;
+    }
+
+    // ---- 2a passada ----
+
+    private void rewrite(InputStream in, OutputStream out, DocumentScan scan, List<String> clauses)
+            throws XMLStreamException {
+        Target target = scan.target();
+        XMLEventReader reader = INPUT.createXMLEventReader(in);
+        XMLEventWriter writer = OUTPUT.createXMLEventWriter(out, "UTF-8");
+
+        try {
+            String prefix = "w";
+            int ordinal = -1;
+            int depth = 0;          // profundidade dentro do parágrafo alvo (0 = fora dele)
+            int run = -1;
+            int markerRunDepth = -1;
+            int skipUntil = -1;     // profundidade do run descartado (marcador quebrado em vários runs)
+            StartElement markerStart = null;
+            StringBuilder markerText = null;
+            boolean markerDone = false;
+
+            while (reader.hasNext()) {
+                XMLEvent e = reader.nextEvent();
+
+                if (e.isStartElement()) {
+                    StartElement s = e.asStartElement();
+
+                    if (depth == 0) {
+                        if (isW(s.getName(), "p") && ++ordinal == target.paragraph()) {
+                            depth = 1;
+                            prefix = s.getName().getPrefix();
+                        }
+                        writer.add(e);
+                        continue;
+                    }
+
+                    depth++;
+                    if (skipUntil > 0) continue;
+
+                    if (isW(s.getName(), "r")) {
+                        run++;
+                        if (target.markerRun() < 0) {
+                            skipUntil = depth;
+                            continue;
+                        }
+                        if (run == target.markerRun()) markerRunDepth = depth;
+                    } else if (isW(s.getName(), "t") && markerRunDepth > 0
+                            && depth == markerRunDepth + 1 && !markerDone) {
+                        // só o 1o w:t do run (o mesmo que o POI edita); escrito no END
+                        markerStart = s;
+                        markerText = new StringBuilder();
+                        continue;
+                    }
+                    writer.add(e);
+
+                } else if (e.isEndElement()) {
+                    if (depth == 0) {
+                        writer.add(e);
+                        continue;
+                    }
+
+                    int closing = depth--;
+                    if (skipUntil > 0) {
+                        if (closing == skipUntil) skipUntil = -1;
+                        continue;
+                    }
+
+                    if (closing == 1) {
+                        // fim do parágrafo alvo: no fallback os runs foram descartados e recriados aqui
+                        if (target.markerRun() < 0) {
+                            writeRun(writer, prefix, target, null, "", 0);
+                            writeClauses(writer, prefix, target, clauses, scan.maxClauseNumber() + 1);
+                        } else if (target.append()) {
+                            writeRun(writer, prefix, target, null, "", 2);
+                            writeClauses(writer, prefix, target, clauses, scan.maxClauseNumber() + 1);
+                        }
+                        writer.add(e);
+                        continue;
+                    }
+
+                    if (markerText != null) {
+                        writer.add(preserveSpace(markerStart));
+                        writer.add(EVENTS.createCharacters(
+                                markerText.toString().replace(PoiDocxEditorAdapter.PLACEHOLDER, "")));
+                        markerStart = null;
+                        markerText = null;
+                        markerDone = true;
+                    }
+                    writer.add(e);
+
+                    if (closing == markerRunDepth) {
+                        markerRunDepth = -1;
+                        writeClauses(writer, prefix, target, clauses, scan.maxClauseNumber() + 1);
+                    }
+
+                } else {
+                    if (skipUntil > 0) continue;
+                    if (markerText != null && e.isCharacters()) {
+                        markerText.append(e.asCharacters().getData());
+                        continue;
+                    }
+                    writer.add(e);
+                }
+            }
+
+            writer.flush();
+        } finally {
+            // não fecha o stream do zip
+            writer.close();
+            reader.close();
+        }
+    }
+
+    private void writeClauses(XMLEventWriter writer,
+                              String prefix,
+                              Target target,
+                              List<String> clauses,
+                              int startNumber) throws XMLStreamException {
+        int n = startNumber;
+
+        for (int i = 0; i < clauses.size(); i++) {
+            String raw = clauses.get(i);
+            if (raw == null) continue;
+
+            raw = raw.trim();
+            if (raw.isBlank()) continue;
+
+            String text = PoiDocxEditorAdapter.PREFIX_PATTERN.matcher(raw).replaceFirst("").trim();
+
+            boolean last = (i == clauses.size() - 1);
+            writeRun(writer, prefix, target, true, "Cláusula adicional " + n + ": ", 0);
+            writeRun(writer, prefix, target, false, text, last ? 0 : 2);
+            n++;
+        }
+    }
+
+    private void writeRun(XMLEventWriter writer,
+                          String prefix,
+                          Target target,
+                          Boolean bold,
+                          String text,
+                          int breaks) throws XMLStreamException {
+        String font = target.font();
+        Integer fontSize = (target.fontSize() != null && target.fontSize() > 0) ? target.fontSize() : null;
+
+        writer.add(EVENTS.createStartElement(prefix, W_NS, "r"));
+
+        if (font != null || fontSize != null || bold != null) {
+            writer.add(EVENTS.createStartElement(prefix, W_NS, "rPr"));
+            if (font != null) {
+                element(writer, prefix, "rFonts",
+                        EVENTS.createAttribute(prefix, W_NS, "ascii", font),
+                        EVENTS.createAttribute(prefix, W_NS, "hAnsi", font),
+                        EVENTS.createAttribute(prefix, W_NS, "cs", font),
+                        EVENTS.createAttribute(prefix, W_NS, "eastAsia", font));
+            }
+            if (bold != null) {
+                if (bold) element(writer, prefix, "b");
+                else element(writer, prefix, "b", EVENTS.createAttribute(prefix, W_NS, "val", "0"));
+            }
+            if (fontSize != null) {
+                String halfPoints = String.valueOf(fontSize * 2);
+                element(writer, prefix, "sz", EVENTS.createAttribute(prefix, W_NS, "val", halfPoints));
+                element(writer, prefix, "szCs", EVENTS.createAttribute(prefix, W_NS, "val", halfPoints));
+            }
+            writer.add(EVENTS.createEndElement(prefix, W_NS, "rPr"));
+        }
+
+        writer.add(EVENTS.createStartElement(prefix, W_NS, "t",
+                List.of(EVENTS.createAttribute("xml", XMLConstants.XML_NS_URI, "space", "preserve")).iterator(),
+                Collections.emptyIterator()));
+        writer.add(EVENTS.createCharacters(text));
+        writer.add(EVENTS.createEndElement(prefix, W_NS, "t"));
+
+        for (int i = 0; i < breaks; i++) element(writer, prefix, "br");
+
+        writer.add(EVENTS.createEndElement(prefix, W_NS, "r"));
+    }
+
+    private static void element(XMLEventWriter writer, String prefix, String name, Attribute... attributes)
+            throws XMLStreamException {
+        writer.add(EVENTS.createStartElement(prefix, W_NS, name, List.of(attributes).iterator(),
+                Collections.emptyIterator()));
+        writer.add(EVENTS.createEndElement(prefix, W_NS, name));
+    }
+
+    // o texto que sobra no run pode terminar em espaço ("Texto {{CLAUSULAS_EXTRAS}}")
+    private static StartElement preserveSpace(StartElement s) {
+        List<Attribute> attributes = new ArrayList<>();
+        Iterator<Attribute> it = s.getAttributes();
+        while (it.hasNext()) {
+            Attribute a = it.next();
+            if (!(XMLConstants.XML_NS_URI.equals(a.getName().getNamespaceURI())
+                    && "space".equals(a.getName().getLocalPart()))) {
+                attributes.add(a);
+            }
+        }
+        attributes.add(EVENTS.createAttribute("xml", XMLConstants.XML_NS_URI, "space", "preserve"));
+
+        QName name = s.getName();
+        return EVENTS.createStartElement(name.getPrefix(), name.getNamespaceURI(), name.getLocalPart(),
+                attributes.iterator(), s.getNamespaces());
+    }
+
+    private static boolean isW(QName name, String localPart) {
+        return W_NS.equals(name.getNamespaceURI()) && localPart.equals(name.getLocalPart());
+    }
+
+    private static XMLInputFactory newInputFactory() {
+        XMLInputFactory f = XMLInputFactory.newFactory();
+        f.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        f.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return f;
+    }
+
+    private enum Kind { BODY, TABLE, OTHER }
+
+    private static final class ParagraphScan {
+        final int ordinal;
+        final Kind kind;
+        final StringBuilder text = new StringBuilder();
+        // texto do 1o w:t de cada run (o que o POI olha em run.getText(0))
+        final List<String> runTexts = new ArrayList<>();
+        String font;
+        Integer fontSize;
+
+        ParagraphScan(int ordinal, Kind kind) {
+            this.ordinal = ordinal;
+            this.kind = kind;
+        }
+
+        Target toTarget() {
+            int markerRun = -1;
+            for (int i = 0; i < runTexts.size(); i++) {
+                String t = runTexts.get(i);
+                if (t != null && t.contains(PoiDocxEditorAdapter.PLACEHOLDER)) {
+                    markerRun = i;
+                    break;
+                }
+            }
+            return new Target(ordinal, markerRun, font, fontSize, false);
+        }
+
+        // sem marcador: nenhum run é tocado, as cláusulas vão no fim do parágrafo
+        Target toAppendTarget() {
+            return new Target(ordinal, Integer.MAX_VALUE, font, fontSize, true);
+        }
+    }
+
+    /**
+     * Parágrafo alvo pelo índice de w:p no document.xml e o run que contém o marcador (-1 = quebrado).
+     * append = parágrafo da última cláusula de uma versão já gerada.
+     */
+    private record Target(int paragraph, int markerRun, String font, Integer fontSize, boolean append) {}
+
+    private record DocumentScan(Target target, int maxClauseNumber) {}
+}
@@ -0,0 +1,54 @@
+package com.poc.pocpdf.adapters.out.docx;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+
+import java.util.List;
+
+/**
+ * O que o editor precisa saber de um template, calculado uma vez por conteúdo (hash) do DOCX.
+ *
+ * @param placeholder     onde está o {{CLAUSULAS_EXTRAS}}; null se o template não tem marcador
+ * @param lastClause      parágrafo com a maior "Cláusula adicional N" (versões já geradas, sem marcador)
+ * @param maxClauseNumber maior "Cláusula adicional N" já existente
+ * @param baseFont        fonte do 1o run do parágrafo do marcador (ou do lastClause)
+ * @param baseFontSize    tamanho do 1o run do parágrafo do marcador (ou do lastClause)
+ */
+record TemplateIndex(
+        PlaceholderLocation placeholder,
+        PlaceholderLocation lastClause,
+        int maxClauseNumber,
+        String baseFont,
+        Integer baseFontSize
+) {
+
+    /**
+     * @param tableIdx  -1 quando o parágrafo está no corpo
+     * @param runIdx    run que contém o marcador inteiro; -1 se o Word quebrou o marcador em vários runs
+     */
+    record PlaceholderLocation(int tableIdx, int rowIdx, int cellIdx, int paragraphIdx, int runIdx) {
+
+        static PlaceholderLocation inBody(int paragraphIdx, int runIdx) {
+            return new PlaceholderLocation(-1, -1, -1, paragraphIdx, runIdx);
+        }
+
+        XWPFParagraph resolve(XWPFDocument doc) {
+            List<XWPFParagraph> paragraphs;
+            if (tableIdx < 0) {
+                paragraphs = doc.getParagraphs();
+            } else {
+                List<XWPFTable> tables = doc.getTables();
+                if (tableIdx >= tables.size()) return null;
+                List<XWPFTableRow> rows = tables.get(tableIdx).getRows();
+                if (rowIdx >= rows.size()) return null;
+                List<XWPFTableCell> cells = rows.get(rowIdx).getTableCells();
+                if (cellIdx >= cells.size()) return null;
+                paragraphs = cells.get(cellIdx).getParagraphs();
+            }
+            return paragraphIdx < paragraphs.size() ? paragraphs.get(paragraphIdx) : null;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.poc.pocpdf.adapters.out.fs;
+
+import com.poc.pocpdf.application.port.out.LockHandle;
+import com.poc.pocpdf.application.port.out.LockPort;
+import com.poc.pocpdf.application.port.out.LockedAction;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lock por arquivo ({@code <root>/<output>/locks/<chave>.lock}) com FileChannel.tryLock. Vale entre
+ * processos que enxergam o mesmo disco; não precisa de renovação porque o SO solta o lock quando o
+ * processo morre. Espera com o mesmo backoff exponencial com jitter do lock por lease.
+ */
+public class FileChannelLockAdapter implements LockPort {
+
+    private final Path locksDir;
+    private final Duration acquireTimeout;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final MeterRegistry registry;
+
+    public FileChannelLockAdapter(Path root,
+                                  String outputContainer,
+                                  Duration acquireTimeout,
+                                  long backoffBaseMs,
+                                  long backoffMaxMs,
+                                  MeterRegistry meterRegistry) {
+        this.locksDir = root.toAbsolutePath().resolve(outputContainer).resolve("locks");
+        this.acquireTimeout = (acquireTimeout == null || acquireTimeout.isNegative() || acquireTimeout.isZero())
+                ? Duration.ofSeconds(60)
+                : acquireTimeout;
+        this.backoffBaseMs = Math.max(1, backoffBaseMs);
+        this.backoffMaxMs = Math.max(this.backoffBaseMs, backoffMaxMs);
+        this.registry = meterRegistry;
+    }
+
+    private Path lockFile(String lockKey) {
+        String safe = lockKey == null ? "lock" : lockKey.trim();
+        safe = safe.replaceAll("[^a-zA-Z0-9_-]", "_");
+        return locksDir.resolve(safe + ".lock");
+    }
+
+    @Override
+    public <T> T withLock(String lockKey, Duration ttl, LockedAction<T> action) {
+        Path file = lockFile(lockKey);
+        try {
+            Files.createDirectories(locksDir);
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao preparar diretório de locks: " + locksDir, e);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = acquire(lockKey, channel)) {
+            return action.run(new FileLockHandle(lockKey, lock));
+        } catch (IOException e) {
+            throw new RuntimeException("Falha no lock de arquivo para: " + lockKey, e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private FileLock acquire(String lockKey, FileChannel channel) throws IOException {
+        int attempts = 0;
+        long start = System.nanoTime();
+        long deadline = start + acquireTimeout.toNanos();
+        String outcome = "error";
+
+        try {
+            while (true) {
+                attempts++;
+                try {
+                    FileLock lock = channel.tryLock();
+                    if (lock != null) {
+                        outcome = "acquired";
+                        return lock;
+                    }
+                } catch (OverlappingFileLockException e) {
+                    // mesma chave já travada por outra thread deste processo (sem o LocalTieredLockAdapter na frente)
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    outcome = "timeout";
+                    throw new RuntimeException("Não foi possível adquirir lock para: " + lockKey);
+                }
+
+                long cap = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempts - 1, 20));
+                long sleep = Math.min(ThreadLocalRandom.current().nextLong(cap + 1), TimeUnit.NANOSECONDS.toMillis(remaining));
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrompido aguardando lock.", ie);
+                }
+            }
+        } finally {
+            // mesmas chaves de tag do lock.wait dos outros níveis (tier, outcome)
+            Timer.builder("lock.wait")
+                    .tag("tier", "file")
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private record FileLockHandle(String key, FileLock lock) implements LockHandle {
+        @Override
+        public boolean isValid() {
+            return lock.isValid();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.poc.pocpdf.adapters.out.fs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.pocpdf.adapters.out.blob.dto.LatestPointerDto;
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.Version;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Mesmo modelo do ContractManifestStore do Blob, em disco: {@code contratos/<key>/latest.json}
+ * com o mesmo JSON e reserva de versão por {@code vN/.claim} criado com CREATE_NEW (atômico no
+ * sistema de arquivos). Atualizações do ponteiro são serializadas por um FileLock em
+ * {@code contratos/<key>/.latest.lock}, o que vale também entre processos no mesmo disco.
+ */
+class FileSystemManifestStore {
+
+    private static final int MAX_CLAIM_ATTEMPTS = 100;
+    private static final Pattern VERSION_DIR = Pattern.compile("^v(\\d+)$");
+
+    private final Path outputRoot;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    // FileLock é por processo: threads do mesmo nó se serializam aqui antes (senão OverlappingFileLockException).
+    // Estático e pelo caminho do lock porque os adapters de template e de saída têm cada um o seu store.
+    private static final ConcurrentHashMap<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+    FileSystemManifestStore(Path outputRoot) {
+        this.outputRoot = outputRoot;
+    }
+
+    Path contractDir(ContractName contractName) {
+        return outputRoot.resolve("contratos").resolve(contractName.asKey());
+    }
+
+    Path versionDir(ContractName contractName, Version version) {
+        return contractDir(contractName).resolve(version.asString());
+    }
+
+    /** Diretórios vN do contrato (inclusive os só com .claim); sem ordem definida. */
+    List<Version> versions(ContractName contractName) {
+        Path dir = contractDir(contractName);
+        if (!Files.isDirectory(dir)) return List.of();
+
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.filter(Files::isDirectory)
+                    .map(p -> VERSION_DIR.matcher(p.getFileName().toString()))
+                    .filter(m -> m.matches() && m.group(1).length() <= 9 && Integer.parseInt(m.group(1)) >= 1)
+                    .map(m -> new Version(Integer.parseInt(m.group(1))))
+                    .toList();
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao listar versões de: " + contractName.value(), e);
+        }
+    }
+
+    /** Mesmo critério do Blob: diretórios em {@code contratos/} cuja chave começa com keyPrefix. */
+    List<String> keys(String keyPrefix) {
+        Path dir = outputRoot.resolve("contratos");
+        if (!Files.isDirectory(dir)) return List.of();
+
+        String pfx = keyPrefix == null ? "" : keyPrefix.trim().toLowerCase().replaceAll("[^a-z0-9_-]", "");
+        try (Stream<Path> s = Files.list(dir)) {
+            return s.filter(Files::isDirectory)
+                    .map(p -> p.getFileName().toString())
+                    .filter(k -> k.startsWith(pfx))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao listar contratos em: " + dir, e);
+        }
+    }
+
+    Optional<Version> latest(ContractName contractName) {
+        Optional<LatestPointerDto> current = read(contractName);
+        if (current.isPresent()) return toVersion(current.get().latest());
+
+        return withPointerLock(contractName, () -> {
+            Optional<LatestPointerDto> again = read(contractName);
+            if (again.isPresent()) return toVersion(again.get().latest());
+
+            // leitura de contrato inexistente não deve criar ponteiro vazio
+            LatestPointerDto scanned = scan(contractName);
+            if (scanned.lastAllocated() > 0) write(contractName, scanned);
+            return toVersion(scanned.latest());
+        });
+    }
+
+    Version claim(ContractName contractName) {
+        LatestPointerDto hint = read(contractName).orElseGet(() -> scan(contractName));
+        int latest = toVersion(hint.latest()).map(Version::number).orElse(0);
+        int next = Math.max(hint.lastAllocated(), latest) + 1;
+
+        for (int attempt = 1; attempt <= MAX_CLAIM_ATTEMPTS; attempt++, next++) {
+            Path claim = contractDir(contractName).resolve("v" + next).resolve(".claim");
+            try {
+                Files.createDirectories(claim.getParent());
+                Files.createFile(claim);
+                advanceLastAllocated(contractName, next);
+                return new Version(next);
+            } catch (FileAlreadyExistsException e) {
+                // outra atualização reservou esse número
+            } catch (IOException e) {
+                throw new RuntimeException("Falha ao reservar versão para contrato: " + contractName.value(), e);
+            }
+        }
+        throw new RuntimeException("Não foi possível alocar versão para contrato (concorrência): " + contractName.value());
+    }
+
+    // só a dica, como no Blob: o .claim já garante o número; falha aqui não derruba a reserva
+    private void advanceLastAllocated(ContractName contractName, int allocated) {
+        try {
+            withPointerLock(contractName, () -> {
+                read(contractName)
+                        .filter(current -> current.lastAllocated() < allocated)
+                        .ifPresent(current -> write(contractName, new LatestPointerDto(current.latest(), allocated)));
+                return null;
+            });
+        } catch (RuntimeException ignore) {
+        }
+    }
+
+    /** Marca a versão como a última publicada; nunca regride. */
+    void publish(ContractName contractName, Version version) {
+        withPointerLock(contractName, () -> {
+            LatestPointerDto current = read(contractName).orElseGet(() -> scan(contractName));
+            int latest = toVersion(current.latest()).map(Version::number).orElse(0);
+            if (latest < version.number()) {
+                write(contractName, new LatestPointerDto(
+                        version.asString(),
+                        Math.max(current.lastAllocated(), version.number())));
+            }
+            return null;
+        });
+    }
+
+    /** Ponteiro aponta para arquivo inexistente: reconstrói pela listagem. */
+    Optional<Version> rebuild(ContractName contractName) {
+        return withPointerLock(contractName, () -> {
+            LatestPointerDto rebuilt = scan(contractName);
+            LatestPointerDto merged = read(contractName)
+                    .map(p -> new LatestPointerDto(rebuilt.latest(), Math.max(p.lastAllocated(), rebuilt.lastAllocated())))
+                    .orElse(rebuilt);
+            write(contractName, merged);
+            return toVersion(rebuilt.latest());
+        });
+    }
+
+    private Optional<LatestPointerDto> read(ContractName contractName) {
+        Path pointer = contractDir(contractName).resolve("latest.json");
+        try {
+            return Optional.of(mapper.readValue(Files.readAllBytes(pointer), LatestPointerDto.class));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            // ponteiro corrompido: trata como ausente e deixa reconstruir
+            return Optional.empty();
+        }
+    }
+
+    private void write(ContractName contractName, LatestPointerDto dto) {
+        try {
+            LocalFiles.writeAtomically(mapper.writeValueAsBytes(dto), contractDir(contractName).resolve("latest.json"));
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao gravar ponteiro de versões para: " + contractName.value(), e);
+        }
+    }
+
+    private <T> T withPointerLock(ContractName contractName, IoSupplier<T> action) {
+        Path lockFile = contractDir(contractName).resolve(".latest.lock").toAbsolutePath().normalize();
+        synchronized (MONITORS.computeIfAbsent(lockFile, k -> new Object())) {
+            try {
+                Files.createDirectories(lockFile.getParent());
+                try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     FileLock ignored = channel.lock()) {
+                    return action.get();
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Falha ao travar ponteiro de versões para: " + contractName.value(), e);
+            }
+        }
+    }
+
+    private LatestPointerDto scan(ContractName contractName) {
+        Path dir = contractDir(contractName);
+        if (!Files.isDirectory(dir)) return new LatestPointerDto(null, 0);
+
+        int maxAny = 0;
+        int maxDocx = 0;
+
+        List<Path> versions;
+        try (Stream<Path> s = Files.list(dir)) {
+            versions = s.filter(Files::isDirectory).toList();
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao listar versões de: " + contractName.value(), e);
+        }
+
+        for (Path versionDir : versions) {
+            Matcher m = VERSION_DIR.matcher(versionDir.getFileName().toString());
+            if (!m.matches()) continue;
+
+            int v;
+            try {
+                v = Integer.parseInt(m.group(1));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+
+            try (Stream<Path> files = Files.list(versionDir)) {
+                List<String> names = files.map(f -> f.getFileName().toString()).toList();
+                if (names.isEmpty()) continue;
+                if (v > maxAny) maxAny = v;
+                if (v > maxDocx && names.stream().anyMatch(n -> n.toLowerCase().endsWith(".docx"))) maxDocx = v;
+            } catch (IOException e) {
+                throw new RuntimeException("Falha ao listar versões de: " + contractName.value(), e);
+            }
+        }
+
+        return new LatestPointerDto(maxDocx == 0 ? null : "v" + maxDocx, maxAny);
+    }
+
+    private static Optional<Version> toVersion(String latest) {
+        if (latest == null || latest.isBlank()) return Optional.empty();
+        try {
+            return Optional.of(new Version(Integer.parseInt(latest.trim().substring(1))));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoSupplier<T> {
+        T get() throws IOException;
+    }
+}
@@ -0,0 +1,106 @@
+package com.poc.pocpdf.adapters.out.fs;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.poc.pocpdf.application.port.out.StoredDocument;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Arquivo local como {@link StoredDocument}. O download usa {@code FileChannel.transferTo}, que vira
+ * cópia no kernel quando o destino é um arquivo; para outros streams copia em blocos.
+ * O ETag sai de tamanho + data de modificação (arquivos de versão são gravados uma vez só).
+ * Metadados ficam ao lado, em {@code <arquivo>.metadata.json}.
+ */
+class FileSystemStoredDocument implements StoredDocument {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path file;
+    private final String etag;
+    private final long size;
+    private final Path metadataFile;
+
+    private FileSystemStoredDocument(Path file, String etag, long size) {
+        this.file = file;
+        this.etag = etag;
+        this.size = size;
+        this.metadataFile = metadataFile(file);
+    }
+
+    static Path metadataFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".metadata.json");
+    }
+
+    // chaves em minúsculas, como o Blob devolve
+    static void writeMetadata(Path file, Map<String, String> metadata) throws IOException {
+        if (metadata == null || metadata.isEmpty()) return;
+        Map<String, String> normalized = new TreeMap<>();
+        metadata.forEach((k, v) -> normalized.put(k.toLowerCase(Locale.ROOT), v));
+        LocalFiles.writeAtomically(MAPPER.writeValueAsBytes(normalized), metadataFile(file));
+    }
+
+    static Optional<StoredDocument> head(Path file) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attrs.isRegularFile()) return Optional.empty();
+            String etag = Long.toHexString(attrs.size()) + "-" + Long.toHexString(attrs.lastModifiedTime().toMillis());
+            return Optional.of(new FileSystemStoredDocument(file, etag, attrs.size()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao ler metadados de " + file, e);
+        }
+    }
+
+    @Override
+    public String etag() {
+        return etag;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public Map<String, String> metadata() {
+        try {
+            return Map.copyOf(MAPPER.readValue(Files.readAllBytes(metadataFile), new TypeReference<Map<String, String>>() {}));
+        } catch (NoSuchFileException e) {
+            return Map.of();
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao ler metadados de " + file, e);
+        }
+    }
+
+    @Override
+    public void copyTo(OutputStream out, long offset, long count) throws IOException {
+        if (count <= 0) return;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long end = Math.min(offset + count, channel.size());
+            WritableByteChannel target = out instanceof FileOutputStream fos ? fos.getChannel() : Channels.newChannel(out);
+
+            for (long pos = offset; pos < end; ) {
+                long sent = channel.transferTo(pos, end - pos, target);
+                if (sent <= 0) break;
+                pos += sent;
+            }
+        }
+    }
+}
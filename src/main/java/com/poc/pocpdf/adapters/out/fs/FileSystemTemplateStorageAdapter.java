@@ -0,0 +1,108 @@
+package com.poc.pocpdf.adapters.out.fs;
+
+import com.poc.pocpdf.application.port.out.StoredDocument;
+import com.poc.pocpdf.application.port.out.TemplateStoragePort;
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.Version;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Backend local do TemplateStoragePort: {@code <root>/<templates>/<key>.docx} para o template base e
+ * as versões em {@code <root>/<output>/contratos/<key>/vN/}, mesmo layout dos containers do Blob.
+ */
+public class FileSystemTemplateStorageAdapter implements TemplateStoragePort {
+
+    private final Path templatesDir;
+    private final FileSystemManifestStore manifest;
+
+    public FileSystemTemplateStorageAdapter(Path root, String templatesContainer, String outputContainer) {
+        this.templatesDir = root.toAbsolutePath().resolve(templatesContainer);
+        this.manifest = new FileSystemManifestStore(root.toAbsolutePath().resolve(outputContainer));
+    }
+
+    private Path baseTemplateFile(ContractName contractName) {
+        return templatesDir.resolve(contractName.asKey() + ".docx");
+    }
+
+    @Override
+    public boolean exists(ContractName contractName) {
+        // “existe template atual” = existe pelo menos uma versão vN
+        return manifest.latest(contractName).isPresent();
+    }
+
+    @Override
+    public void save(ContractName contractName, byte[] docxBytes) {
+        if (docxBytes == null || docxBytes.length == 0) {
+            throw new IllegalArgumentException("Template DOCX vazio.");
+        }
+        try {
+            LocalFiles.writeAtomically(docxBytes, baseTemplateFile(contractName));
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao salvar template base em disco: " + baseTemplateFile(contractName), e);
+        }
+    }
+
+    @Override
+    public void save(ContractName contractName, Path docxFile) {
+        if (docxFile == null || !Files.isRegularFile(docxFile)) {
+            throw new IllegalArgumentException("Template DOCX não encontrado: " + docxFile);
+        }
+        try {
+            if (Files.size(docxFile) == 0) {
+                throw new IllegalArgumentException("Template DOCX vazio.");
+            }
+            LocalFiles.copyAtomically(docxFile, baseTemplateFile(contractName));
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao salvar template base em disco: " + baseTemplateFile(contractName), e);
+        }
+    }
+
+    @Override
+    public byte[] load(ContractName contractName) {
+        Version latest = manifest.latest(contractName).orElseThrow(() -> new IllegalArgumentException(
+                "Nenhuma versão encontrada para contrato: " + contractName.value()));
+
+        try {
+            return Files.readAllBytes(latestDocx(contractName, latest));
+        } catch (NoSuchFileException e) {
+            // ponteiro desatualizado (arquivo removido): reconstrói pela listagem e tenta de novo
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao carregar template do disco para contrato: " + contractName.value(), e);
+        }
+
+        Version rebuilt = manifest.rebuild(contractName).orElseThrow(() -> new IllegalArgumentException(
+                "Nenhuma versão encontrada para contrato: " + contractName.value()));
+        try {
+            return Files.readAllBytes(latestDocx(contractName, rebuilt));
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao carregar template do disco para contrato: " + contractName.value(), e);
+        }
+    }
+
+    @Override
+    public Optional<StoredDocument> findLatest(ContractName contractName) {
+        Optional<Version> latest = manifest.latest(contractName);
+        if (latest.isEmpty()) return Optional.empty();
+
+        Optional<StoredDocument> doc = FileSystemStoredDocument.head(latestDocx(contractName, latest.get()));
+        if (doc.isPresent()) return doc;
+
+        return manifest.rebuild(contractName)
+                .flatMap(v -> FileSystemStoredDocument.head(latestDocx(contractName, v)));
+    }
+
+    @Override
+    public List<ContractName> findContracts(String keyPrefix) {
+        return manifest.keys(keyPrefix).stream().map(ContractName::new).toList();
+    }
+
+    private Path latestDocx(ContractName contractName, Version version) {
+        return manifest.versionDir(contractName, version).resolve(contractName.asKey() + ".docx");
+    }
+}
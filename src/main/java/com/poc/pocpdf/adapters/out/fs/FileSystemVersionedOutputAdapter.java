@@ -0,0 +1,106 @@
+package com.poc.pocpdf.adapters.out.fs;
+
+import com.poc.pocpdf.application.port.out.StoredDocument;
+import com.poc.pocpdf.application.port.out.VersionedOutputPort;
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.Version;
+import com.poc.pocpdf.domain.model.VersionInfo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class FileSystemVersionedOutputAdapter implements VersionedOutputPort {
+
+    private final FileSystemManifestStore manifest;
+
+    public FileSystemVersionedOutputAdapter(Path root, String outputContainer) {
+        this.manifest = new FileSystemManifestStore(root.toAbsolutePath().resolve(outputContainer));
+    }
+
+    @Override
+    public Version nextVersion(ContractName contractName) {
+        // vN/.claim criado com CREATE_NEW; seguro com ou sem lock
+        return manifest.claim(contractName);
+    }
+
+    @Override
+    public void save(ContractName contractName, Version version, String fileName, Path file,
+                     Map<String, String> metadata) {
+        if (file == null || !Files.exists(file)) {
+            throw new IllegalArgumentException("Arquivo não existe: " + (file == null ? "null" : file.toAbsolutePath()));
+        }
+        Path target = manifest.versionDir(contractName, version).resolve(fileName);
+        try {
+            // metadados antes do arquivo: se o arquivo existe, os metadados dele também
+            FileSystemStoredDocument.writeMetadata(target, metadata);
+            LocalFiles.copyAtomically(file, target);
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao gravar " + target, e);
+        }
+    }
+
+    @Override
+    public void delete(ContractName contractName, Version version, String fileName) {
+        Path target = manifest.versionDir(contractName, version).resolve(fileName);
+        try {
+            Files.deleteIfExists(target);
+            Files.deleteIfExists(FileSystemStoredDocument.metadataFile(target));
+        } catch (IOException e) {
+            throw new RuntimeException("Falha ao remover " + target, e);
+        }
+    }
+
+    @Override
+    public Optional<StoredDocument> find(ContractName contractName, Version version, String fileName) {
+        return FileSystemStoredDocument.head(manifest.versionDir(contractName, version).resolve(fileName));
+    }
+
+    @Override
+    public void publish(ContractName contractName, Version version) {
+        manifest.publish(contractName, version);
+    }
+
+    @Override
+    public Optional<Version> latest(ContractName contractName) {
+        return manifest.latest(contractName);
+    }
+
+    @Override
+    public List<VersionInfo> listVersions(ContractName contractName) {
+        String key = contractName.asKey();
+        List<VersionInfo> versions = new ArrayList<>();
+        // acima do ponteiro estão versões ainda não publicadas
+        int latest = manifest.latest(contractName).map(Version::number).orElse(0);
+
+        for (Version v : manifest.versions(contractName)) {
+            if (v.number() > latest) continue;
+            Path dir = manifest.versionDir(contractName, v);
+            Optional<StoredDocument> docx = FileSystemStoredDocument.head(dir.resolve(key + ".docx"));
+            Optional<StoredDocument> pdf = FileSystemStoredDocument.head(dir.resolve(key + ".pdf"));
+            if (docx.isEmpty() || pdf.isEmpty()) continue;
+
+            versions.add(new VersionInfo(
+                    v,
+                    createdAt(dir.resolve(key + ".docx")),
+                    docx.get().size(),
+                    pdf.get().size(),
+                    docx.get().metadata().get("fingerprint")));
+        }
+        return versions;
+    }
+
+    private static Instant createdAt(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).creationTime().toInstant();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
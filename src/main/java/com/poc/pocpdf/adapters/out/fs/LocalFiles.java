@@ -0,0 +1,46 @@
+package com.poc.pocpdf.adapters.out.fs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Escrita atômica: grava num temporário no mesmo diretório e troca por rename. Quem lê enxerga
+ * o arquivo antigo inteiro ou o novo inteiro, nunca um pela metade.
+ */
+final class LocalFiles {
+
+    private LocalFiles() {
+    }
+
+    static void copyAtomically(Path source, Path target) throws IOException {
+        Path tmp = tempFor(target);
+        try {
+            Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+            move(tmp, target);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    static void writeAtomically(byte[] bytes, Path target) throws IOException {
+        Path tmp = tempFor(target);
+        try {
+            Files.write(tmp, bytes);
+            move(tmp, target);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static Path tempFor(Path target) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        return Files.createTempFile(dir, "." + target.getFileName(), ".tmp");
+    }
+
+    private static void move(Path tmp, Path target) throws IOException {
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,64 @@
+package com.poc.pocpdf.adapters.out.idempotency;
+
+import com.poc.pocpdf.application.port.out.IdempotencyStorePort;
+import com.poc.pocpdf.application.port.out.IdempotentRequest;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chaves no heap do nó (não valem entre nós; ver AzureBlobIdempotencyStoreAdapter). Execuções concluídas valem por ttl contado do registro; em andamento nunca
+ * expiram. Acima de maxEntries as concluídas mais antigas saem primeiro.
+ */
+public class InMemoryIdempotencyStoreAdapter implements IdempotencyStorePort {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public InMemoryIdempotencyStoreAdapter(Duration ttl, int maxEntries) {
+        this.ttlNanos = (ttl == null || ttl.isNegative() || ttl.isZero())
+                ? Duration.ofHours(1).toNanos()
+                : ttl.toNanos();
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    @Override
+    public Optional<IdempotentRequest> putIfAbsent(String key, IdempotentRequest request) {
+        long now = System.nanoTime();
+        Entry mine = new Entry(request, now);
+
+        Entry current = entries.compute(key, (k, existing) ->
+                (existing == null || existing.expired(now, ttlNanos)) ? mine : existing);
+
+        if (current == mine) {
+            if (entries.size() > maxEntries) evict(now);
+            return Optional.empty();
+        }
+        return Optional.of(current.request());
+    }
+
+    @Override
+    public void remove(String key, IdempotentRequest request) {
+        entries.computeIfPresent(key, (k, existing) -> existing.request() == request ? null : existing);
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(e -> e.expired(now, ttlNanos));
+        if (entries.size() <= maxEntries) return;
+
+        entries.entrySet().stream()
+                .filter(e -> e.getValue().request().result().isDone())
+                .sorted((a, b) -> Long.compare(a.getValue().createdAt(), b.getValue().createdAt()))
+                .limit(entries.size() - maxEntries)
+                .toList()
+                .forEach(e -> entries.remove(e.getKey(), e.getValue()));
+    }
+
+    private record Entry(IdempotentRequest request, long createdAt) {
+        boolean expired(long now, long ttlNanos) {
+            return request.result().isDone() && now - createdAt > ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.poc.pocpdf.adapters.out.job;
+
+import com.poc.pocpdf.application.port.out.JobStorePort;
+import com.poc.pocpdf.domain.model.TemplateJob;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryJobStoreAdapter implements JobStorePort {
+
+    private final Map<String, TemplateJob> jobs = new ConcurrentHashMap<>();
+    private final Duration retention;
+
+    public InMemoryJobStoreAdapter(Duration retention) {
+        this.retention = (retention == null || retention.isNegative() || retention.isZero())
+                ? Duration.ofHours(1)
+                : retention;
+    }
+
+    @Override
+    public void save(TemplateJob job) {
+        jobs.put(job.id(), job);
+        evictExpired();
+    }
+
+    @Override
+    public Optional<TemplateJob> find(String jobId) {
+        if (jobId == null) return Optional.empty();
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    @Override
+    public void delete(String jobId) {
+        if (jobId != null) jobs.remove(jobId);
+    }
+
+    // jobs finalizados só ficam consultáveis durante a retenção
+    private void evictExpired() {
+        Instant limit = Instant.now().minus(retention);
+        jobs.values().removeIf(j -> j.status().isFinished() && j.updatedAt().isBefore(limit));
+    }
+}
@@ -0,0 +1,113 @@
+package com.poc.pocpdf.adapters.out.lock;
+
+import com.poc.pocpdf.application.port.out.LockHandle;
+import com.poc.pocpdf.application.port.out.LockPort;
+import com.poc.pocpdf.application.port.out.LockedAction;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Primeiro nível do lock: quem disputa a mesma chave no mesmo nó espera numa fila local (FIFO)
+ * e só o dono da vez vai ao lock distribuído. Chaves sem ninguém usando saem do mapa.
+ */
+public class LocalTieredLockAdapter implements LockPort, AutoCloseable {
+
+    private final LockPort delegate;
+    private final Duration maxWait;
+    private final Timer waitTimer;
+    private final Timer timeoutTimer;
+
+    private final ConcurrentHashMap<String, KeyLock> locks = new ConcurrentHashMap<>();
+
+    public LocalTieredLockAdapter(LockPort delegate, Duration maxWait, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWait = (maxWait == null || maxWait.isNegative() || maxWait.isZero())
+                ? Duration.ofMinutes(2)
+                : maxWait;
+        this.waitTimer = Timer.builder("lock.wait").tag("tier", "local").tag("outcome", "acquired")
+                .register(meterRegistry);
+        this.timeoutTimer = Timer.builder("lock.wait").tag("tier", "local").tag("outcome", "timeout")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T withLock(String lockKey, Duration ttl, LockedAction<T> action) {
+        String key = lockKey == null ? "lock" : lockKey;
+        KeyLock keyLock = retain(key);
+
+        try {
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = keyLock.lock.tryLock(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrompido aguardando lock.", e);
+            }
+
+            long waited = System.nanoTime() - start;
+            if (!acquired) {
+                timeoutTimer.record(waited, TimeUnit.NANOSECONDS);
+                throw new RuntimeException("Não foi possível adquirir lock para: " + lockKey);
+            }
+            waitTimer.record(waited, TimeUnit.NANOSECONDS);
+
+            try {
+                // reentrante: a mesma thread já tem o lock distribuído
+                if (keyLock.lock.getHoldCount() > 1) return call(action, keyLock.handle);
+
+                return delegate.withLock(lockKey, ttl, handle -> {
+                    keyLock.handle = handle;
+                    try {
+                        return action.run(handle);
+                    } finally {
+                        keyLock.handle = null;
+                    }
+                });
+            } finally {
+                keyLock.lock.unlock();
+            }
+        } finally {
+            release(key);
+        }
+    }
+
+    private KeyLock retain(String key) {
+        return locks.compute(key, (k, current) -> {
+            KeyLock kl = (current == null) ? new KeyLock() : current;
+            kl.users++;
+            return kl;
+        });
+    }
+
+    private void release(String key) {
+        locks.computeIfPresent(key, (k, kl) -> --kl.users == 0 ? null : kl);
+    }
+
+    private static <T> T call(LockedAction<T> action, LockHandle handle) {
+        try {
+            return action.run(handle);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable c) c.close();
+    }
+
+    // users só é alterado dentro do compute do ConcurrentHashMap; handle só pelo dono do lock
+    private static final class KeyLock {
+        final ReentrantLock lock = new ReentrantLock(true);
+        int users;
+        volatile LockHandle handle;
+    }
+}
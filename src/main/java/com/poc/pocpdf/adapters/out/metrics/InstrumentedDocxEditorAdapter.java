@@ -0,0 +1,24 @@
+package com.poc.pocpdf.adapters.out.metrics;
+
+import com.poc.pocpdf.application.port.out.DocxEditorPort;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class InstrumentedDocxEditorAdapter implements DocxEditorPort {
+
+    private final DocxEditorPort delegate;
+    private final PortMetrics metrics;
+
+    public InstrumentedDocxEditorAdapter(DocxEditorPort delegate, MeterRegistry registry, boolean contractTag) {
+        this.delegate = delegate;
+        this.metrics = new PortMetrics(registry, "docx-editor", contractTag);
+    }
+
+    @Override
+    public Path applyExtraClauses(Path templateDocx, String templateHash, Path outputDocx, List<String> extraClauses) {
+        return metrics.time("apply-extra-clauses", PortMetrics.contractOf(outputDocx), PortMetrics.sizeOf(templateDocx),
+                () -> delegate.applyExtraClauses(templateDocx, templateHash, outputDocx, extraClauses));
+    }
+}
@@ -0,0 +1,62 @@
+package com.poc.pocpdf.adapters.out.metrics;
+
+import com.poc.pocpdf.application.port.out.LockPort;
+import com.poc.pocpdf.application.port.out.LockedAction;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+
+/**
+ * Separa o tempo esperando o lock ({@code operation=acquire}) do tempo com o lock em mãos
+ * ({@code operation=hold}).
+ */
+public class InstrumentedLockAdapter implements LockPort, AutoCloseable {
+
+    private final LockPort delegate;
+    private final PortMetrics metrics;
+
+    public InstrumentedLockAdapter(LockPort delegate, MeterRegistry registry, boolean contractTag) {
+        this.delegate = delegate;
+        this.metrics = new PortMetrics(registry, "lock", contractTag);
+    }
+
+    @Override
+    public <T> T withLock(String lockKey, Duration ttl, LockedAction<T> action) {
+        String contract = contractOf(lockKey);
+        long start = System.nanoTime();
+        boolean[] acquired = {false};
+
+        try {
+            return delegate.withLock(lockKey, ttl, handle -> {
+                long held = System.nanoTime();
+                acquired[0] = true;
+                metrics.record("acquire", contract, "success", -1, held - start);
+
+                String outcome = "success";
+                try {
+                    return action.run(handle);
+                } catch (Exception e) {
+                    outcome = "error";
+                    throw e;
+                } finally {
+                    metrics.record("hold", contract, outcome, -1, System.nanoTime() - held);
+                }
+            });
+        } catch (RuntimeException e) {
+            if (!acquired[0]) metrics.record("acquire", contract, "error", -1, System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    // "contract-template:<chave>" -> "<chave>"
+    private static String contractOf(String lockKey) {
+        if (lockKey == null) return null;
+        int idx = lockKey.indexOf(':');
+        return idx < 0 ? lockKey : lockKey.substring(idx + 1);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable c) c.close();
+    }
+}
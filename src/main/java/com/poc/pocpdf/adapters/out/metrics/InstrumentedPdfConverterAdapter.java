@@ -0,0 +1,37 @@
+package com.poc.pocpdf.adapters.out.metrics;
+
+import com.poc.pocpdf.application.port.out.PdfConversionResult;
+import com.poc.pocpdf.application.port.out.PdfConverterPort;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class InstrumentedPdfConverterAdapter implements PdfConverterPort, AutoCloseable {
+
+    private final PdfConverterPort delegate;
+    private final PortMetrics metrics;
+
+    public InstrumentedPdfConverterAdapter(PdfConverterPort delegate, MeterRegistry registry, boolean contractTag) {
+        this.delegate = delegate;
+        this.metrics = new PortMetrics(registry, "pdf-converter", contractTag);
+    }
+
+    @Override
+    public Path docxToPdf(Path docx, Path outDir) {
+        return metrics.time("docx-to-pdf", PortMetrics.contractOf(docx), PortMetrics.sizeOf(docx),
+                () -> delegate.docxToPdf(docx, outDir));
+    }
+
+    // lote medido inteiro; sem tag de contrato (mistura vários)
+    @Override
+    public List<PdfConversionResult> docxToPdfBatch(List<Path> docxs, Path outDir) {
+        long total = docxs.stream().mapToLong(PortMetrics::sizeOf).filter(s -> s >= 0).sum();
+        return metrics.time("docx-to-pdf-batch", null, total, () -> delegate.docxToPdfBatch(docxs, outDir));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable c) c.close();
+    }
+}
@@ -0,0 +1,54 @@
+package com.poc.pocpdf.adapters.out.metrics;
+
+import com.poc.pocpdf.application.port.out.StoredDocument;
+import com.poc.pocpdf.application.port.out.TemplateStoragePort;
+import com.poc.pocpdf.domain.model.ContractName;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+public class InstrumentedTemplateStorageAdapter implements TemplateStoragePort {
+
+    private final TemplateStoragePort delegate;
+    private final PortMetrics metrics;
+
+    public InstrumentedTemplateStorageAdapter(TemplateStoragePort delegate, MeterRegistry registry, boolean contractTag) {
+        this.delegate = delegate;
+        this.metrics = new PortMetrics(registry, "template-storage", contractTag);
+    }
+
+    @Override
+    public boolean exists(ContractName contractName) {
+        return metrics.time("exists", contractName.asKey(), -1, () -> delegate.exists(contractName));
+    }
+
+    @Override
+    public void save(ContractName contractName, byte[] docxBytes) {
+        long size = docxBytes == null ? -1 : docxBytes.length;
+        metrics.run("save", contractName.asKey(), size, () -> delegate.save(contractName, docxBytes));
+    }
+
+    @Override
+    public void save(ContractName contractName, Path docxFile) {
+        metrics.run("save", contractName.asKey(), PortMetrics.sizeOf(docxFile),
+                () -> delegate.save(contractName, docxFile));
+    }
+
+    @Override
+    public byte[] load(ContractName contractName) {
+        return metrics.time("load", contractName.asKey(), -1, () -> delegate.load(contractName), b -> b.length);
+    }
+
+    @Override
+    public Optional<StoredDocument> findLatest(ContractName contractName) {
+        return metrics.time("find-latest", contractName.asKey(), -1, () -> delegate.findLatest(contractName),
+                doc -> doc.map(StoredDocument::size).orElse(-1L));
+    }
+
+    @Override
+    public List<ContractName> findContracts(String keyPrefix) {
+        return metrics.time("find-contracts", null, -1, () -> delegate.findContracts(keyPrefix));
+    }
+}
@@ -0,0 +1,62 @@
+package com.poc.pocpdf.adapters.out.metrics;
+
+import com.poc.pocpdf.application.port.out.StoredDocument;
+import com.poc.pocpdf.application.port.out.VersionedOutputPort;
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.Version;
+import com.poc.pocpdf.domain.model.VersionInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class InstrumentedVersionedOutputAdapter implements VersionedOutputPort {
+
+    private final VersionedOutputPort delegate;
+    private final PortMetrics metrics;
+
+    public InstrumentedVersionedOutputAdapter(VersionedOutputPort delegate, MeterRegistry registry, boolean contractTag) {
+        this.delegate = delegate;
+        this.metrics = new PortMetrics(registry, "versioned-output", contractTag);
+    }
+
+    @Override
+    public Version nextVersion(ContractName contractName) {
+        return metrics.time("next-version", contractName.asKey(), -1, () -> delegate.nextVersion(contractName));
+    }
+
+    @Override
+    public void save(ContractName contractName, Version version, String fileName, Path file,
+                     Map<String, String> metadata) {
+        metrics.run("save", contractName.asKey(), PortMetrics.sizeOf(file),
+                () -> delegate.save(contractName, version, fileName, file, metadata));
+    }
+
+    @Override
+    public void delete(ContractName contractName, Version version, String fileName) {
+        metrics.run("delete", contractName.asKey(), -1, () -> delegate.delete(contractName, version, fileName));
+    }
+
+    @Override
+    public Optional<StoredDocument> find(ContractName contractName, Version version, String fileName) {
+        return metrics.time("find", contractName.asKey(), -1, () -> delegate.find(contractName, version, fileName),
+                doc -> doc.map(StoredDocument::size).orElse(-1L));
+    }
+
+    @Override
+    public void publish(ContractName contractName, Version version) {
+        metrics.run("publish", contractName.asKey(), -1, () -> delegate.publish(contractName, version));
+    }
+
+    @Override
+    public Optional<Version> latest(ContractName contractName) {
+        return metrics.time("latest", contractName.asKey(), -1, () -> delegate.latest(contractName));
+    }
+
+    @Override
+    public List<VersionInfo> listVersions(ContractName contractName) {
+        return metrics.time("list-versions", contractName.asKey(), -1, () -> delegate.listVersions(contractName));
+    }
+}
@@ -0,0 +1,108 @@
+package com.poc.pocpdf.adapters.out.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Mede chamadas na fronteira de um port: {@code port.call{port,operation,contract,outcome,size}}
+ * e {@code port.document.size{port,operation}} quando o tamanho é conhecido.
+ * O timer só publica histograma sem a tag contract: histograma por contrato multiplica as séries
+ * pelo número de contratos.
+ */
+final class PortMetrics {
+
+    static final String CALL_TIMER = "port.call";
+    static final String SIZE_SUMMARY = "port.document.size";
+    static final String NONE = "n/a";
+
+    private final MeterRegistry registry;
+    private final String port;
+    private final boolean contractTag;
+
+    PortMetrics(MeterRegistry registry, String port, boolean contractTag) {
+        this.registry = registry;
+        this.port = port;
+        this.contractTag = contractTag;
+    }
+
+    <T> T time(String operation, String contract, long bytes, Supplier<T> call) {
+        return time(operation, contract, bytes, call, null);
+    }
+
+    /** @param sizeOfResult tamanho do documento a partir do retorno (ex.: load), quando não se sabe antes */
+    <T> T time(String operation, String contract, long bytes, Supplier<T> call, ToLongFunction<T> sizeOfResult) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        long size = bytes;
+        try {
+            T result = call.get();
+            if (sizeOfResult != null && result != null) size = sizeOfResult.applyAsLong(result);
+            return result;
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            record(operation, contract, outcome, size, System.nanoTime() - start);
+        }
+    }
+
+    void run(String operation, String contract, long bytes, Runnable call) {
+        time(operation, contract, bytes, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    void record(String operation, String contract, String outcome, long bytes, long nanos) {
+        Tags tags = Tags.of("port", port, "operation", operation);
+
+        Timer.builder(CALL_TIMER)
+                .tags(tags)
+                .tag("contract", contractTag && contract != null ? contract : NONE)
+                .tag("outcome", outcome)
+                .tag("size", sizeBucket(bytes))
+                .publishPercentileHistogram(!contractTag)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        if (bytes >= 0) {
+            DistributionSummary.builder(SIZE_SUMMARY)
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(bytes);
+        }
+    }
+
+    // faixas fixas para não explodir a cardinalidade
+    static String sizeBucket(long bytes) {
+        if (bytes < 0) return NONE;
+        if (bytes < 100L * 1024) return "lt100KB";
+        if (bytes < 1024L * 1024) return "lt1MB";
+        if (bytes < 10L * 1024 * 1024) return "lt10MB";
+        return "ge10MB";
+    }
+
+    static long sizeOf(Path file) {
+        try {
+            return file == null ? -1 : Files.size(file);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    // os arquivos do pipeline se chamam <chave-do-contrato>.docx/.pdf
+    static String contractOf(Path file) {
+        if (file == null || file.getFileName() == null) return null;
+        return file.getFileName().toString().replaceAll("\\.(docx|pdf)$", "");
+    }
+}
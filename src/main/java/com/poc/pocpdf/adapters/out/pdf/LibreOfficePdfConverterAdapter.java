@@ -1,70 +1,462 @@
 package com.poc.pocpdf.adapters.out.pdf;
 
+import com.poc.pocpdf.adapters.out.scratch.DirectoryScratchSpaceAdapter;
+import com.poc.pocpdf.application.port.out.PdfConversionResult;
 import com.poc.pocpdf.application.port.out.PdfConverterPort;
+import com.poc.pocpdf.application.port.out.ScratchDir;
+import com.poc.pocpdf.application.port.out.ScratchSpacePort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.UUID;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
-public class LibreOfficePdfConverterAdapter implements PdfConverterPort {
+public class LibreOfficePdfConverterAdapter implements PdfConverterPort, AutoCloseable {
 
     private final String sofficePath;
+    private final int batchMaxSize;
+    private final long batchMaxWaitMs;
+    private final long processTimeoutMs;
+
+    // um permit por processo soffice vivo (lote ou conversão avulsa)
+    private final Semaphore processes;
+
+    // conversões aguardando para entrar no próximo micro-lote
+    private final LinkedBlockingQueue<PendingConversion> pending = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    // perfis (-env:UserInstallation) livres; criar um do zero a cada processo custa centenas de arquivos
+    private final Path profilesDir;
+    private final ConcurrentLinkedDeque<Path> idleProfiles = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger profileSeq = new AtomicInteger();
+    private final Counter profileCreated;
+
+    // cada lote aloca o seu diretório (não usa o scratch de nenhum job do lote)
+    private final ScratchSpacePort batchSpace;
+
+    // estatísticas do processo soffice
+    private final MeterRegistry registry;
+    private final Timer spawnTimer;
+    private final DistributionSummary logSize;
+    private final DistributionSummary batchSize;
+    private final Counter batchRetries;
+
+    /** Uso avulso (benchmarks): lotes montados dentro de profilesDir, que é do chamador. */
+    public LibreOfficePdfConverterAdapter(String sofficePath,
+                                          int batchMaxSize,
+                                          long batchMaxWaitMs,
+                                          Path profilesDir,
+                                          MeterRegistry meterRegistry) {
+        this(sofficePath, batchMaxSize, batchMaxWaitMs, 2, 120_000L, profilesDir,
+                new DirectoryScratchSpaceAdapter(profilesDir.resolve("batches")), meterRegistry);
+    }
+
+    /**
+     * @param maxProcesses     processos soffice simultâneos; lotes excedentes esperam na fila
+     * @param processTimeoutMs tempo máximo de um processo; acima disso é morto e o lote falha
+     * @param profilesDir      onde ficam os perfis do LibreOffice reaproveitados entre processos
+     *                         (um por processo simultâneo); não deve ser compartilhado entre instâncias
+     * @param batchSpace       onde os lotes montam entrada e saída (o scratch gerenciado da aplicação)
+     */
+    public LibreOfficePdfConverterAdapter(String sofficePath,
+                                          int batchMaxSize,
+                                          long batchMaxWaitMs,
+                                          int maxProcesses,
+                                          long processTimeoutMs,
+                                          Path profilesDir,
+                                          ScratchSpacePort batchSpace,
+                                          MeterRegistry meterRegistry) {
+        this.registry = meterRegistry;
+        this.profilesDir = profilesDir.toAbsolutePath();
+        this.batchSpace = batchSpace;
+        this.profileCreated = Counter.builder("soffice.profile.created").register(meterRegistry);
+        this.spawnTimer = Timer.builder("soffice.spawn")
+                .description("Tempo até o processo soffice ser criado")
+                .register(meterRegistry);
+        this.logSize = DistributionSummary.builder("soffice.log.size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("soffice.batch.size")
+                .description("Documentos por processo soffice")
+                .register(meterRegistry);
+        this.batchRetries = Counter.builder("soffice.batch.retries")
+                .description("Documentos refeitos sozinhos depois de falha parcial do lote")
+                .register(meterRegistry);
 
-    public LibreOfficePdfConverterAdapter(String sofficePath) {
         this.sofficePath = (sofficePath == null || sofficePath.isBlank()) ? "soffice" : sofficePath;
+        this.batchMaxSize = Math.max(1, batchMaxSize);
+        this.batchMaxWaitMs = Math.max(0, batchMaxWaitMs);
+        this.processTimeoutMs = processTimeoutMs > 0 ? processTimeoutMs : 120_000L;
+        this.processes = new Semaphore(Math.max(1, maxProcesses), true);
+
+        if (this.batchMaxSize > 1) {
+            this.dispatcher = Thread.ofPlatform()
+                    .name("soffice-batch-dispatcher")
+                    .daemon(true)
+                    .start(this::dispatchLoop);
+        } else {
+            this.dispatcher = null;
+        }
     }
 
     @Override
     public Path docxToPdf(Path docx, Path outDir) {
+        if (dispatcher == null) {
+            return convertSingle(docx, outDir);
+        }
+
+        PendingConversion conversion = new PendingConversion(docx, outDir, new CompletableFuture<>());
+        pending.add(conversion);
+
         try {
-            Files.createDirectories(outDir);
+            return conversion.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new RuntimeException("Falha ao converter DOCX para PDF via LibreOffice.", e.getCause());
+        }
+    }
 
-            String baseName = docx.getFileName().toString().replaceAll("\\.docx$", "");
-            Path expectedPdf = outDir.resolve(baseName + ".pdf");
+    @Override
+    public List<PdfConversionResult> docxToPdfBatch(List<Path> docxs, Path outDir) {
+        PdfConverterPort.requireDistinctNames(docxs);
+        List<PdfConversionResult> results = new ArrayList<>(docxs.size());
 
-            Path profileDir = outDir.resolve(".lo-profile-" + UUID.randomUUID());
-            Files.createDirectories(profileDir);
-
-            String userInstallation = profileDir.toUri().toString();
-
-            ProcessBuilder pb = new ProcessBuilder(
-                    sofficePath,
-                    "--headless",
-                    "--nologo",
-                    "--nolockcheck",
-                    "--nodefault",
-                    "--nofirststartwizard",
-                    "-env:UserInstallation=" + userInstallation,
-                    "--convert-to", "pdf",
-                    "--outdir", outDir.toAbsolutePath().toString(),
-                    docx.toAbsolutePath().toString()
-            );
-
-            pb.redirectErrorStream(true);
-            Process p = pb.start();
+        for (int from = 0; from < docxs.size(); from += batchMaxSize) {
+            List<PendingConversion> chunk = docxs.subList(from, Math.min(docxs.size(), from + batchMaxSize))
+                    .stream()
+                    .map(d -> new PendingConversion(d, outDir, new CompletableFuture<>()))
+                    .toList();
+
+            acquireProcess();
+            try {
+                runBatch(chunk);
+            } finally {
+                processes.release();
+            }
 
-            StringBuilder log = new StringBuilder();
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    log.append(line).append("\n");
+            for (PendingConversion c : chunk) {
+                try {
+                    results.add(PdfConversionResult.ok(c.docx(), c.result().join()));
+                } catch (CompletionException e) {
+                    RuntimeException cause = (e.getCause() instanceof RuntimeException re)
+                            ? re
+                            : new RuntimeException(e.getCause());
+                    results.add(PdfConversionResult.failed(c.docx(), cause));
                 }
             }
+        }
+
+        return results;
+    }
+
+    private Path convertSingle(Path docx, Path outDir) {
+        acquireProcess();
+        try {
+            Files.createDirectories(outDir);
+
+            String baseName = baseName(docx);
+            Path expectedPdf = outDir.resolve(baseName + ".pdf");
 
-            int code = p.waitFor();
-            if (code != 0) {
-                throw new RuntimeException("LibreOffice falhou. ExitCode=" + code + "\n" + log);
+            SofficeRun run = runSoffice(List.of(docx), outDir);
+            if (run.exitCode() != 0) {
+                throw new RuntimeException("LibreOffice falhou. ExitCode=" + run.exitCode() + "\n" + run.log());
             }
 
             if (!Files.exists(expectedPdf)) {
-                throw new RuntimeException("PDF não foi gerado. Log:\n" + log);
+                throw new RuntimeException("PDF não foi gerado. Log:\n" + run.log());
             }
 
             return expectedPdf;
         } catch (Exception e) {
             throw new RuntimeException("Falha ao converter DOCX para PDF via LibreOffice.", e);
+        } finally {
+            processes.release();
+        }
+    }
+
+    private void acquireProcess() {
+        try {
+            processes.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrompido aguardando processo LibreOffice.", e);
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                PendingConversion first = pending.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+
+                List<PendingConversion> batch = new ArrayList<>(batchMaxSize);
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchMaxWaitMs);
+                while (batch.size() < batchMaxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    PendingConversion next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                // o lote roda fora do dispatcher para não segurar a formação do próximo; sem processo
+                // livre o dispatcher espera aqui e os pedidos seguintes se acumulam no próximo lote
+                processes.acquire();
+                try {
+                    Thread.ofVirtual().name("soffice-batch").start(() -> {
+                        try {
+                            runBatch(batch);
+                        } finally {
+                            processes.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    processes.release();
+                    throw e;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void failAll(List<PendingConversion> batch, Throwable cause) {
+        for (PendingConversion c : batch) c.result().completeExceptionally(cause);
+    }
+
+    /**
+     * Roda um único processo soffice para todo o lote. Os arquivos de entrada recebem um prefixo
+     * com o índice para que nomes iguais (ex.: v1 e v2 do mesmo contrato) não colidam no outdir.
+     * <p>
+     * Se o lote gerar só parte dos PDFs (um DOCX ruim derruba o processo), os que faltaram são
+     * refeitos um a um; cada um falha com o exit code e o log da sua própria tentativa.
+     */
+    private void runBatch(List<PendingConversion> batch) {
+        try (ScratchDir staging = batchSpace.allocate("lo-batch")) {
+            Path in = Files.createDirectories(staging.path().resolve("in"));
+            Path out = Files.createDirectories(staging.path().resolve("out"));
+
+            List<Path> inputs = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                Path src = batch.get(i).docx();
+                Path staged = in.resolve(i + "__" + baseName(src) + ".docx");
+                linkOrCopy(src, staged);
+                inputs.add(staged);
+            }
+
+            SofficeRun run = runSoffice(inputs, out);
+
+            for (int i = 0; i < batch.size(); i++) {
+                PendingConversion c = batch.get(i);
+                Path produced = out.resolve(i + "__" + baseName(c.docx()) + ".pdf");
+
+                if (!Files.exists(produced) && batch.size() > 1) {
+                    batchRetries.increment();
+                    try {
+                        run = runSoffice(List.of(inputs.get(i)), out);
+                    } catch (SofficeTimeoutException e) {
+                        c.result().completeExceptionally(e);
+                        continue;
+                    }
+                }
+
+                if (!Files.exists(produced)) {
+                    c.result().completeExceptionally(new RuntimeException(
+                            "PDF não foi gerado para " + c.docx().getFileName()
+                                    + ". ExitCode=" + run.exitCode() + " Log:\n" + run.log()));
+                    continue;
+                }
+
+                try {
+                    Files.createDirectories(c.outDir());
+                    Path target = c.outDir().resolve(baseName(c.docx()) + ".pdf");
+                    Files.move(produced, target, StandardCopyOption.REPLACE_EXISTING);
+                    c.result().complete(target);
+                } catch (IOException e) {
+                    c.result().completeExceptionally(
+                            new RuntimeException("Falha ao mover PDF gerado: " + produced, e));
+                }
+            }
+        } catch (SofficeTimeoutException e) {
+            failAll(batch, e);
+        } catch (Exception e) {
+            failAll(batch, new RuntimeException("Falha ao converter lote DOCX para PDF via LibreOffice.", e));
+        }
+    }
+
+    private SofficeRun runSoffice(List<Path> inputs, Path outDir) throws IOException, InterruptedException {
+        Path profileDir = takeProfile();
+        boolean healthy = false;
+        try {
+            SofficeRun run = runSoffice(inputs, outDir, profileDir);
+            healthy = run.exitCode() == 0;
+            return run;
+        } finally {
+            releaseProfile(profileDir, healthy);
+        }
+    }
+
+    private Path takeProfile() throws IOException {
+        Path profile = idleProfiles.pollFirst();
+        if (profile != null) return profile;
+
+        profileCreated.increment();
+        return Files.createDirectories(profilesDir.resolve("process-" + profileSeq.incrementAndGet()));
+    }
+
+    // perfil de processo que falhou pode estar corrompido: descarta em vez de devolver
+    private void releaseProfile(Path profile, boolean healthy) {
+        if (healthy) {
+            idleProfiles.offerFirst(profile);
+        } else {
+            deleteQuietly(profile);
+        }
+    }
+
+    private SofficeRun runSoffice(List<Path> inputs, Path outDir, Path profileDir) throws IOException, InterruptedException {
+        List<String> cmd = new ArrayList<>(List.of(
+                sofficePath,
+                "--headless",
+                "--nologo",
+                "--nolockcheck",
+                "--nodefault",
+                "--nofirststartwizard",
+                "-env:UserInstallation=" + profileDir.toUri(),
+                "--convert-to", "pdf",
+                "--outdir", outDir.toAbsolutePath().toString()
+        ));
+        for (Path input : inputs) cmd.add(input.toAbsolutePath().toString());
+
+        // saída vai para arquivo: ler o pipe bloquearia antes do waitFor com timeout
+        Path logFile = Files.createTempFile(profilesDir, "soffice-", ".log");
+        ProcessBuilder pb = new ProcessBuilder(cmd);
+        pb.redirectErrorStream(true);
+        pb.redirectOutput(logFile.toFile());
+
+        try {
+            long start = System.nanoTime();
+            Process p = pb.start();
+            spawnTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSize.record(inputs.size());
+
+            boolean exited;
+            try {
+                exited = p.waitFor(processTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                kill(p);
+                throw e;
+            }
+
+            if (!exited) {
+                kill(p);
+                recordExit("timeout", start);
+                throw new SofficeTimeoutException("LibreOffice não terminou em " + processTimeoutMs
+                        + "ms (" + inputs.size() + " documento(s)); processo encerrado. Log:\n" + readLog(logFile));
+            }
+
+            int exitCode = p.exitValue();
+            recordExit(String.valueOf(exitCode), start);
+
+            String log = readLog(logFile);
+            logSize.record(log.length());
+            return new SofficeRun(exitCode, log);
+        } finally {
+            Files.deleteIfExists(logFile);
+        }
+    }
+
+    // o launcher soffice costuma deixar um soffice.bin filho: mata a árvore toda
+    private static void kill(Process p) {
+        p.descendants().forEach(ProcessHandle::destroyForcibly);
+        p.destroyForcibly();
+        try {
+            p.waitFor(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void recordExit(String exit, long start) {
+        Timer.builder("soffice.process")
+                .description("Vida do processo soffice (spawn até exit)")
+                .tag("exit", exit)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        Counter.builder("soffice.exit").tag("code", exit).register(registry).increment();
+    }
+
+    private static String readLog(Path logFile) {
+        try {
+            return new String(Files.readAllBytes(logFile), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static String baseName(Path docx) {
+        return docx.getFileName().toString().replaceAll("\\.docx$", "");
+    }
+
+    private static void linkOrCopy(Path src, Path dst) throws IOException {
+        try {
+            Files.createLink(dst, src.toAbsolutePath());
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(src, dst, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path dir) {
+        if (dir == null || !Files.exists(dir)) return;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException ignore) {
+                }
+            });
+        } catch (IOException ignore) {
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (dispatcher != null) dispatcher.interrupt();
+
+        PendingConversion c;
+        while ((c = pending.poll()) != null) {
+            c.result().completeExceptionally(new IllegalStateException("Conversor LibreOffice encerrado."));
+        }
+    }
+
+    private record PendingConversion(Path docx, Path outDir, CompletableFuture<Path> result) {}
+
+    private record SofficeRun(int exitCode, String log) {}
+
+    private static final class SofficeTimeoutException extends RuntimeException {
+        SofficeTimeoutException(String message) {
+            super(message);
         }
     }
 }
@@ -0,0 +1,21 @@
+package com.poc.pocpdf.adapters.out.pdf;
+
+public record LibreOfficePoolSettings(
+        String officeHome,
+        int poolSize,
+        int basePort,
+        int maxQueue,
+        int maxTasksPerProcess,
+        long taskQueueTimeoutMs,
+        long taskExecutionTimeoutMs,
+        long processTimeoutMs,
+        String profilesDir
+) {
+    public LibreOfficePoolSettings {
+        if (poolSize < 1) throw new IllegalArgumentException("poolSize deve ser >= 1");
+        if (basePort < 1) throw new IllegalArgumentException("basePort inválida: " + basePort);
+        if (maxQueue < 0) maxQueue = 0;
+        if (maxTasksPerProcess < 1) maxTasksPerProcess = 200;
+        if (profilesDir == null || profilesDir.isBlank()) profilesDir = "out/lo-profiles";
+    }
+}
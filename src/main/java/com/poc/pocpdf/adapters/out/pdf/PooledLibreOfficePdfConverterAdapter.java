@@ -0,0 +1,114 @@
+package com.poc.pocpdf.adapters.out.pdf;
+
+import com.poc.pocpdf.application.exception.QueueFullException;
+import com.poc.pocpdf.application.port.out.PdfConverterPort;
+import org.jodconverter.core.office.OfficeException;
+import org.jodconverter.local.LocalConverter;
+import org.jodconverter.local.office.LocalOfficeManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Semaphore;
+import java.util.stream.IntStream;
+
+/**
+ * Mantém N instâncias do LibreOffice já inicializadas, cada uma escutando em uma porta (UNO)
+ * e com o seu próprio perfil reaproveitado entre conversões.
+ * <p>
+ * O JODConverter cuida do health check das instâncias, do restart após crash e da
+ * reciclagem depois de {@code maxTasksPerProcess} conversões.
+ */
+public class PooledLibreOfficePdfConverterAdapter implements PdfConverterPort, AutoCloseable {
+
+    private final LocalOfficeManager officeManager;
+    private final LocalConverter converter;
+    private final Semaphore checkout;
+
+    public PooledLibreOfficePdfConverterAdapter(LibreOfficePoolSettings settings) {
+        try {
+            Path profiles = Path.of(settings.profilesDir()).toAbsolutePath();
+            Files.createDirectories(profiles);
+
+            int[] ports = IntStream.range(0, settings.poolSize())
+                    .map(i -> settings.basePort() + i)
+                    .toArray();
+
+            LocalOfficeManager.Builder builder = LocalOfficeManager.builder()
+                    .portNumbers(ports)
+                    .workingDir(profiles.toString())
+                    .maxTasksPerProcess(settings.maxTasksPerProcess())
+                    .taskQueueTimeout(settings.taskQueueTimeoutMs())
+                    .taskExecutionTimeout(settings.taskExecutionTimeoutMs())
+                    .processTimeout(settings.processTimeoutMs());
+
+            if (settings.officeHome() != null && !settings.officeHome().isBlank()) {
+                builder.officeHome(settings.officeHome());
+            }
+
+            this.officeManager = builder.build();
+            this.officeManager.start();
+        } catch (Exception e) {
+            throw new IllegalStateException("Falha ao iniciar pool do LibreOffice.", e);
+        }
+
+        this.converter = LocalConverter.make(officeManager);
+        // instâncias + fila de espera; acima disso rejeita em vez de empilhar requests
+        this.checkout = new Semaphore(settings.poolSize() + settings.maxQueue(), true);
+    }
+
+    /**
+     * Deriva o officeHome a partir do caminho do soffice (ex.: /usr/bin/soffice ->
+     * /usr/lib/libreoffice/program/soffice -> /usr/lib/libreoffice).
+     */
+    public static String officeHomeFrom(String sofficePath) {
+        if (sofficePath == null || sofficePath.isBlank()) return null;
+        try {
+            Path real = Path.of(sofficePath).toRealPath();
+            Path program = real.getParent();
+            return (program == null || program.getParent() == null) ? null : program.getParent().toString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Path docxToPdf(Path docx, Path outDir) {
+        if (!checkout.tryAcquire()) {
+            throw new QueueFullException("Fila do pool LibreOffice cheia; tente novamente.");
+        }
+        try {
+            Files.createDirectories(outDir);
+
+            String baseName = docx.getFileName().toString().replaceAll("\\.docx$", "");
+            Path expectedPdf = outDir.resolve(baseName + ".pdf");
+
+            converter.convert(docx.toFile())
+                    .to(expectedPdf.toFile())
+                    .execute();
+
+            if (!Files.exists(expectedPdf)) {
+                throw new RuntimeException("PDF não foi gerado: " + expectedPdf.toAbsolutePath());
+            }
+
+            return expectedPdf;
+        } catch (OfficeException e) {
+            throw new RuntimeException("Falha ao converter DOCX para PDF via pool LibreOffice.", e);
+        } catch (Exception e) {
+            throw new RuntimeException("Falha ao converter DOCX para PDF via LibreOffice.", e);
+        } finally {
+            checkout.release();
+        }
+    }
+
+    public boolean isRunning() {
+        return officeManager.isRunning();
+    }
+
+    @Override
+    public void close() {
+        try {
+            officeManager.stop();
+        } catch (OfficeException ignore) {
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.poc.pocpdf.adapters.out.scratch;
+
+import com.poc.pocpdf.application.port.out.ScratchDir;
+import com.poc.pocpdf.application.port.out.ScratchSpacePort;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/** Sem cota nem limpeza na subida: cria em {@code baseDir} e apaga no close (benchmarks e uso avulso). */
+public class DirectoryScratchSpaceAdapter implements ScratchSpacePort {
+
+    private final Path baseDir;
+
+    public DirectoryScratchSpaceAdapter(Path baseDir) {
+        this.baseDir = baseDir;
+    }
+
+    @Override
+    public ScratchDir allocate(String owner) {
+        Path dir;
+        try {
+            dir = Files.createDirectories(baseDir.resolve(owner + "-" + UUID.randomUUID()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ScratchDir() {
+            @Override
+            public Path path() {
+                return dir;
+            }
+
+            @Override
+            public void markFailed() {
+            }
+
+            @Override
+            public void close() {
+                try (Stream<Path> walk = Files.walk(dir)) {
+                    for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+                } catch (IOException ignore) {
+                }
+            }
+        };
+    }
+}
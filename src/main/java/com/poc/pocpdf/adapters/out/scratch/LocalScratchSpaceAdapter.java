@@ -0,0 +1,271 @@
+package com.poc.pocpdf.adapters.out.scratch;
+
+import com.poc.pocpdf.application.port.out.ScratchDir;
+import com.poc.pocpdf.application.port.out.ScratchSpacePort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Área de rascunho gerenciada (pode ficar num tmpfs, ex.: /dev/shm). Cada processo trabalha em
+ * {@code <root>/i-<uuid>/}, marcado por um FileLock em {@code .owner} enquanto vive; na subida, os
+ * diretórios de instâncias cujo lock está livre (processo morreu) são apagados.
+ * <p>
+ * Diretório de job é apagado no close. Com keepFailed, os de jobs com falha ficam guardados e são
+ * os primeiros a sair (LRU) quando o uso passa da cota.
+ */
+public class LocalScratchSpaceAdapter implements ScratchSpacePort, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalScratchSpaceAdapter.class);
+
+    private static final String INSTANCE_PREFIX = "i-";
+    private static final String OWNER_FILE = ".owner";
+    private static final long USAGE_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Path root;
+    private final Path instanceDir;
+    private final long quotaBytes;
+    private final boolean keepFailed;
+
+    private final FileChannel ownerChannel;
+    private final FileLock ownerLock;
+
+    private final AtomicInteger seq = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+
+    // diretórios guardados (jobs com falha) -> tamanho; ordem de acesso, mais antigo primeiro
+    private final LinkedHashMap<Path, Long> retained = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong usageBytes = new AtomicLong();
+    private volatile long usageRefreshAt = System.nanoTime();
+
+    private final MeterRegistry registry;
+    private final Counter evictions;
+    private final Counter quotaExceeded;
+
+    public LocalScratchSpaceAdapter(Path root, long quotaBytes, boolean keepFailed, MeterRegistry meterRegistry) {
+        this.root = root.toAbsolutePath();
+        this.quotaBytes = Math.max(0, quotaBytes);
+        this.keepFailed = keepFailed;
+        this.registry = meterRegistry;
+        this.instanceDir = this.root.resolve(INSTANCE_PREFIX + UUID.randomUUID());
+
+        try {
+            Files.createDirectories(instanceDir);
+            this.ownerChannel = FileChannel.open(instanceDir.resolve(OWNER_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            this.ownerLock = ownerChannel.lock();
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao preparar área de rascunho em " + this.root, e);
+        }
+
+        this.evictions = Counter.builder("scratch.evictions").register(meterRegistry);
+        this.quotaExceeded = Counter.builder("scratch.quota.exceeded").register(meterRegistry);
+        Gauge.builder("scratch.usage.bytes", this, LocalScratchSpaceAdapter::usageBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("scratch.quota.bytes", () -> this.quotaBytes).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("scratch.active", active, AtomicInteger::get).register(meterRegistry);
+
+        sweepOrphans();
+    }
+
+    @Override
+    public ScratchDir allocate(String owner) {
+        enforceQuota();
+
+        String safe = (owner == null || owner.isBlank()) ? "job" : owner.replaceAll("[^a-zA-Z0-9_-]", "_");
+        Path dir = instanceDir.resolve(safe + "-" + seq.incrementAndGet());
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        active.incrementAndGet();
+        return new JobDir(dir);
+    }
+
+    public long usageBytes() {
+        long now = System.nanoTime();
+        if (now - usageRefreshAt >= 0) {
+            usageBytes.set(sizeOf(instanceDir));
+            usageRefreshAt = now + USAGE_REFRESH_NANOS;
+        }
+        return usageBytes.get();
+    }
+
+    private void enforceQuota() {
+        if (quotaBytes == 0 || usageBytes() <= quotaBytes) return;
+
+        while (true) {
+            Path victim;
+            long size;
+            synchronized (retained) {
+                Iterator<Map.Entry<Path, Long>> it = retained.entrySet().iterator();
+                if (!it.hasNext()) break;
+                Map.Entry<Path, Long> eldest = it.next();
+                victim = eldest.getKey();
+                size = eldest.getValue();
+                it.remove();
+            }
+            delete(victim, "evicted");
+            evictions.increment();
+            if (usageBytes.addAndGet(-size) <= quotaBytes) return;
+        }
+
+        // só sobraram jobs em andamento: não bloqueia, mas fica registrado
+        usageRefreshAt = System.nanoTime();
+        if (usageBytes() > quotaBytes) {
+            quotaExceeded.increment();
+            log.warn("Área de rascunho acima da cota ({} > {} bytes) só com jobs ativos", usageBytes.get(), quotaBytes);
+        }
+    }
+
+    /** Diretórios de instâncias mortas (lock livre). */
+    private void sweepOrphans() {
+        List<Path> instances;
+        try (Stream<Path> s = Files.list(root)) {
+            instances = s.filter(p -> p.getFileName().toString().startsWith(INSTANCE_PREFIX))
+                    .filter(p -> !p.equals(instanceDir))
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Falha ao listar área de rascunho {}", root, e);
+            return;
+        }
+
+        for (Path dir : instances) {
+            if (isAlive(dir)) continue;
+            long bytes = sizeOf(dir);
+            delete(dir, "orphan");
+            log.info("Área de rascunho órfã removida: {} ({} bytes)", dir, bytes);
+        }
+    }
+
+    private static boolean isAlive(Path instance) {
+        Path owner = instance.resolve(OWNER_FILE);
+        // sem .owner: instância subindo agora (diretório recém-criado) ou sobra de queda na subida
+        if (!Files.exists(owner)) return isRecent(instance);
+        try (FileChannel ch = FileChannel.open(owner, StandardOpenOption.WRITE);
+             FileLock lock = ch.tryLock()) {
+            return lock == null;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException | OverlappingFileLockException e) {
+            // na dúvida (ou outra instância neste mesmo processo), não apaga
+            return true;
+        }
+    }
+
+    private static boolean isRecent(Path dir) {
+        try {
+            return System.currentTimeMillis() - Files.getLastModifiedTime(dir).toMillis() < 60_000;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void delete(Path dir, String reason) {
+        long start = System.nanoTime();
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path p : walk.sorted(Comparator.reverseOrder()).toList()) {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException ignore) {
+                }
+            }
+        } catch (NoSuchFileException ignore) {
+        } catch (IOException e) {
+            log.warn("Falha ao limpar {}", dir, e);
+        } finally {
+            Timer.builder("scratch.cleanup")
+                    .tag("reason", reason)
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static long sizeOf(Path dir) {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            return walk.filter(Files::isRegularFile).mapToLong(p -> {
+                try {
+                    return Files.size(p);
+                } catch (IOException e) {
+                    return 0L;
+                }
+            }).sum();
+        } catch (IOException | UncheckedIOException e) {
+            // arquivos sumindo durante a varredura
+            return 0L;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            ownerLock.release();
+            ownerChannel.close();
+        } catch (IOException ignore) {
+        }
+        delete(instanceDir, "shutdown");
+    }
+
+    private final class JobDir implements ScratchDir {
+
+        private final Path dir;
+        private volatile boolean failed;
+        private volatile boolean closed;
+
+        JobDir(Path dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        public Path path() {
+            return dir;
+        }
+
+        @Override
+        public void markFailed() {
+            failed = true;
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            active.decrementAndGet();
+
+            if (failed && keepFailed) {
+                long size = sizeOf(dir);
+                synchronized (retained) {
+                    retained.put(dir, size);
+                }
+                return;
+            }
+            delete(dir, failed ? "failed" : "completed");
+        }
+    }
+}
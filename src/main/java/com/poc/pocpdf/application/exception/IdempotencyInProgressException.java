@@ -0,0 +1,16 @@
+package com.poc.pocpdf.application.exception;
+
+/** O pedido original com essa Idempotency-Key ainda está rodando (em outro nó): repetir depois (409). */
+public class IdempotencyInProgressException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public IdempotencyInProgressException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,9 @@
+package com.poc.pocpdf.application.exception;
+
+/** Idempotency-Key reaproveitada com outro conteúdo (template/cláusulas): o pedido não é repetição (422). */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.poc.pocpdf.application.exception;
+
+/** Fila de entrada cheia: o pedido foi recusado e pode ser repetido depois (429). */
+public class QueueFullException extends RuntimeException {
+
+    public QueueFullException(String message) {
+        super(message);
+    }
+
+    public QueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
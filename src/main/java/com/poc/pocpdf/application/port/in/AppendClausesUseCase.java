@@ -0,0 +1,16 @@
+package com.poc.pocpdf.application.port.in;
+
+import com.poc.pocpdf.domain.event.TemplateVersionCreated;
+import com.poc.pocpdf.domain.model.Clause;
+import com.poc.pocpdf.domain.model.ContractName;
+
+import java.util.List;
+
+public interface AppendClausesUseCase {
+
+    /**
+     * Cria vN+1 a partir da última versão vN com as cláusulas novas no fim (numeração continua),
+     * sem receber o template e sem regravar o template base.
+     */
+    TemplateVersionCreated appendClauses(ContractName contractName, List<Clause> clauses);
+}
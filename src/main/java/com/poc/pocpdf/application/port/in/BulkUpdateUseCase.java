@@ -0,0 +1,17 @@
+package com.poc.pocpdf.application.port.in;
+
+import com.poc.pocpdf.domain.command.BulkTemplateUpdate;
+import com.poc.pocpdf.domain.event.BulkItemProcessed;
+import com.poc.pocpdf.domain.event.BulkUpdateCompleted;
+
+import java.util.function.Consumer;
+
+public interface BulkUpdateUseCase {
+
+    /**
+     * Processa todos os contratos e só retorna no fim. onItem é chamado na thread do chamador, um
+     * contrato por vez, na ordem em que terminam; se lançar exceção, os que ainda não começaram são
+     * cancelados.
+     */
+    BulkUpdateCompleted updateAll(BulkTemplateUpdate command, Consumer<BulkItemProcessed> onItem);
+}
@@ -0,0 +1,26 @@
+package com.poc.pocpdf.application.port.in;
+
+import com.poc.pocpdf.domain.event.TemplateVersionCreated;
+import com.poc.pocpdf.domain.model.Clause;
+import com.poc.pocpdf.domain.model.ContractName;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public interface IdempotentUpdateUseCase {
+
+    /**
+     * Igual ao {@link UpdateTemplateUseCase}, mas a mesma chave (por contrato) devolve a versão já
+     * criada; se o original ainda está rodando, espera por ele em vez de gerar outra versão. Chave
+     * vazia = sem deduplicação. Lança IdempotencyKeyMismatchException se a chave foi usada com outro conteúdo.
+     */
+    TemplateVersionCreated updateTemplate(String idempotencyKey,
+                                          ContractName contractName,
+                                          Path templateDocx,
+                                          List<Clause> extraClauses);
+
+    /** Igual ao {@link AppendClausesUseCase}, com a mesma deduplicação por chave. */
+    TemplateVersionCreated appendClauses(String idempotencyKey,
+                                         ContractName contractName,
+                                         List<Clause> clauses);
+}
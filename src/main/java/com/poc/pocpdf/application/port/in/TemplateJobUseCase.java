@@ -0,0 +1,31 @@
+package com.poc.pocpdf.application.port.in;
+
+import com.poc.pocpdf.application.port.out.ScratchDir;
+import com.poc.pocpdf.domain.model.Clause;
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.TemplateJob;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+public interface TemplateJobUseCase {
+
+    /**
+     * Enfileira a atualização do template. Lança
+     * {@link com.poc.pocpdf.application.exception.QueueFullException} quando a fila de conversão está cheia.
+     * <p>
+     * O job passa a ser dono de {@code upload} (diretório de rascunho com o templateDocx) e o fecha
+     * ao terminar; se o submit for rejeitado, ele continua com o chamador.
+     * <p>
+     * Com idempotencyKey o job passa pelo {@link IdempotentUpdateUseCase}: a repetição gera outro job,
+     * que termina com a versão já criada pelo original (ou falha com o mesmo erro de chave reutilizada).
+     */
+    TemplateJob submit(String idempotencyKey,
+                       ContractName contractName,
+                       Path templateDocx,
+                       ScratchDir upload,
+                       List<Clause> extraClauses);
+
+    Optional<TemplateJob> find(String jobId);
+}
@@ -4,10 +4,30 @@ import com.poc.pocpdf.domain.model.Clause;
 import com.poc.pocpdf.domain.model.ContractName;
 import com.poc.pocpdf.domain.event.TemplateVersionCreated;
 
+import java.nio.file.Path;
 import java.util.List;
 
 public interface UpdateTemplateUseCase {
     TemplateVersionCreated updateTemplate(ContractName contractName,
                                           byte[] templateDocx,
                                           List<Clause> extraClauses);
+
+    /**
+     * Mesmo fluxo, lendo o template de um arquivo já em disco (upload spoolado).
+     * O arquivo continua sendo do chamador.
+     */
+    default TemplateVersionCreated updateTemplate(ContractName contractName,
+                                                  Path templateDocx,
+                                                  List<Clause> extraClauses) {
+        return updateTemplate(contractName, templateDocx, null, extraClauses);
+    }
+
+    /**
+     * @param templateHash SHA-256 do arquivo quando o chamador já calculou (não relê o template);
+     *                     null = calcula aqui
+     */
+    TemplateVersionCreated updateTemplate(ContractName contractName,
+                                          Path templateDocx,
+                                          String templateHash,
+                                          List<Clause> extraClauses);
 }
@@ -0,0 +1,14 @@
+package com.poc.pocpdf.application.port.in;
+
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.VersionPage;
+
+public interface VersionHistoryUseCase {
+
+    /**
+     * Versões publicadas, da mais nova para a mais antiga.
+     *
+     * @param cursor nextCursor da página anterior (null = primeira página)
+     */
+    VersionPage listVersions(ContractName contractName, String cursor, int limit);
+}
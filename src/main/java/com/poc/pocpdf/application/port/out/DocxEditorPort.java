@@ -4,5 +4,14 @@ import java.nio.file.Path;
 import java.util.List;
 
 public interface DocxEditorPort {
-    Path applyExtraClauses(Path templateDocx, Path outputDocx, List<String> extraClauses);
+
+    default Path applyExtraClauses(Path templateDocx, Path outputDocx, List<String> extraClauses) {
+        return applyExtraClauses(templateDocx, null, outputDocx, extraClauses);
+    }
+
+    /**
+     * @param templateHash SHA-256 (hex) do conteúdo de templateDocx, calculado uma vez por quem chama
+     *                     (chave de cache/índice); null quando não houver
+     */
+    Path applyExtraClauses(Path templateDocx, String templateHash, Path outputDocx, List<String> extraClauses);
 }
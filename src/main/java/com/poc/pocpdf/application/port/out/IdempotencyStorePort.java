@@ -0,0 +1,16 @@
+package com.poc.pocpdf.application.port.out;
+
+import java.util.Optional;
+
+/** Chaves no formato {@code <chave-do-contrato>:<Idempotency-Key>}. */
+public interface IdempotencyStorePort {
+
+    /**
+     * Registra {@code request} para a chave se ela ainda não existe (ou expirou) e devolve vazio;
+     * senão devolve a execução já registrada, em andamento ou concluída.
+     */
+    Optional<IdempotentRequest> putIfAbsent(String key, IdempotentRequest request);
+
+    /** Esquece a chave só se ela ainda aponta para {@code request} (execução que falhou). */
+    void remove(String key, IdempotentRequest request);
+}
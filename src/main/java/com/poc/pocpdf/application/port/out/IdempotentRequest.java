@@ -0,0 +1,18 @@
+package com.poc.pocpdf.application.port.out;
+
+import com.poc.pocpdf.domain.event.TemplateVersionCreated;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Execução registrada para uma Idempotency-Key: o fingerprint do pedido original e o resultado
+ * (em andamento enquanto o future não completa).
+ */
+public record IdempotentRequest(
+        String fingerprint,
+        CompletableFuture<TemplateVersionCreated> result
+) {
+    public static IdempotentRequest started(String fingerprint) {
+        return new IdempotentRequest(fingerprint, new CompletableFuture<>());
+    }
+}
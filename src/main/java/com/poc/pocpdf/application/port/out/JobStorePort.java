@@ -0,0 +1,14 @@
+package com.poc.pocpdf.application.port.out;
+
+import com.poc.pocpdf.domain.model.TemplateJob;
+
+import java.util.Optional;
+
+public interface JobStorePort {
+
+    void save(TemplateJob job);
+
+    Optional<TemplateJob> find(String jobId);
+
+    void delete(String jobId);
+}
@@ -0,0 +1,28 @@
+package com.poc.pocpdf.application.port.out;
+
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.Version;
+
+import java.nio.file.Path;
+
+/** Cópia local da última versão (docx) de cada contrato, para montar vN+1 sem baixar vN. */
+public interface LatestDocxCachePort {
+
+    /** Copia para {@code target} se a cópia local for exatamente {@code version}. */
+    boolean copyTo(ContractName contractName, Version version, Path target);
+
+    void put(ContractName contractName, Version version, Path docx);
+
+    static LatestDocxCachePort none() {
+        return new LatestDocxCachePort() {
+            @Override
+            public boolean copyTo(ContractName contractName, Version version, Path target) {
+                return false;
+            }
+
+            @Override
+            public void put(ContractName contractName, Version version, Path docx) {
+            }
+        };
+    }
+}
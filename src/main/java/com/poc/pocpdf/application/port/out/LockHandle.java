@@ -0,0 +1,33 @@
+package com.poc.pocpdf.application.port.out;
+
+/**
+ * Lock em posse da operação. Pode ser perdido no meio do caminho (ex.: lease não renovado a tempo);
+ * quem grava algo protegido pelo lock deve checar antes.
+ */
+public interface LockHandle {
+
+    String key();
+
+    boolean isValid();
+
+    /** Para fluxos que rodam sem lock (ex.: versionamento otimista): sempre válido. */
+    static LockHandle unlocked(String key) {
+        return new LockHandle() {
+            @Override
+            public String key() {
+                return key;
+            }
+
+            @Override
+            public boolean isValid() {
+                return true;
+            }
+        };
+    }
+
+    default void ensureValid() {
+        if (!isValid()) {
+            throw new IllegalStateException("Lock perdido antes de concluir a operação: " + key());
+        }
+    }
+}
@@ -4,5 +4,11 @@ import java.time.Duration;
 import java.util.concurrent.Callable;
 
 public interface LockPort {
-    <T> T withLock(String lockKey, Duration ttl, Callable<T> action);
+
+    /** O lock é mantido (renovado) enquanto a ação roda; a ação recebe o handle para checar se ainda o tem. */
+    <T> T withLock(String lockKey, Duration ttl, LockedAction<T> action);
+
+    default <T> T withLock(String lockKey, Duration ttl, Callable<T> action) {
+        return withLock(lockKey, ttl, lock -> action.call());
+    }
 }
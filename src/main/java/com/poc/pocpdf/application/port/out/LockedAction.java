@@ -0,0 +1,6 @@
+package com.poc.pocpdf.application.port.out;
+
+@FunctionalInterface
+public interface LockedAction<T> {
+    T run(LockHandle lock) throws Exception;
+}
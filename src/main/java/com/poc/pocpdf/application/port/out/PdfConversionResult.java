@@ -0,0 +1,21 @@
+package com.poc.pocpdf.application.port.out;
+
+import java.nio.file.Path;
+
+public record PdfConversionResult(
+        Path docx,
+        Path pdf,
+        RuntimeException error
+) {
+    public static PdfConversionResult ok(Path docx, Path pdf) {
+        return new PdfConversionResult(docx, pdf, null);
+    }
+
+    public static PdfConversionResult failed(Path docx, RuntimeException error) {
+        return new PdfConversionResult(docx, null, error);
+    }
+
+    public boolean succeeded() {
+        return error == null && pdf != null;
+    }
+}
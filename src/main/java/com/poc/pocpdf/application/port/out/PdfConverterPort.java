@@ -1,7 +1,41 @@
 package com.poc.pocpdf.application.port.out;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public interface PdfConverterPort {
     Path docxToPdf(Path docx, Path outDir);
+
+    /**
+     * Converte vários DOCX para o mesmo diretório. Cada documento tem o seu próprio resultado:
+     * uma falha não derruba os demais. A ordem do retorno é a mesma da entrada.
+     * <p>
+     * O PDF sai como {@code <nome-sem-.docx>.pdf} em outDir: dois DOCX com o mesmo nome no lote
+     * dão IllegalArgumentException antes de converter qualquer um.
+     */
+    default List<PdfConversionResult> docxToPdfBatch(List<Path> docxs, Path outDir) {
+        requireDistinctNames(docxs);
+        List<PdfConversionResult> results = new ArrayList<>(docxs.size());
+        for (Path docx : docxs) {
+            try {
+                results.add(PdfConversionResult.ok(docx, docxToPdf(docx, outDir)));
+            } catch (RuntimeException e) {
+                results.add(PdfConversionResult.failed(docx, e));
+            }
+        }
+        return results;
+    }
+
+    static void requireDistinctNames(List<Path> docxs) {
+        Set<String> names = new HashSet<>();
+        for (Path docx : docxs) {
+            String pdf = docx.getFileName().toString().replaceAll("\\.docx$", "") + ".pdf";
+            if (!names.add(pdf)) {
+                throw new IllegalArgumentException("Lote com DOCX de mesmo nome (o PDF seria sobrescrito): " + pdf);
+            }
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package com.poc.pocpdf.application.port.out;
+
+import java.nio.file.Path;
+
+public interface ScratchDir extends AutoCloseable {
+
+    Path path();
+
+    /** O job falhou: dependendo da configuração o diretório fica guardado para inspeção (conta na cota). */
+    void markFailed();
+
+    @Override
+    void close();
+}
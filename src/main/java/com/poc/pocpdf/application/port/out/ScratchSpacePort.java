@@ -0,0 +1,8 @@
+package com.poc.pocpdf.application.port.out;
+
+/** Diretórios de trabalho temporários, um por job. */
+public interface ScratchSpacePort {
+
+    /** Diretório exclusivo e vazio; apagado no {@link ScratchDir#close()}. */
+    ScratchDir allocate(String owner);
+}
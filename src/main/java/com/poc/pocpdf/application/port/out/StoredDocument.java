@@ -0,0 +1,24 @@
+package com.poc.pocpdf.application.port.out;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Documento guardado no storage, já com os metadados (sem o conteúdo). O conteúdo só é lido em
+ * {@link #copyTo}, direto para o stream de destino.
+ */
+public interface StoredDocument {
+
+    String etag();
+
+    long size();
+
+    /** Metadados gravados junto com o documento (chaves em minúsculas). */
+    default Map<String, String> metadata() {
+        return Map.of();
+    }
+
+    /** Copia {@code count} bytes a partir de {@code offset}, sem bufferizar o documento inteiro. */
+    void copyTo(OutputStream out, long offset, long count) throws IOException;
+}
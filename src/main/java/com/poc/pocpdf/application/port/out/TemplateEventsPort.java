@@ -0,0 +1,14 @@
+package com.poc.pocpdf.application.port.out;
+
+import com.poc.pocpdf.domain.event.TemplateVersionCreated;
+
+/** Avisos do pipeline para quem guarda estado derivado das versões (ex.: cache do histórico). */
+public interface TemplateEventsPort {
+
+    void versionCreated(TemplateVersionCreated event);
+
+    static TemplateEventsPort none() {
+        return event -> {
+        };
+    }
+}
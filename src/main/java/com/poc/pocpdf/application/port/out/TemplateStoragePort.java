@@ -2,11 +2,24 @@ package com.poc.pocpdf.application.port.out;
 
 import com.poc.pocpdf.domain.model.ContractName;
 
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
 public interface TemplateStoragePort {
 
     boolean exists(ContractName contractName);
 
     void save(ContractName contractName, byte[] docxBytes);
 
+    /** Sobe o template base direto do disco, sem carregar o arquivo no heap. */
+    void save(ContractName contractName, Path docxFile);
+
     byte[] load(ContractName contractName);
+
+    /** Última versão (docx) para download em streaming; vazio se o contrato não tem versões. */
+    Optional<StoredDocument> findLatest(ContractName contractName);
+
+    /** Contratos com versões cuja chave começa com {@code keyPrefix} (vazio = todos), em ordem de chave. */
+    List<ContractName> findContracts(String keyPrefix);
 }
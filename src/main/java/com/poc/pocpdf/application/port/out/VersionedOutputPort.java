@@ -2,12 +2,37 @@ package com.poc.pocpdf.application.port.out;
 
 import com.poc.pocpdf.domain.model.ContractName;
 import com.poc.pocpdf.domain.model.Version;
+import com.poc.pocpdf.domain.model.VersionInfo;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public interface VersionedOutputPort {
 
     Version nextVersion(ContractName contractName);
 
-    void save(ContractName contractName, Version version, String fileName, Path file);
+    default void save(ContractName contractName, Version version, String fileName, Path file) {
+        save(contractName, version, fileName, file, Map.of());
+    }
+
+    /** Grava com metadados (ex.: fingerprint da entrada), devolvidos em {@link StoredDocument#metadata()}. */
+    void save(ContractName contractName, Version version, String fileName, Path file, Map<String, String> metadata);
+
+    void delete(ContractName contractName, Version version, String fileName);
+
+    Optional<StoredDocument> find(ContractName contractName, Version version, String fileName);
+
+    /** Marca a versão como a última completa (docx + pdf gravados). */
+    void publish(ContractName contractName, Version version);
+
+    /** Última versão publicada; vazio se o contrato não tem versões. */
+    Optional<Version> latest(ContractName contractName);
+
+    /**
+     * Versões publicadas (até {@link #latest}) com docx e pdf gravados, numa listagem só (sem um HEAD
+     * por arquivo); sem ordem definida.
+     */
+    List<VersionInfo> listVersions(ContractName contractName);
 }
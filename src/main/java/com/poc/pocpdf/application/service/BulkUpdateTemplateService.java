@@ -0,0 +1,146 @@
+package com.poc.pocpdf.application.service;
+
+import com.poc.pocpdf.application.port.in.AppendClausesUseCase;
+import com.poc.pocpdf.application.port.in.BulkUpdateUseCase;
+import com.poc.pocpdf.application.port.out.TemplateStoragePort;
+import com.poc.pocpdf.domain.command.BulkTemplateUpdate;
+import com.poc.pocpdf.domain.event.BulkItemProcessed;
+import com.poc.pocpdf.domain.event.BulkUpdateCompleted;
+import com.poc.pocpdf.domain.event.TemplateVersionCreated;
+import com.poc.pocpdf.domain.model.ContractName;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Aplica as mesmas cláusulas à última versão de vários contratos. Cada contrato é um
+ * appendClauses (lock por contrato, nova versão, PDF) rodando no pool limitado do lote;
+ * o paralelismo vem do pool, não de quem chama.
+ */
+public class BulkUpdateTemplateService implements BulkUpdateUseCase, AutoCloseable {
+
+    private final TemplateStoragePort templateStorage;
+    private final AppendClausesUseCase appendClauses;
+    private final ExecutorService executor;
+    private final int maxContracts;
+
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Timer duration;
+
+    public BulkUpdateTemplateService(TemplateStoragePort templateStorage,
+                                     AppendClausesUseCase appendClauses,
+                                     ExecutorService executor,
+                                     int maxContracts,
+                                     MeterRegistry meterRegistry) {
+        this.templateStorage = templateStorage;
+        this.appendClauses = appendClauses;
+        this.executor = executor;
+        this.maxContracts = Math.max(1, maxContracts);
+        this.succeeded = Counter.builder("template.bulk.items").tag("outcome", "success").register(meterRegistry);
+        this.failed = Counter.builder("template.bulk.items").tag("outcome", "error").register(meterRegistry);
+        this.duration = Timer.builder("template.bulk.duration").register(meterRegistry);
+    }
+
+    @Override
+    public BulkUpdateCompleted updateAll(BulkTemplateUpdate command, Consumer<BulkItemProcessed> onItem) {
+        long start = System.nanoTime();
+        List<ContractName> contracts = resolve(command);
+
+        CompletionService<BulkItemProcessed> completion = new ExecutorCompletionService<>(executor);
+        List<Future<BulkItemProcessed>> futures = new ArrayList<>(contracts.size());
+        for (ContractName cn : contracts) {
+            futures.add(completion.submit(() -> process(cn, command)));
+        }
+
+        int ok = 0;
+        int errors = 0;
+        try {
+            for (int i = 0; i < contracts.size(); i++) {
+                BulkItemProcessed item = take(completion);
+                if (item.succeeded()) ok++;
+                else errors++;
+                onItem.accept(item);
+            }
+        } catch (RuntimeException e) {
+            // cliente desconectou (ou o callback falhou): o que não começou não precisa rodar
+            futures.forEach(f -> f.cancel(false));
+            throw e;
+        } finally {
+            duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        return new BulkUpdateCompleted(contracts.size(), ok, errors,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /** Lista explícita primeiro, depois o prefixo; duplicados (mesma chave) contam uma vez. */
+    private List<ContractName> resolve(BulkTemplateUpdate command) {
+        Map<String, ContractName> byKey = new LinkedHashMap<>();
+        command.contractNames().forEach(cn -> byKey.putIfAbsent(cn.asKey(), cn));
+        if (command.keyPrefix() != null) {
+            templateStorage.findContracts(command.keyPrefix()).forEach(cn -> byKey.putIfAbsent(cn.asKey(), cn));
+        }
+
+        if (byKey.size() > maxContracts) {
+            throw new IllegalArgumentException("Lote com " + byKey.size()
+                    + " contratos excede o limite de " + maxContracts + ".");
+        }
+        return List.copyOf(byKey.values());
+    }
+
+    private BulkItemProcessed process(ContractName cn, BulkTemplateUpdate command) {
+        long start = System.nanoTime();
+        try {
+            TemplateVersionCreated created = appendClauses.appendClauses(cn, command.extraClauses());
+            succeeded.increment();
+            return new BulkItemProcessed(cn, created, null, elapsedMs(start));
+        } catch (Exception e) {
+            failed.increment();
+            return new BulkItemProcessed(cn, null, rootMessage(e), elapsedMs(start));
+        }
+    }
+
+    private static BulkItemProcessed take(CompletionService<BulkItemProcessed> completion) {
+        try {
+            return completion.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrompido aguardando atualização em lote.", e);
+        } catch (ExecutionException e) {
+            // process() não lança; só chega aqui por erro inesperado do pool
+            throw new RuntimeException("Falha na atualização em lote.", e.getCause());
+        }
+    }
+
+    private static long elapsedMs(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private static String rootMessage(Throwable e) {
+        String msg = e.getMessage();
+        Throwable c = e.getCause();
+        while (c != null && c.getCause() != null) c = c.getCause();
+        if (c != null && c.getMessage() != null && !c.getMessage().isBlank()) {
+            msg = msg + " | rootCause=" + c.getClass().getSimpleName() + ": " + c.getMessage();
+        }
+        return msg;
+    }
+}
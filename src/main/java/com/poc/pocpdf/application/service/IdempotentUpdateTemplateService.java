@@ -0,0 +1,142 @@
+package com.poc.pocpdf.application.service;
+
+import com.poc.pocpdf.application.exception.IdempotencyKeyMismatchException;
+import com.poc.pocpdf.application.port.in.AppendClausesUseCase;
+import com.poc.pocpdf.application.port.in.IdempotentUpdateUseCase;
+import com.poc.pocpdf.application.port.in.UpdateTemplateUseCase;
+import com.poc.pocpdf.application.port.out.IdempotencyStorePort;
+import com.poc.pocpdf.application.port.out.IdempotentRequest;
+import com.poc.pocpdf.domain.event.TemplateVersionCreated;
+import com.poc.pocpdf.domain.model.Clause;
+import com.poc.pocpdf.domain.model.ContractName;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight por Idempotency-Key: o primeiro pedido executa; repetições concorrentes esperam o
+ * mesmo future (não vão para a fila do lock) e as posteriores recebem o resultado guardado. Falha
+ * não é guardada: a chave é liberada para o cliente tentar de novo.
+ * <p>
+ * No append o fingerprint é só das cláusulas: a vN de partida muda depois da primeira execução, e a
+ * repetição tem que cair na versão já criada em vez de virar conflito.
+ */
+public class IdempotentUpdateTemplateService implements IdempotentUpdateUseCase {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final String APPEND = "append";
+
+    private final UpdateTemplateUseCase updateTemplate;
+    private final AppendClausesUseCase appendClauses;
+    private final IdempotencyStorePort store;
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter joined;
+    private final Counter conflict;
+
+    public IdempotentUpdateTemplateService(UpdateTemplateUseCase updateTemplate,
+                                           AppendClausesUseCase appendClauses,
+                                           IdempotencyStorePort store,
+                                           MeterRegistry meterRegistry) {
+        this.updateTemplate = updateTemplate;
+        this.appendClauses = appendClauses;
+        this.store = store;
+        this.executed = counter(meterRegistry, "executed");
+        this.replayed = counter(meterRegistry, "replayed");
+        this.joined = counter(meterRegistry, "joined");
+        this.conflict = counter(meterRegistry, "conflict");
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+        return Counter.builder("template.idempotency").tag("outcome", outcome).register(registry);
+    }
+
+    @Override
+    public TemplateVersionCreated updateTemplate(String idempotencyKey,
+                                                 ContractName contractName,
+                                                 Path templateDocx,
+                                                 List<Clause> extraClauses) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return updateTemplate.updateTemplate(contractName, templateDocx, extraClauses);
+        }
+        checkKey(idempotencyKey);
+        // o hash do arquivo vai junto para o pipeline não ler o upload de novo
+        String templateHash = TemplateFingerprint.file(templateDocx);
+        String fingerprint = TemplateFingerprint.of(templateHash, texts(extraClauses));
+        return run(idempotencyKey, contractName, fingerprint,
+                () -> updateTemplate.updateTemplate(contractName, templateDocx, templateHash, extraClauses));
+    }
+
+    @Override
+    public TemplateVersionCreated appendClauses(String idempotencyKey,
+                                                ContractName contractName,
+                                                List<Clause> clauses) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return appendClauses.appendClauses(contractName, clauses);
+        }
+        checkKey(idempotencyKey);
+        String fingerprint = TemplateFingerprint.of(APPEND, texts(clauses));
+        return run(idempotencyKey, contractName, fingerprint,
+                () -> appendClauses.appendClauses(contractName, clauses));
+    }
+
+    private static void checkKey(String idempotencyKey) {
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key maior que " + MAX_KEY_LENGTH + " caracteres.");
+        }
+    }
+
+    private static List<String> texts(List<Clause> clauses) {
+        return clauses == null ? List.of() : clauses.stream().map(Clause::text).toList();
+    }
+
+    private TemplateVersionCreated run(String idempotencyKey,
+                                       ContractName contractName,
+                                       String fingerprint,
+                                       Supplier<TemplateVersionCreated> action) {
+        // mesma chave em contratos diferentes são pedidos diferentes
+        String key = contractName.asKey() + ":" + idempotencyKey.trim();
+        IdempotentRequest mine = IdempotentRequest.started(fingerprint);
+
+        Optional<IdempotentRequest> existing = store.putIfAbsent(key, mine);
+        if (existing.isPresent()) {
+            IdempotentRequest original = existing.get();
+            if (!original.fingerprint().equals(mine.fingerprint())) {
+                conflict.increment();
+                throw new IdempotencyKeyMismatchException(
+                        "Idempotency-Key já usada com outro template/cláusulas para: " + contractName.value());
+            }
+            (original.result().isDone() ? replayed : joined).increment();
+            return await(original.result());
+        }
+
+        executed.increment();
+        try {
+            TemplateVersionCreated created = action.get();
+            mine.result().complete(created);
+            return created;
+        } catch (RuntimeException | Error e) {
+            store.remove(key, mine);
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static TemplateVersionCreated await(CompletableFuture<TemplateVersionCreated> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            // quem esperou recebe o mesmo erro do pedido original
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.poc.pocpdf.application.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Mede cada etapa do pipeline (podem rodar em threads diferentes) e publica no Micrometer
+ * como {@code template.update.stage{stage=...}}.
+ */
+class StageTimings {
+
+    static final String STAGE_TIMER = "template.update.stage";
+
+    private final MeterRegistry registry;
+    private final Map<String, Long> nanosByStage = new ConcurrentHashMap<>();
+
+    StageTimings(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    <T> T time(String stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return work.get();
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            nanosByStage.put(stage, elapsed);
+            Timer.builder(STAGE_TIMER)
+                    .tag("stage", stage)
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    void run(String stage, Runnable work) {
+        time(stage, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    String summary() {
+        StringJoiner sj = new StringJoiner(", ");
+        nanosByStage.forEach((stage, nanos) -> sj.add(stage + "=" + TimeUnit.NANOSECONDS.toMillis(nanos) + "ms"));
+        return sj.toString();
+    }
+}
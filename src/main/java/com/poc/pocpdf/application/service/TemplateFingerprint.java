@@ -0,0 +1,62 @@
+package com.poc.pocpdf.application.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * SHA-256 do DOCX de entrada + cláusulas normalizadas (trim, sem vazias), na ordem. Identifica o
+ * pedido (Idempotency-Key) e vai como metadado em cada versão (skip de conteúdo igual).
+ * <p>
+ * O hash do arquivo sai separado ({@link #file(Path)}) para o pipeline ler o template uma vez só e
+ * repassar o mesmo hash ao editor (cache do DOCX editado e índice do POI).
+ */
+final class TemplateFingerprint {
+
+    private TemplateFingerprint() {
+    }
+
+    static final String METADATA_KEY = "fingerprint";
+
+    static String of(String templateHash, List<String> clauses) {
+        MessageDigest digest = sha256();
+        digest.update(templateHash.getBytes(StandardCharsets.US_ASCII));
+
+        if (clauses != null) {
+            for (String c : clauses) {
+                if (c == null || c.isBlank()) continue;
+                digest.update((byte) 0); // separador: ["ab","c"] != ["a","bc"]
+                digest.update(c.trim().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** SHA-256 (hex) só do conteúdo do arquivo. */
+    static String file(Path templateDocx) {
+        MessageDigest digest = sha256();
+        byte[] buf = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(templateDocx)) {
+            int n;
+            while ((n = in.read(buf)) > 0) digest.update(buf, 0, n);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
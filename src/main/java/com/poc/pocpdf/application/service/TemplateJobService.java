@@ -0,0 +1,94 @@
+package com.poc.pocpdf.application.service;
+
+import com.poc.pocpdf.application.exception.QueueFullException;
+import com.poc.pocpdf.application.port.in.IdempotentUpdateUseCase;
+import com.poc.pocpdf.application.port.in.TemplateJobUseCase;
+import com.poc.pocpdf.application.port.out.JobStorePort;
+import com.poc.pocpdf.application.port.out.ScratchDir;
+import com.poc.pocpdf.domain.event.TemplateVersionCreated;
+import com.poc.pocpdf.domain.model.Clause;
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.TemplateJob;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+public class TemplateJobService implements TemplateJobUseCase, AutoCloseable {
+
+    private final IdempotentUpdateUseCase updateTemplate;
+    private final JobStorePort jobStore;
+    private final ExecutorService executor;
+
+    public TemplateJobService(IdempotentUpdateUseCase updateTemplate,
+                              JobStorePort jobStore,
+                              ExecutorService executor) {
+        this.updateTemplate = updateTemplate;
+        this.jobStore = jobStore;
+        this.executor = executor;
+    }
+
+    @Override
+    public TemplateJob submit(String idempotencyKey,
+                              ContractName contractName,
+                              Path templateDocx,
+                              ScratchDir upload,
+                              List<Clause> extraClauses) {
+
+        TemplateJob job = TemplateJob.queued(UUID.randomUUID().toString(), contractName);
+        jobStore.save(job);
+
+        try {
+            executor.execute(() -> run(job, idempotencyKey, templateDocx, upload, extraClauses));
+        } catch (RejectedExecutionException e) {
+            // fila cheia: o job nunca existiu para o cliente
+            jobStore.delete(job.id());
+            throw new QueueFullException("Fila de jobs cheia.", e);
+        }
+
+        return job;
+    }
+
+    @Override
+    public Optional<TemplateJob> find(String jobId) {
+        return jobStore.find(jobId);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private void run(TemplateJob job,
+                     String idempotencyKey,
+                     Path templateDocx,
+                     ScratchDir upload,
+                     List<Clause> extraClauses) {
+        TemplateJob running = job.running();
+        jobStore.save(running);
+
+        try {
+            // repetição com a mesma chave vira outro job, mas termina na versão já criada
+            TemplateVersionCreated created = updateTemplate.updateTemplate(
+                    idempotencyKey, job.contractName(), templateDocx, extraClauses);
+            jobStore.save(running.succeeded(created));
+        } catch (Exception e) {
+            jobStore.save(running.failed(rootMessage(e)));
+        } finally {
+            upload.close();
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        String msg = e.getMessage();
+        Throwable c = e.getCause();
+        while (c != null && c.getCause() != null) c = c.getCause();
+        if (c != null && c.getMessage() != null && !c.getMessage().isBlank()) {
+            msg = msg + " | rootCause=" + c.getClass().getSimpleName() + ": " + c.getMessage();
+        }
+        return msg;
+    }
+}
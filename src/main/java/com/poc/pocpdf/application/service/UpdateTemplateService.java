@@ -1,85 +1,369 @@
 package com.poc.pocpdf.application.service;
 
+import com.poc.pocpdf.application.port.in.AppendClausesUseCase;
 import com.poc.pocpdf.application.port.in.UpdateTemplateUseCase;
 import com.poc.pocpdf.application.port.out.*;
 import com.poc.pocpdf.domain.model.Clause;
 import com.poc.pocpdf.domain.model.ContractName;
 import com.poc.pocpdf.domain.event.TemplateVersionCreated;
 import com.poc.pocpdf.domain.model.Version;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
-public class UpdateTemplateService implements UpdateTemplateUseCase {
+public class UpdateTemplateService implements UpdateTemplateUseCase, AppendClausesUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(UpdateTemplateService.class);
 
     private final TemplateStoragePort templateStorage;
     private final VersionedOutputPort versionedOutput;
     private final LockPort lockPort;
     private final DocxEditorPort docxEditor;
     private final PdfConverterPort pdfConverter;
-    private final String workDir;
+    private final ScratchSpacePort scratchSpace;
+    private final Executor stageExecutor;
+    private final MeterRegistry meterRegistry;
+    private final boolean optimisticVersioning;
+    private final boolean skipUnchanged;
+    private final TemplateEventsPort events;
+    private final LatestDocxCachePort latestCache;
+    private final Counter unchanged;
 
+    /**
+     * @param scratchSpace         diretório de trabalho por execução (docx editado, pdf); apagado ao final
+     * @param optimisticVersioning true = updateTemplate (não o append) sem lock: a versão é reservada de forma atômica
+     *                             no storage (claim) e atualizações do mesmo contrato rodam em paralelo
+     * @param skipUnchanged        true = se template + cláusulas são os mesmos da última versão (fingerprint
+     *                             nos metadados), devolve essa versão sem editar, converter nem subir nada
+     * @param events               avisado depois do publish de cada versão nova (não em versões reaproveitadas);
+     *                             {@link TemplateEventsPort#none()} quando ninguém escuta
+     * @param latestCache          cópia local da última versão de cada contrato (appendClauses sem download);
+     *                             {@link LatestDocxCachePort#none()} para sempre baixar
+     */
     public UpdateTemplateService(TemplateStoragePort templateStorage,
                                  VersionedOutputPort versionedOutput,
                                  LockPort lockPort,
                                  DocxEditorPort docxEditor,
                                  PdfConverterPort pdfConverter,
-                                 String workDir) {
+                                 ScratchSpacePort scratchSpace,
+                                 Executor stageExecutor,
+                                 MeterRegistry meterRegistry,
+                                 boolean optimisticVersioning,
+                                 boolean skipUnchanged,
+                                 TemplateEventsPort events,
+                                 LatestDocxCachePort latestCache) {
         this.templateStorage = templateStorage;
         this.versionedOutput = versionedOutput;
         this.lockPort = lockPort;
         this.docxEditor = docxEditor;
         this.pdfConverter = pdfConverter;
-        this.workDir = (workDir == null || workDir.isBlank()) ? "out/work" : workDir;
+        this.scratchSpace = scratchSpace;
+        this.stageExecutor = stageExecutor;
+        this.meterRegistry = meterRegistry;
+        this.optimisticVersioning = optimisticVersioning;
+        this.skipUnchanged = skipUnchanged;
+        this.events = events;
+        this.latestCache = latestCache;
+        this.unchanged = Counter.builder("template.update.unchanged").register(meterRegistry);
     }
 
+    /**
+     * Pipeline em grafo (tudo dentro do mesmo lock; no modo otimista, sem lock e com o
+     * save-template depois do publish, sob o lock):
+     * <pre>
+     * save-template ─────────────────────────────────────┐
+     * next-version ─> edit-docx ─┬─> upload-docx ────────┤
+     *                            └─> convert-pdf ─> upload-pdf ─┴─> fim
+     * </pre>
+     */
     @Override
     public TemplateVersionCreated updateTemplate(ContractName contractName,
                                                  byte[] templateDocx,
                                                  List<Clause> extraClauses) {
+        if (templateDocx == null || templateDocx.length == 0) {
+            throw new IllegalArgumentException("Template DOCX vazio.");
+        }
+
+        // compatibilidade: grava uma vez em disco e segue pelo fluxo baseado em arquivo
+        try (ScratchDir upload = scratchSpace.allocate("upload-" + contractName.asKey())) {
+            Path spooled = Files.write(upload.path().resolve(contractName.asKey() + ".docx"), templateDocx);
+            return updateTemplate(contractName, spooled, extraClauses);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public TemplateVersionCreated updateTemplate(ContractName contractName,
+                                                 Path templateDocx,
+                                                 String templateHash,
+                                                 List<Clause> extraClauses) {
 
         String key = contractName.asKey();
         String lockKey = "contract-template:" + key;
 
-        return lockPort.withLock(lockKey, Duration.ofSeconds(60), () -> {
+        List<String> clauses = (extraClauses == null)
+                ? List.of()
+                : extraClauses.stream().map(Clause::text).toList();
+
+        if (optimisticVersioning) {
+            return runPipeline(contractName, key, templateDocx, templateHash, clauses, LockHandle.unlocked(lockKey));
+        }
+
+        // o lease é renovado enquanto o pipeline roda; cada gravação confere se ainda é dono dele
+        return lockPort.withLock(lockKey, Duration.ofSeconds(60),
+                lock -> runPipeline(contractName, key, templateDocx, templateHash, clauses, lock));
+    }
+
+    /**
+     * Mesmo pipeline sem save-template: a entrada é a última versão, da cópia local quando ela
+     * ainda é a vN atual, senão baixada do storage. Sempre sob o lock do contrato, mesmo no modo
+     * otimista: dois appends em paralelo partiriam da mesma vN e a cláusula de um sumiria no outro.
+     */
+    @Override
+    public TemplateVersionCreated appendClauses(ContractName contractName, List<Clause> newClauses) {
+        List<String> clauses = (newClauses == null)
+                ? List.of()
+                : newClauses.stream().map(Clause::text).toList();
+        if (clauses.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma cláusula.");
+        }
+
+        String key = contractName.asKey();
+        String lockKey = "contract-template:" + key;
+
+        return lockPort.withLock(lockKey, Duration.ofSeconds(60),
+                lock -> runAppend(contractName, key, clauses, lock));
+    }
+
+    private TemplateVersionCreated runAppend(ContractName contractName,
+                                             String key,
+                                             List<String> clauses,
+                                             LockHandle lock) {
+        try (ScratchDir scratch = scratchSpace.allocate(key)) {
+            try {
+                Path base = scratch.path().resolve(key + "-base.docx");
+                loadLatest(contractName, key, base);
+                return runPipeline(contractName, key, base, null, clauses, lock, scratch.path(), false);
+            } catch (RuntimeException e) {
+                scratch.markFailed();
+                throw e;
+            }
+        }
+    }
+
+    // versão explícita (não o load do "último"): o que está no arquivo é exatamente a vN da chave do cache
+    private void loadLatest(ContractName contractName, String key, Path target) {
+        Version latest = versionedOutput.latest(contractName).orElseThrow(() -> new IllegalArgumentException(
+                "Nenhuma versão encontrada para contrato: " + contractName.value()));
+        if (latestCache.copyTo(contractName, latest, target)) return;
+
+        StoredDocument doc = versionedOutput.find(contractName, latest, key + ".docx")
+                .orElseThrow(() -> new IllegalStateException(
+                        "Versão " + latest.asString() + " sem docx para contrato: " + contractName.value()));
+        try (OutputStream out = Files.newOutputStream(target)) {
+            doc.copyTo(out, 0, doc.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        latestCache.put(contractName, latest, target);
+    }
+
+    private TemplateVersionCreated runPipeline(ContractName contractName,
+                                               String key,
+                                               Path templateDocx,
+                                               String templateHash,
+                                               List<String> clauses,
+                                               LockHandle lock) {
+        try (ScratchDir scratch = scratchSpace.allocate(key)) {
+            try {
+                return runPipeline(contractName, key, templateDocx, templateHash, clauses, lock, scratch.path(), true);
+            } catch (RuntimeException e) {
+                scratch.markFailed();
+                throw e;
+            }
+        }
+    }
 
-            // 1) atualiza o template "corrente" no container templates
-            templateStorage.save(contractName, templateDocx);
+    /**
+     * @param knownHash    hash do template já calculado pelo chamador; null = calcula aqui
+     * @param fullTemplate true = template enviado pelo cliente: vira o template base e pode ser igual
+     *                     à entrada da última versão; false = append sobre a última versão
+     */
+    private TemplateVersionCreated runPipeline(ContractName contractName,
+                                               String key,
+                                               Path templateDocx,
+                                               String knownHash,
+                                               List<String> clauses,
+                                               LockHandle lock,
+                                               Path workDir,
+                                               boolean fullTemplate) {
+        StageTimings timings = new StageTimings(meterRegistry);
+        long start = System.nanoTime();
 
-            // 2) define próxima versão (v1, v2...)
-            Version version = versionedOutput.nextVersion(contractName);
+        // única leitura do template para hash: o mesmo valor vai para o editor (cache e índice)
+        String templateHash = knownHash != null
+                ? knownHash
+                : timings.time("fingerprint", () -> TemplateFingerprint.file(templateDocx));
+        String fingerprint = TemplateFingerprint.of(templateHash, clauses);
+        if (skipUnchanged && fullTemplate) {
+            Optional<Version> same = timings.time("check-unchanged",
+                    () -> unchangedVersion(contractName, key, fingerprint));
+            if (same.isPresent()) {
+                unchanged.increment();
+                log.info("Pipeline {} sem mudança: mesma entrada da {} [{}]", key, same.get().asString(), timings.summary());
+                return created(contractName, key, same.get());
+            }
+        }
+        Map<String, String> metadata = Map.of(TemplateFingerprint.METADATA_KEY, fingerprint);
 
-            // 3) prepara diretório de trabalho local
-            Path baseDir = Paths.get(workDir, key, version.asString());
-            Files.createDirectories(baseDir);
+        // 1) atualiza o template "corrente" no container templates (independente do resto);
+        // no modo otimista não há lock aqui: salva depois do publish (saveBaseIfLatest)
+        CompletableFuture<Void> saveBase = !fullTemplate || optimisticVersioning
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.runAsync(
+                        () -> timings.run("save-template", () -> {
+                            lock.ensureValid();
+                            templateStorage.save(contractName, templateDocx);
+                        }),
+                        stageExecutor);
 
-            Path inputDocx = baseDir.resolve(key + "-input.docx");
-            Path outputDocx = baseDir.resolve(key + ".docx");
+        // 2) define próxima versão (v1, v2...)
+        CompletableFuture<Version> version = CompletableFuture.supplyAsync(
+                () -> timings.time("next-version", () -> versionedOutput.nextVersion(contractName)),
+                stageExecutor);
 
-            Files.write(inputDocx, templateDocx);
+        // 3) + 4) aplica cláusulas extras no docx, no diretório de rascunho desta execução
+        // (lê direto do arquivo recebido; não há mais cópia "-input.docx")
+        CompletableFuture<Path> editedDocx = version.thenApplyAsync(
+                v -> timings.time("edit-docx",
+                        () -> docxEditor.applyExtraClauses(templateDocx, templateHash, workDir.resolve(key + ".docx"), clauses)),
+                stageExecutor);
 
-            // 4) aplica cláusulas extras no docx
-            List<String> clauses = (extraClauses == null)
-                    ? List.of()
-                    : extraClauses.stream().map(Clause::text).toList();
+        // 5) upload do docx em paralelo com a conversão
+        CompletableFuture<Void> uploadDocx = editedDocx.thenAcceptBothAsync(version,
+                (docx, v) -> timings.run("upload-docx", () -> {
+                    lock.ensureValid();
+                    versionedOutput.save(contractName, v, key + ".docx", docx, metadata);
+                }),
+                stageExecutor);
 
-            docxEditor.applyExtraClauses(inputDocx, outputDocx, clauses);
+        // 6) converte para PDF e sobe
+        CompletableFuture<Path> pdf = editedDocx.thenApplyAsync(
+                docx -> timings.time("convert-pdf", () -> pdfConverter.docxToPdf(docx, docx.getParent())),
+                stageExecutor);
 
-            // 5) converte para PDF
-            Path pdf = pdfConverter.docxToPdf(outputDocx, baseDir);
+        CompletableFuture<Void> uploadPdf = pdf.thenAcceptBothAsync(version,
+                (p, v) -> timings.run("upload-pdf", () -> {
+                    lock.ensureValid();
+                    versionedOutput.save(contractName, v, key + ".pdf", p, metadata);
+                }),
+                stageExecutor);
 
-            // 6) salva versão no Blob
-            versionedOutput.save(contractName, version, key + ".docx", outputDocx);
-            versionedOutput.save(contractName, version, key + ".pdf", pdf);
+        // espera TODAS as etapas (mesmo com falha) antes de soltar o lock
+        try {
+            CompletableFuture.allOf(saveBase, uploadDocx, uploadPdf).join();
+        } catch (CompletionException e) {
+            rollbackPartialVersion(contractName, key, version, uploadDocx, uploadPdf);
+            throw unwrap(e);
+        } finally {
+            log.info("Pipeline {} total={}ms [{}]",
+                    key, Duration.ofNanos(System.nanoTime() - start).toMillis(), timings.summary());
+        }
 
-            // 7) monta paths (para retornar na API)
-            String docxPath = "output/contratos/" + key + "/" + version.asString() + "/" + key + ".docx";
-            String pdfPath  = "output/contratos/" + key + "/" + version.asString() + "/" + key + ".pdf";
+        Version v = version.join();
 
-            return new TemplateVersionCreated(contractName, version, docxPath, pdfPath);
+        // só agora a versão passa a ser a "última" (docx e pdf já gravados)
+        timings.run("publish", () -> {
+            lock.ensureValid();
+            versionedOutput.publish(contractName, v);
         });
+
+        if (fullTemplate && optimisticVersioning) {
+            timings.run("save-template", () -> saveBaseIfLatest(contractName, key, templateDocx, v));
+        }
+
+        // vN+1 já está no scratch: o próximo append não precisa baixar
+        latestCache.put(contractName, v, editedDocx.join());
+
+        TemplateVersionCreated created = created(contractName, key, v);
+        try {
+            events.versionCreated(created);
+        } catch (RuntimeException e) {
+            // a versão já está publicada; aviso é só para caches
+            log.warn("Falha ao avisar versão criada {}/{}", key, v.asString(), e);
+        }
+        return created;
+    }
+
+    /**
+     * Modo otimista: pedidos em paralelo terminam em qualquer ordem e o template base ficaria com o
+     * de quem salvou por último. Salva sob o lock do contrato e só se esta versão ainda é a última
+     * publicada (publish nunca regride). A versão já está publicada: falha aqui só é registrada.
+     */
+    private void saveBaseIfLatest(ContractName contractName, String key, Path templateDocx, Version v) {
+        try {
+            lockPort.withLock("contract-template:" + key, Duration.ofSeconds(60), lock -> {
+                if (versionedOutput.latest(contractName).filter(v::equals).isPresent()) {
+                    lock.ensureValid();
+                    templateStorage.save(contractName, templateDocx);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Falha ao salvar template base de {} ({})", key, v.asString(), e);
+        }
+    }
+
+    // 7) monta paths (para retornar na API)
+    private static TemplateVersionCreated created(ContractName contractName, String key, Version v) {
+        String docxPath = "output/contratos/" + key + "/" + v.asString() + "/" + key + ".docx";
+        String pdfPath  = "output/contratos/" + key + "/" + v.asString() + "/" + key + ".pdf";
+
+        return new TemplateVersionCreated(contractName, v, docxPath, pdfPath);
+    }
+
+    // última versão publicada com o mesmo fingerprint (versões antigas, sem metadado, nunca batem)
+    private Optional<Version> unchangedVersion(ContractName contractName, String key, String fingerprint) {
+        return versionedOutput.latest(contractName)
+                .filter(v -> versionedOutput.find(contractName, v, key + ".docx")
+                        .map(doc -> fingerprint.equals(doc.metadata().get(TemplateFingerprint.METADATA_KEY)))
+                        .orElse(false));
+    }
+
+    // docx pode ter subido enquanto o PDF falhava: não deixa versão pela metade
+    private void rollbackPartialVersion(ContractName contractName,
+                                        String key,
+                                        CompletableFuture<Version> version,
+                                        CompletableFuture<Void> uploadDocx,
+                                        CompletableFuture<Void> uploadPdf) {
+        if (version.isCompletedExceptionally()) return;
+        Version v = version.join();
+        try {
+            if (!uploadDocx.isCompletedExceptionally()) versionedOutput.delete(contractName, v, key + ".docx");
+            if (!uploadPdf.isCompletedExceptionally()) versionedOutput.delete(contractName, v, key + ".pdf");
+        } catch (RuntimeException e) {
+            log.warn("Falha ao desfazer versão parcial {}/{}", key, v.asString(), e);
+        }
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        Throwable c = e.getCause();
+        if (c instanceof RuntimeException re) return re;
+        return new RuntimeException(c);
     }
 }
@@ -0,0 +1,127 @@
+package com.poc.pocpdf.application.service;
+
+import com.poc.pocpdf.application.port.in.VersionHistoryUseCase;
+import com.poc.pocpdf.application.port.out.TemplateEventsPort;
+import com.poc.pocpdf.application.port.out.VersionedOutputPort;
+import com.poc.pocpdf.domain.event.TemplateVersionCreated;
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.VersionInfo;
+import com.poc.pocpdf.domain.model.VersionPage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Histórico servido de um índice por contrato em memória: uma listagem do storage monta o índice,
+ * que vale por ttl ou até o pipeline deste nó avisar de uma versão nova. Em outros nós a versão
+ * nova aparece quando o ttl vence.
+ * <p>
+ * Cursor = número da última versão entregue (keyset): páginas seguintes não mudam quando entram
+ * versões novas no topo.
+ */
+public class VersionHistoryService implements VersionHistoryUseCase, TemplateEventsPort {
+
+    static final int MAX_LIMIT = 100;
+
+    private final VersionedOutputPort versionedOutput;
+    private final long ttlNanos;
+    private final int maxContracts;
+
+    private final ConcurrentHashMap<String, Index> indexes = new ConcurrentHashMap<>();
+    // muda a cada invalidação: listagem que começou antes não entra no cache
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public VersionHistoryService(VersionedOutputPort versionedOutput,
+                                 Duration ttl,
+                                 int maxContracts,
+                                 MeterRegistry meterRegistry) {
+        this.versionedOutput = versionedOutput;
+        this.ttlNanos = (ttl == null || ttl.isNegative()) ? 0 : ttl.toNanos();
+        this.maxContracts = Math.max(1, maxContracts);
+        this.hits = Counter.builder("versions.index").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("versions.index").tag("result", "miss").register(meterRegistry);
+    }
+
+    @Override
+    public VersionPage listVersions(ContractName contractName, String cursor, int limit) {
+        int size = Math.max(1, Math.min(MAX_LIMIT, limit));
+        int before = decodeCursor(cursor);
+
+        List<VersionInfo> after = index(contractName).stream()
+                .filter(v -> v.version().number() < before)
+                .limit(size + 1L)
+                .toList();
+
+        boolean more = after.size() > size;
+        List<VersionInfo> items = more ? after.subList(0, size) : after;
+        String next = more ? encodeCursor(items.get(items.size() - 1).version().number()) : null;
+
+        return new VersionPage(contractName, items, next);
+    }
+
+    @Override
+    public void versionCreated(TemplateVersionCreated event) {
+        generation.incrementAndGet();
+        indexes.remove(event.contractName().asKey());
+    }
+
+    private List<VersionInfo> index(ContractName contractName) {
+        String key = contractName.asKey();
+        long now = System.nanoTime();
+
+        Index cached = indexes.get(key);
+        if (cached != null && now - cached.loadedAt() < ttlNanos) {
+            hits.increment();
+            return cached.versions();
+        }
+
+        misses.increment();
+        long gen = generation.get();
+        List<VersionInfo> versions = versionedOutput.listVersions(contractName).stream()
+                .sorted(Comparator.comparingInt((VersionInfo v) -> v.version().number()).reversed())
+                .toList();
+
+        if (ttlNanos > 0 && generation.get() == gen) {
+            indexes.put(key, new Index(versions, now));
+            if (indexes.size() > maxContracts) evict();
+        }
+        return versions;
+    }
+
+    // acima do limite saem os índices mais antigos
+    private void evict() {
+        indexes.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().loadedAt()))
+                .limit(Math.max(0, indexes.size() - maxContracts))
+                .toList()
+                .forEach(e -> indexes.remove(e.getKey(), e.getValue()));
+    }
+
+    private static String encodeCursor(int versionNumber) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("v" + versionNumber).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return Integer.MAX_VALUE;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            if (!raw.startsWith("v")) throw new IllegalArgumentException();
+            return Integer.parseInt(raw.substring(1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+
+    private record Index(List<VersionInfo> versions, long loadedAt) {}
+}
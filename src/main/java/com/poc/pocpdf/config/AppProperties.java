@@ -8,32 +8,270 @@ public class AppProperties {
     private final Azure azure = new Azure();
     private final Storage storage = new Storage();
     private final LibreOffice libreOffice = new LibreOffice();
+    private final Docx docx = new Docx();
+    private final Lock lock = new Lock();
+    private final Versioning versioning = new Versioning();
+    private final Metrics metrics = new Metrics();
+    private final Jobs jobs = new Jobs();
+    private final Cache cache = new Cache();
+    private final Scratch scratch = new Scratch();
+    private final Bulk bulk = new Bulk();
+    private final Idempotency idempotency = new Idempotency();
+    private final History history = new History();
 
     public Azure getAzure() { return azure; }
     public Storage getStorage() { return storage; }
     public LibreOffice getLibreOffice() { return libreOffice; }
+    public Docx getDocx() { return docx; }
+    public Lock getLock() { return lock; }
+    public Versioning getVersioning() { return versioning; }
+    public Metrics getMetrics() { return metrics; }
+    public Jobs getJobs() { return jobs; }
+    public Cache getCache() { return cache; }
+    public Scratch getScratch() { return scratch; }
+    public Bulk getBulk() { return bulk; }
+    public Idempotency getIdempotency() { return idempotency; }
+    public History getHistory() { return history; }
 
     public static class Azure {
         private String connectionString;
+        // netty (padrão do SDK) ou okhttp
+        private String httpClient = "netty";
+        private int maxConnections = 64;
+        // conexão ociosa fica viva (keep-alive) até esse tempo
+        private long connectionIdleTimeoutMs = 60_000L;
+        private long connectTimeoutMs = 10_000L;
+        private long responseTimeoutMs = 60_000L;
+        private long readTimeoutMs = 60_000L;
+        private long writeTimeoutMs = 60_000L;
+        // retry exponencial do SDK de Storage
+        private int retryMaxTries = 4;
+        private long retryTryTimeoutMs = 120_000L;
+        private long retryDelayMs = 800L;
+        private long retryMaxDelayMs = 30_000L;
         public String getConnectionString() { return connectionString; }
         public void setConnectionString(String connectionString) { this.connectionString = connectionString; }
+        public String getHttpClient() { return httpClient; }
+        public void setHttpClient(String httpClient) { this.httpClient = httpClient; }
+        public int getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+        public long getConnectionIdleTimeoutMs() { return connectionIdleTimeoutMs; }
+        public void setConnectionIdleTimeoutMs(long connectionIdleTimeoutMs) { this.connectionIdleTimeoutMs = connectionIdleTimeoutMs; }
+        public long getConnectTimeoutMs() { return connectTimeoutMs; }
+        public void setConnectTimeoutMs(long connectTimeoutMs) { this.connectTimeoutMs = connectTimeoutMs; }
+        public long getResponseTimeoutMs() { return responseTimeoutMs; }
+        public void setResponseTimeoutMs(long responseTimeoutMs) { this.responseTimeoutMs = responseTimeoutMs; }
+        public long getReadTimeoutMs() { return readTimeoutMs; }
+        public void setReadTimeoutMs(long readTimeoutMs) { this.readTimeoutMs = readTimeoutMs; }
+        public long getWriteTimeoutMs() { return writeTimeoutMs; }
+        public void setWriteTimeoutMs(long writeTimeoutMs) { this.writeTimeoutMs = writeTimeoutMs; }
+        public int getRetryMaxTries() { return retryMaxTries; }
+        public void setRetryMaxTries(int retryMaxTries) { this.retryMaxTries = retryMaxTries; }
+        public long getRetryTryTimeoutMs() { return retryTryTimeoutMs; }
+        public void setRetryTryTimeoutMs(long retryTryTimeoutMs) { this.retryTryTimeoutMs = retryTryTimeoutMs; }
+        public long getRetryDelayMs() { return retryDelayMs; }
+        public void setRetryDelayMs(long retryDelayMs) { this.retryDelayMs = retryDelayMs; }
+        public long getRetryMaxDelayMs() { return retryMaxDelayMs; }
+        public void setRetryMaxDelayMs(long retryMaxDelayMs) { this.retryMaxDelayMs = retryMaxDelayMs; }
     }
 
     public static class Storage {
+        // azure = Blob Storage; filesystem = disco local em localDir, mesmo layout dos containers
+        private String backend = "azure";
+        private String localDir = "out/storage";
         private String templatesContainer = "templates";
         private String outputContainer = "output";
         private String workDir = "out/work";
+        // upload em blocos paralelos (ParallelTransferOptions); até uploadMaxSingleUploadSizeMb vai num PUT só
+        private long uploadBlockSizeMb = 8;
+        private int uploadMaxConcurrency = 4;
+        private long uploadMaxSingleUploadSizeMb = 32;
+        public String getBackend() { return backend; }
+        public void setBackend(String backend) { this.backend = backend; }
+        public String getLocalDir() { return localDir; }
+        public void setLocalDir(String localDir) { this.localDir = localDir; }
         public String getTemplatesContainer() { return templatesContainer; }
         public void setTemplatesContainer(String templatesContainer) { this.templatesContainer = templatesContainer; }
         public String getOutputContainer() { return outputContainer; }
         public void setOutputContainer(String outputContainer) { this.outputContainer = outputContainer; }
         public String getWorkDir() { return workDir; }
         public void setWorkDir(String workDir) { this.workDir = workDir; }
+        public long getUploadBlockSizeMb() { return uploadBlockSizeMb; }
+        public void setUploadBlockSizeMb(long uploadBlockSizeMb) { this.uploadBlockSizeMb = uploadBlockSizeMb; }
+        public int getUploadMaxConcurrency() { return uploadMaxConcurrency; }
+        public void setUploadMaxConcurrency(int uploadMaxConcurrency) { this.uploadMaxConcurrency = uploadMaxConcurrency; }
+        public long getUploadMaxSingleUploadSizeMb() { return uploadMaxSingleUploadSizeMb; }
+        public void setUploadMaxSingleUploadSizeMb(long uploadMaxSingleUploadSizeMb) { this.uploadMaxSingleUploadSizeMb = uploadMaxSingleUploadSizeMb; }
     }
 
     public static class LibreOffice {
         private String sofficePath = "/usr/bin/soffice";
+        // process = um soffice por conversão; pool = instâncias quentes reaproveitadas (UNO)
+        private String mode = "process";
+        private String officeHome;
+        private int poolSize = 2;
+        private int basePort = 2002;
+        private int maxQueue = 16;
+        private int maxTasksPerProcess = 200;
+        private long taskQueueTimeoutMs = 30_000L;
+        private long taskExecutionTimeoutMs = 120_000L;
+        private long processTimeoutMs = 120_000L;
+        private String profilesDir = "out/lo-profiles";
+        // no modo process, poolSize limita os processos soffice simultâneos e processTimeoutMs a vida de cada um
+        // micro-lotes do modo process: até batchMaxSize arquivos ou batchMaxWaitMs de espera por soffice
+        private int batchMaxSize = 8;
+        private long batchMaxWaitMs = 50L;
         public String getSofficePath() { return sofficePath; }
         public void setSofficePath(String sofficePath) { this.sofficePath = sofficePath; }
+        public String getMode() { return mode; }
+        public void setMode(String mode) { this.mode = mode; }
+        public String getOfficeHome() { return officeHome; }
+        public void setOfficeHome(String officeHome) { this.officeHome = officeHome; }
+        public int getPoolSize() { return poolSize; }
+        public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+        public int getBasePort() { return basePort; }
+        public void setBasePort(int basePort) { this.basePort = basePort; }
+        public int getMaxQueue() { return maxQueue; }
+        public void setMaxQueue(int maxQueue) { this.maxQueue = maxQueue; }
+        public int getMaxTasksPerProcess() { return maxTasksPerProcess; }
+        public void setMaxTasksPerProcess(int maxTasksPerProcess) { this.maxTasksPerProcess = maxTasksPerProcess; }
+        public long getTaskQueueTimeoutMs() { return taskQueueTimeoutMs; }
+        public void setTaskQueueTimeoutMs(long taskQueueTimeoutMs) { this.taskQueueTimeoutMs = taskQueueTimeoutMs; }
+        public long getTaskExecutionTimeoutMs() { return taskExecutionTimeoutMs; }
+        public void setTaskExecutionTimeoutMs(long taskExecutionTimeoutMs) { this.taskExecutionTimeoutMs = taskExecutionTimeoutMs; }
+        public long getProcessTimeoutMs() { return processTimeoutMs; }
+        public void setProcessTimeoutMs(long processTimeoutMs) { this.processTimeoutMs = processTimeoutMs; }
+        public String getProfilesDir() { return profilesDir; }
+        public void setProfilesDir(String profilesDir) { this.profilesDir = profilesDir; }
+        public int getBatchMaxSize() { return batchMaxSize; }
+        public void setBatchMaxSize(int batchMaxSize) { this.batchMaxSize = batchMaxSize; }
+        public long getBatchMaxWaitMs() { return batchMaxWaitMs; }
+        public void setBatchMaxWaitMs(long batchMaxWaitMs) { this.batchMaxWaitMs = batchMaxWaitMs; }
+    }
+
+    public static class Docx {
+        // poi = modelo XWPF completo; streaming = copia o zip e reescreve só word/document.xml
+        private String editor = "poi";
+        private int indexCacheSize = 256;
+        public String getEditor() { return editor; }
+        public void setEditor(String editor) { this.editor = editor; }
+        public int getIndexCacheSize() { return indexCacheSize; }
+        public void setIndexCacheSize(int indexCacheSize) { this.indexCacheSize = indexCacheSize; }
+    }
+
+    public static class Lock {
+        // espera máxima na fila local (mesmo nó) antes de desistir do lock
+        private long localWaitTimeoutMs = 120_000L;
+        // disputa do lease entre nós: backoff exponencial com jitter até leaseWaitTimeoutMs
+        private long leaseWaitTimeoutMs = 60_000L;
+        private long backoffBaseMs = 100L;
+        private long backoffMaxMs = 5_000L;
+        public long getLocalWaitTimeoutMs() { return localWaitTimeoutMs; }
+        public void setLocalWaitTimeoutMs(long localWaitTimeoutMs) { this.localWaitTimeoutMs = localWaitTimeoutMs; }
+        public long getLeaseWaitTimeoutMs() { return leaseWaitTimeoutMs; }
+        public void setLeaseWaitTimeoutMs(long leaseWaitTimeoutMs) { this.leaseWaitTimeoutMs = leaseWaitTimeoutMs; }
+        public long getBackoffBaseMs() { return backoffBaseMs; }
+        public void setBackoffBaseMs(long backoffBaseMs) { this.backoffBaseMs = backoffBaseMs; }
+        public long getBackoffMaxMs() { return backoffMaxMs; }
+        public void setBackoffMaxMs(long backoffMaxMs) { this.backoffMaxMs = backoffMaxMs; }
+    }
+
+    public static class Versioning {
+        // locked = pipeline inteiro sob o lease do contrato; optimistic = só a reserva da versão é atômica (append sempre sob o lease)
+        private String mode = "locked";
+        // mesma entrada (template + cláusulas) da última versão: devolve a última em vez de criar outra
+        private boolean skipUnchanged = true;
+        public String getMode() { return mode; }
+        public void setMode(String mode) { this.mode = mode; }
+        public boolean isSkipUnchanged() { return skipUnchanged; }
+        public void setSkipUnchanged(boolean skipUnchanged) { this.skipUnchanged = skipUnchanged; }
+    }
+
+    public static class Metrics {
+        // tag contract nas métricas dos ports; cada contrato vira uma série e o port.call perde o histograma
+        private boolean contractTag = false;
+        public boolean isContractTag() { return contractTag; }
+        public void setContractTag(boolean contractTag) { this.contractTag = contractTag; }
+    }
+
+    public static class Jobs {
+        private int workers = 2;
+        private int queueCapacity = 50;
+        private long retentionMinutes = 60;
+        public int getWorkers() { return workers; }
+        public void setWorkers(int workers) { this.workers = workers; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+        public long getRetentionMinutes() { return retentionMinutes; }
+        public void setRetentionMinutes(long retentionMinutes) { this.retentionMinutes = retentionMinutes; }
+    }
+
+    public static class Cache {
+        // cache local de DOCX editado / PDF renderizado, endereçado por conteúdo
+        private boolean enabled = true;
+        private String dir = "out/render-cache";
+        private long maxSizeMb = 1024;
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public String getDir() { return dir; }
+        public void setDir(String dir) { this.dir = dir; }
+        public long getMaxSizeMb() { return maxSizeMb; }
+        public void setMaxSizeMb(long maxSizeMb) { this.maxSizeMb = maxSizeMb; }
+    }
+
+    public static class Scratch {
+        // diretórios de trabalho por execução; pode apontar para um tmpfs (ex.: /dev/shm/pocpdf)
+        private String dir = "out/scratch";
+        private long quotaMb = 2048;
+        // guarda o diretório de execuções com falha para inspeção (sai primeiro quando passa da cota)
+        private boolean keepFailed = false;
+        public String getDir() { return dir; }
+        public void setDir(String dir) { this.dir = dir; }
+        public long getQuotaMb() { return quotaMb; }
+        public void setQuotaMb(long quotaMb) { this.quotaMb = quotaMb; }
+        public boolean isKeepFailed() { return keepFailed; }
+        public void setKeepFailed(boolean keepFailed) { this.keepFailed = keepFailed; }
+    }
+
+    public static class Bulk {
+        // contratos processados ao mesmo tempo no lote; 0 = max(núcleos, processos do LibreOffice)
+        private int parallelism = 0;
+        private int maxContracts = 1000;
+        public int getParallelism() { return parallelism; }
+        public void setParallelism(int parallelism) { this.parallelism = parallelism; }
+        public int getMaxContracts() { return maxContracts; }
+        public void setMaxContracts(int maxContracts) { this.maxContracts = maxContracts; }
+    }
+
+    public static class Idempotency {
+        // storage = registro no Blob, vale entre nós (backend azure); memory = só no nó
+        private String store = "storage";
+        // por quanto tempo uma Idempotency-Key concluída devolve a mesma versão
+        private long ttlMinutes = 60;
+        private int maxEntries = 10_000;
+        // registro em andamento mais velho que isso é de um nó que caiu (store=storage)
+        private long pendingTimeoutMinutes = 15;
+        // quanto a repetição espera o dono em outro nó antes de responder 409 com Retry-After
+        private long remoteWaitSeconds = 5;
+        public String getStore() { return store; }
+        public void setStore(String store) { this.store = store; }
+        public long getTtlMinutes() { return ttlMinutes; }
+        public void setTtlMinutes(long ttlMinutes) { this.ttlMinutes = ttlMinutes; }
+        public int getMaxEntries() { return maxEntries; }
+        public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+        public long getPendingTimeoutMinutes() { return pendingTimeoutMinutes; }
+        public void setPendingTimeoutMinutes(long pendingTimeoutMinutes) { this.pendingTimeoutMinutes = pendingTimeoutMinutes; }
+        public long getRemoteWaitSeconds() { return remoteWaitSeconds; }
+        public void setRemoteWaitSeconds(long remoteWaitSeconds) { this.remoteWaitSeconds = remoteWaitSeconds; }
+    }
+
+    public static class History {
+        // índice de versões por contrato em memória; 0 = sempre lista no storage
+        private long ttlSeconds = 300;
+        private int maxContracts = 5_000;
+        public long getTtlSeconds() { return ttlSeconds; }
+        public void setTtlSeconds(long ttlSeconds) { this.ttlSeconds = ttlSeconds; }
+        public int getMaxContracts() { return maxContracts; }
+        public void setMaxContracts(int maxContracts) { this.maxContracts = maxContracts; }
     }
 }
@@ -1,15 +1,30 @@
 package com.poc.pocpdf.config;
 
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.netty.NettyAsyncHttpClientProvider;
+import com.azure.core.http.okhttp.OkHttpAsyncClientProvider;
+import com.azure.core.util.HttpClientOptions;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.common.policy.RequestRetryOptions;
+import com.azure.storage.common.policy.RetryPolicyType;
+import com.poc.pocpdf.adapters.out.blob.StorageClientMetricsPolicy;
+import com.poc.pocpdf.adapters.out.blob.StorageRoundTripPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
+// com app.storage.backend=filesystem não sobe client nem exige connection string
 @Configuration
+@ConditionalOnProperty(prefix = "app.storage", name = "backend", havingValue = "azure", matchIfMissing = true)
 public class AzureClientConfig {
 
     @Bean
-    public BlobServiceClient blobServiceClient(AppProperties props) {
+    public BlobServiceClient blobServiceClient(AppProperties props, MeterRegistry meterRegistry) {
         String cs = props.getAzure().getConnectionString();
 
         if (cs == null || cs.isBlank()) {
@@ -19,8 +34,45 @@ public class AzureClientConfig {
             );
         }
 
+        AppProperties.Azure az = props.getAzure();
+
         return new BlobServiceClientBuilder()
                 .connectionString(cs.trim())
+                .httpClient(httpClient(az))
+                .retryOptions(new RequestRetryOptions(
+                        RetryPolicyType.EXPONENTIAL,
+                        Math.max(1, az.getRetryMaxTries()),
+                        Duration.ofMillis(az.getRetryTryTimeoutMs()),
+                        Duration.ofMillis(az.getRetryDelayMs()),
+                        Duration.ofMillis(Math.max(az.getRetryDelayMs(), az.getRetryMaxDelayMs())),
+                        null))
+                .addPolicy(new StorageRoundTripPolicy(meterRegistry))
+                .addPolicy(new StorageClientMetricsPolicy(meterRegistry))
                 .buildClient();
     }
+
+    // pool, keep-alive e timeouts valem para os dois clientes; o OkHttp negocia HTTP/2 via ALPN quando o endpoint aceita
+    private HttpClient httpClient(AppProperties.Azure az) {
+        HttpClientOptions options = new HttpClientOptions()
+                .setMaximumConnectionPoolSize(Math.max(1, az.getMaxConnections()))
+                .setConnectionIdleTimeout(Duration.ofMillis(az.getConnectionIdleTimeoutMs()))
+                .setConnectTimeout(Duration.ofMillis(az.getConnectTimeoutMs()))
+                .setResponseTimeout(Duration.ofMillis(az.getResponseTimeoutMs()))
+                .setReadTimeout(Duration.ofMillis(az.getReadTimeoutMs()))
+                .setWriteTimeout(Duration.ofMillis(az.getWriteTimeoutMs()));
+
+        if ("okhttp".equalsIgnoreCase(az.getHttpClient())) {
+            return new OkHttpAsyncClientProvider().createInstance(options);
+        }
+        return new NettyAsyncHttpClientProvider().createInstance(options);
+    }
+
+    // provisiona os containers uma vez na subida; os adapters não fazem mais exists()/create()
+    @Bean
+    public ApplicationRunner blobContainerInitializer(BlobServiceClient client, AppProperties props) {
+        return args -> {
+            client.getBlobContainerClient(props.getStorage().getTemplatesContainer()).createIfNotExists();
+            client.getBlobContainerClient(props.getStorage().getOutputContainer()).createIfNotExists();
+        };
+    }
 }
@@ -1,64 +1,268 @@
 package com.poc.pocpdf.config;
 
 import com.azure.storage.blob.BlobServiceClient;
+import com.poc.pocpdf.adapters.out.blob.AzureBlobIdempotencyStoreAdapter;
 import com.poc.pocpdf.adapters.out.blob.AzureBlobLeaseLockAdapter;
 import com.poc.pocpdf.adapters.out.blob.AzureBlobTemplateStorageAdapter;
 import com.poc.pocpdf.adapters.out.blob.AzureBlobVersionedOutputAdapter;
+import com.poc.pocpdf.adapters.out.blob.BlobTransferSettings;
+import com.poc.pocpdf.adapters.out.blob.StorageRoundTrips;
+import com.poc.pocpdf.adapters.out.cache.CachingDocxEditorAdapter;
+import com.poc.pocpdf.adapters.out.cache.CachingPdfConverterAdapter;
+import com.poc.pocpdf.adapters.out.cache.LocalArtifactCache;
+import com.poc.pocpdf.adapters.out.cache.LocalLatestDocxCacheAdapter;
 import com.poc.pocpdf.adapters.out.docx.PoiDocxEditorAdapter;
+import com.poc.pocpdf.adapters.out.docx.StreamingDocxEditorAdapter;
+import com.poc.pocpdf.adapters.out.fs.FileChannelLockAdapter;
+import com.poc.pocpdf.adapters.out.fs.FileSystemTemplateStorageAdapter;
+import com.poc.pocpdf.adapters.out.fs.FileSystemVersionedOutputAdapter;
+import com.poc.pocpdf.adapters.out.idempotency.InMemoryIdempotencyStoreAdapter;
+import com.poc.pocpdf.adapters.out.job.InMemoryJobStoreAdapter;
+import com.poc.pocpdf.adapters.out.lock.LocalTieredLockAdapter;
+import com.poc.pocpdf.adapters.out.metrics.InstrumentedDocxEditorAdapter;
+import com.poc.pocpdf.adapters.out.metrics.InstrumentedLockAdapter;
+import com.poc.pocpdf.adapters.out.metrics.InstrumentedPdfConverterAdapter;
+import com.poc.pocpdf.adapters.out.metrics.InstrumentedTemplateStorageAdapter;
+import com.poc.pocpdf.adapters.out.metrics.InstrumentedVersionedOutputAdapter;
 import com.poc.pocpdf.adapters.out.pdf.LibreOfficePdfConverterAdapter;
+import com.poc.pocpdf.adapters.out.pdf.LibreOfficePoolSettings;
+import com.poc.pocpdf.adapters.out.pdf.PooledLibreOfficePdfConverterAdapter;
+import com.poc.pocpdf.adapters.out.scratch.LocalScratchSpaceAdapter;
+import com.poc.pocpdf.application.port.in.AppendClausesUseCase;
+import com.poc.pocpdf.application.port.in.BulkUpdateUseCase;
+import com.poc.pocpdf.application.port.in.IdempotentUpdateUseCase;
+import com.poc.pocpdf.application.port.in.TemplateJobUseCase;
 import com.poc.pocpdf.application.port.in.UpdateTemplateUseCase;
 import com.poc.pocpdf.application.port.out.DocxEditorPort;
+import com.poc.pocpdf.application.port.out.IdempotencyStorePort;
+import com.poc.pocpdf.application.port.out.JobStorePort;
+import com.poc.pocpdf.application.port.out.LatestDocxCachePort;
 import com.poc.pocpdf.application.port.out.LockPort;
 import com.poc.pocpdf.application.port.out.PdfConverterPort;
+import com.poc.pocpdf.application.port.out.ScratchSpacePort;
+import com.poc.pocpdf.application.port.out.TemplateEventsPort;
 import com.poc.pocpdf.application.port.out.TemplateStoragePort;
 import com.poc.pocpdf.application.port.out.VersionedOutputPort;
+import com.poc.pocpdf.application.service.BulkUpdateTemplateService;
+import com.poc.pocpdf.application.service.IdempotentUpdateTemplateService;
+import com.poc.pocpdf.application.service.TemplateJobService;
 import com.poc.pocpdf.application.service.UpdateTemplateService;
+import com.poc.pocpdf.application.service.VersionHistoryService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Configuration
 public class PortsConfig {
 
     // ---- Outbound ports (interfaces) -> adapters ----
     @Bean
-    public TemplateStoragePort templateStoragePort(BlobServiceClient client, AppProperties props) {
-        return new AzureBlobTemplateStorageAdapter(
-                client,
-                props.getStorage().getTemplatesContainer(),
-                props.getStorage().getOutputContainer()
+    public TemplateStoragePort templateStoragePort(ObjectProvider<BlobServiceClient> client,
+                                                   AppProperties props,
+                                                   MeterRegistry meterRegistry) {
+        AppProperties.Storage st = props.getStorage();
+        TemplateStoragePort storage = filesystem(st)
+                ? new FileSystemTemplateStorageAdapter(
+                        Paths.get(st.getLocalDir()),
+                        st.getTemplatesContainer(),
+                        st.getOutputContainer())
+                : new AzureBlobTemplateStorageAdapter(
+                        client.getObject(),
+                        st.getTemplatesContainer(),
+                        st.getOutputContainer(),
+                        transferSettings(st),
+                        meterRegistry);
+        return new InstrumentedTemplateStorageAdapter(storage, meterRegistry, props.getMetrics().isContractTag());
+    }
+
+    @Bean
+    public VersionedOutputPort versionedOutputPort(ObjectProvider<BlobServiceClient> client,
+                                                   AppProperties props,
+                                                   MeterRegistry meterRegistry) {
+        AppProperties.Storage st = props.getStorage();
+        VersionedOutputPort output = filesystem(st)
+                ? new FileSystemVersionedOutputAdapter(Paths.get(st.getLocalDir()), st.getOutputContainer())
+                : new AzureBlobVersionedOutputAdapter(
+                        client.getObject(),
+                        st.getOutputContainer(),
+                        transferSettings(st),
+                        meterRegistry);
+        return new InstrumentedVersionedOutputAdapter(output, meterRegistry, props.getMetrics().isContractTag());
+    }
+
+    private static boolean filesystem(AppProperties.Storage storage) {
+        return "filesystem".equalsIgnoreCase(storage.getBackend());
+    }
+
+    private BlobTransferSettings transferSettings(AppProperties.Storage storage) {
+        return new BlobTransferSettings(
+                storage.getUploadBlockSizeMb() * 1024 * 1024,
+                storage.getUploadMaxConcurrency(),
+                storage.getUploadMaxSingleUploadSizeMb() * 1024 * 1024
+        );
+    }
+
+    @Bean
+    public LockPort lockPort(ObjectProvider<BlobServiceClient> client, AppProperties props, MeterRegistry meterRegistry) {
+        AppProperties.Lock lock = props.getLock();
+        AppProperties.Storage st = props.getStorage();
+        LockPort shared = filesystem(st)
+                ? new FileChannelLockAdapter(
+                        Paths.get(st.getLocalDir()),
+                        st.getOutputContainer(),
+                        Duration.ofMillis(lock.getLeaseWaitTimeoutMs()),
+                        lock.getBackoffBaseMs(),
+                        lock.getBackoffMaxMs(),
+                        meterRegistry)
+                : new AzureBlobLeaseLockAdapter(
+                        client.getObject(),
+                        st.getOutputContainer(),
+                        Duration.ofMillis(lock.getLeaseWaitTimeoutMs()),
+                        lock.getBackoffBaseMs(),
+                        lock.getBackoffMaxMs(),
+                        meterRegistry);
+
+        // mesma chave no mesmo nó espera em memória; só o dono da vez disputa o lock compartilhado
+        LockPort tiered = new LocalTieredLockAdapter(
+                shared,
+                Duration.ofMillis(lock.getLocalWaitTimeoutMs()),
+                meterRegistry
         );
+        return new InstrumentedLockAdapter(tiered, meterRegistry, props.getMetrics().isContractTag());
     }
 
     @Bean
-    public VersionedOutputPort versionedOutputPort(BlobServiceClient client, AppProperties props) {
-        return new AzureBlobVersionedOutputAdapter(client, props.getStorage().getOutputContainer());
+    @ConditionalOnProperty(prefix = "app.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public LocalArtifactCache renderCache(AppProperties props, MeterRegistry meterRegistry) {
+        return new LocalArtifactCache(
+                Paths.get(props.getCache().getDir()),
+                props.getCache().getMaxSizeMb() * 1024 * 1024,
+                meterRegistry
+        );
     }
 
     @Bean
-    public LockPort lockPort(BlobServiceClient client, AppProperties props) {
-        return new AzureBlobLeaseLockAdapter(client, props.getStorage().getOutputContainer());
+    public DocxEditorPort docxEditorPort(AppProperties props,
+                                         ObjectProvider<LocalArtifactCache> renderCache,
+                                         MeterRegistry meterRegistry) {
+        boolean streaming = "streaming".equalsIgnoreCase(props.getDocx().getEditor());
+        DocxEditorPort editor = streaming
+                ? new StreamingDocxEditorAdapter()
+                : new PoiDocxEditorAdapter(props.getDocx().getIndexCacheSize());
+
+        LocalArtifactCache cache = renderCache.getIfAvailable();
+        if (cache != null) {
+            editor = new CachingDocxEditorAdapter(editor, streaming ? "streaming" : "poi", cache, meterRegistry);
+        }
+
+        return new InstrumentedDocxEditorAdapter(editor, meterRegistry, props.getMetrics().isContractTag());
     }
 
     @Bean
-    public DocxEditorPort docxEditorPort() {
-        return new PoiDocxEditorAdapter();
+    public PdfConverterPort pdfConverterPort(AppProperties props,
+                                             ObjectProvider<LocalArtifactCache> renderCache,
+                                             ScratchSpacePort scratchSpace,
+                                             MeterRegistry meterRegistry) {
+        PdfConverterPort converter = libreOfficeConverter(props.getLibreOffice(), scratchSpace, meterRegistry);
+
+        LocalArtifactCache cache = renderCache.getIfAvailable();
+        if (cache != null) converter = new CachingPdfConverterAdapter(converter, cache, meterRegistry);
+
+        return new InstrumentedPdfConverterAdapter(converter, meterRegistry, props.getMetrics().isContractTag());
+    }
+
+    private PdfConverterPort libreOfficeConverter(AppProperties.LibreOffice lo,
+                                                  ScratchSpacePort scratchSpace,
+                                                  MeterRegistry meterRegistry) {
+
+        if ("process".equalsIgnoreCase(lo.getMode())) {
+            return new LibreOfficePdfConverterAdapter(
+                    lo.getSofficePath(),
+                    lo.getBatchMaxSize(),
+                    lo.getBatchMaxWaitMs(),
+                    lo.getPoolSize(),
+                    lo.getProcessTimeoutMs(),
+                    Paths.get(lo.getProfilesDir()),
+                    scratchSpace,
+                    meterRegistry
+            );
+        }
+
+        String officeHome = (lo.getOfficeHome() == null || lo.getOfficeHome().isBlank())
+                ? PooledLibreOfficePdfConverterAdapter.officeHomeFrom(lo.getSofficePath())
+                : lo.getOfficeHome();
+
+        return new PooledLibreOfficePdfConverterAdapter(new LibreOfficePoolSettings(
+                officeHome,
+                lo.getPoolSize(),
+                lo.getBasePort(),
+                lo.getMaxQueue(),
+                lo.getMaxTasksPerProcess(),
+                lo.getTaskQueueTimeoutMs(),
+                lo.getTaskExecutionTimeoutMs(),
+                lo.getProcessTimeoutMs(),
+                lo.getProfilesDir()
+        ));
     }
 
     @Bean
-    public PdfConverterPort pdfConverterPort(AppProperties props) {
-        return new LibreOfficePdfConverterAdapter(props.getLibreOffice().getSofficePath());
+    public ScratchSpacePort scratchSpacePort(AppProperties props, MeterRegistry meterRegistry) {
+        AppProperties.Scratch scratch = props.getScratch();
+        return new LocalScratchSpaceAdapter(
+                Paths.get(scratch.getDir()),
+                scratch.getQuotaMb() * 1024 * 1024,
+                scratch.isKeepFailed(),
+                meterRegistry
+        );
     }
 
     // ---- Inbound port (use case) ----
+    // também recebe os avisos de versão criada (invalida o índice do contrato)
     @Bean
-    public UpdateTemplateUseCase updateTemplateUseCase(
+    public VersionHistoryService versionHistoryUseCase(VersionedOutputPort versionedOutput,
+                                                       AppProperties props,
+                                                       MeterRegistry meterRegistry) {
+        AppProperties.History history = props.getHistory();
+        return new VersionHistoryService(
+                versionedOutput,
+                Duration.ofSeconds(history.getTtlSeconds()),
+                history.getMaxContracts(),
+                meterRegistry
+        );
+    }
+
+    @Bean
+    public LatestDocxCachePort latestDocxCachePort(ObjectProvider<LocalArtifactCache> renderCache,
+                                                   MeterRegistry meterRegistry) {
+        LocalArtifactCache cache = renderCache.getIfAvailable();
+        return cache == null ? LatestDocxCachePort.none() : new LocalLatestDocxCacheAdapter(cache, meterRegistry);
+    }
+
+    // tipo concreto: o mesmo bean atende UpdateTemplateUseCase e AppendClausesUseCase
+    @Bean
+    public UpdateTemplateService updateTemplateUseCase(
             TemplateStoragePort templateStorage,
             VersionedOutputPort versionedOutput,
             LockPort lockPort,
             DocxEditorPort docxEditor,
             PdfConverterPort pdfConverter,
-            AppProperties props
+            ScratchSpacePort scratchSpace,
+            TemplateEventsPort templateEvents,
+            LatestDocxCachePort latestDocxCache,
+            AppProperties props,
+            MeterRegistry meterRegistry
     ) {
         return new UpdateTemplateService(
                 templateStorage,
@@ -66,7 +270,104 @@ public class PortsConfig {
                 lockPort,
                 docxEditor,
                 pdfConverter,
-                props.getStorage().getWorkDir()
+                scratchSpace,
+                // etapas do pipeline são quase todas I/O bloqueante: virtual threads; as requisições
+                // ao Storage de cada etapa contam na request que disparou o pipeline
+                StorageRoundTrips.propagating(Executors.newVirtualThreadPerTaskExecutor()),
+                meterRegistry,
+                "optimistic".equalsIgnoreCase(props.getVersioning().getMode()),
+                props.getVersioning().isSkipUnchanged(),
+                templateEvents,
+                latestDocxCache
+        );
+    }
+
+    // ---- Idempotency-Key ----
+    @Bean
+    public IdempotencyStorePort idempotencyStorePort(ObjectProvider<BlobServiceClient> client, AppProperties props) {
+        AppProperties.Idempotency idem = props.getIdempotency();
+        AppProperties.Storage st = props.getStorage();
+        Duration ttl = Duration.ofMinutes(idem.getTtlMinutes());
+        IdempotencyStorePort local = new InMemoryIdempotencyStoreAdapter(ttl, idem.getMaxEntries());
+
+        // sem Blob (backend filesystem) ou store=memory: a chave só vale dentro do nó
+        if (filesystem(st) || !"storage".equalsIgnoreCase(idem.getStore())) return local;
+        return new AzureBlobIdempotencyStoreAdapter(
+                client.getObject(),
+                st.getOutputContainer(),
+                local,
+                ttl,
+                Duration.ofMinutes(idem.getPendingTimeoutMinutes()),
+                Duration.ofSeconds(idem.getRemoteWaitSeconds()));
+    }
+
+    @Bean
+    public IdempotentUpdateUseCase idempotentUpdateUseCase(UpdateTemplateUseCase updateTemplateUseCase,
+                                                           AppendClausesUseCase appendClausesUseCase,
+                                                           IdempotencyStorePort idempotencyStorePort,
+                                                           MeterRegistry meterRegistry) {
+        return new IdempotentUpdateTemplateService(
+                updateTemplateUseCase, appendClausesUseCase, idempotencyStorePort, meterRegistry);
+    }
+
+    // ---- Jobs assíncronos ----
+    @Bean
+    public JobStorePort jobStorePort(AppProperties props) {
+        return new InMemoryJobStoreAdapter(Duration.ofMinutes(props.getJobs().getRetentionMinutes()));
+    }
+
+    @Bean
+    public TemplateJobUseCase templateJobUseCase(IdempotentUpdateUseCase idempotentUpdateUseCase,
+                                                 JobStorePort jobStorePort,
+                                                 AppProperties props) {
+        AppProperties.Jobs jobs = props.getJobs();
+        int workers = Math.max(1, jobs.getWorkers());
+        AtomicInteger seq = new AtomicInteger();
+
+        // fila limitada + AbortPolicy: quando enche, o submit estoura RejectedExecutionException (vira QueueFullException, 429).
+        // não é exposto como bean para não desligar o applicationTaskExecutor do Spring Boot.
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                workers,
+                workers,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, jobs.getQueueCapacity())),
+                r -> {
+                    Thread t = new Thread(r, "template-job-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        return new TemplateJobService(idempotentUpdateUseCase, jobStorePort, executor);
+    }
+
+    // ---- Atualização em lote ----
+    @Bean
+    public BulkUpdateUseCase bulkUpdateUseCase(TemplateStoragePort templateStorage,
+                                               AppendClausesUseCase appendClausesUseCase,
+                                               AppProperties props,
+                                               MeterRegistry meterRegistry) {
+        AppProperties.Bulk bulk = props.getBulk();
+        // edição é CPU e a conversão é limitada pelos processos do LibreOffice: o maior dos dois
+        int parallelism = bulk.getParallelism() > 0
+                ? bulk.getParallelism()
+                : Math.max(Runtime.getRuntime().availableProcessors(), props.getLibreOffice().getPoolSize());
+        AtomicInteger seq = new AtomicInteger();
+
+        // lotes concorrentes dividem o mesmo pool; não é bean pelo mesmo motivo do pool de jobs
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "template-bulk-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        return new BulkUpdateTemplateService(
+                templateStorage,
+                appendClausesUseCase,
+                executor,
+                bulk.getMaxContracts(),
+                meterRegistry
         );
     }
 }
@@ -0,0 +1,24 @@
+package com.poc.pocpdf.domain.command;
+
+import com.poc.pocpdf.domain.model.Clause;
+import com.poc.pocpdf.domain.model.ContractName;
+
+import java.util.List;
+
+/** Mesmo conjunto de cláusulas aplicado à última versão de vários contratos (lista e/ou prefixo de chave). */
+public record BulkTemplateUpdate(
+        List<ContractName> contractNames,
+        String keyPrefix,
+        List<Clause> extraClauses
+) {
+    public BulkTemplateUpdate {
+        if (contractNames == null) contractNames = List.of();
+        if (keyPrefix != null && keyPrefix.isBlank()) keyPrefix = null;
+        if (contractNames.isEmpty() && keyPrefix == null) {
+            throw new IllegalArgumentException("Informe contractNames e/ou keyPrefix.");
+        }
+        if (extraClauses == null || extraClauses.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma cláusula.");
+        }
+    }
+}
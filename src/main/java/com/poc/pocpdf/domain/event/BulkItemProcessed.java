@@ -0,0 +1,15 @@
+package com.poc.pocpdf.domain.event;
+
+import com.poc.pocpdf.domain.model.ContractName;
+
+/** Resultado de um contrato na atualização em lote: created preenchido em sucesso, error em falha. */
+public record BulkItemProcessed(
+        ContractName contractName,
+        TemplateVersionCreated created,
+        String error,
+        long durationMs
+) {
+    public boolean succeeded() {
+        return created != null;
+    }
+}
@@ -0,0 +1,8 @@
+package com.poc.pocpdf.domain.event;
+
+public record BulkUpdateCompleted(
+        int total,
+        int succeeded,
+        int failed,
+        long durationMs
+) {}
@@ -0,0 +1,38 @@
+package com.poc.pocpdf.domain.model;
+
+import com.poc.pocpdf.domain.event.TemplateVersionCreated;
+
+import java.time.Instant;
+
+public record TemplateJob(
+        String id,
+        ContractName contractName,
+        JobStatus status,
+        Instant createdAt,
+        Instant updatedAt,
+        TemplateVersionCreated result,
+        String error
+) {
+    public TemplateJob {
+        if (id == null || id.isBlank()) throw new IllegalArgumentException("id do job obrigatório.");
+        if (contractName == null) throw new IllegalArgumentException("contractName obrigatório.");
+        if (status == null) throw new IllegalArgumentException("status obrigatório.");
+    }
+
+    public static TemplateJob queued(String id, ContractName contractName) {
+        Instant now = Instant.now();
+        return new TemplateJob(id, contractName, JobStatus.QUEUED, now, now, null, null);
+    }
+
+    public TemplateJob running() {
+        return new TemplateJob(id, contractName, JobStatus.RUNNING, createdAt, Instant.now(), null, null);
+    }
+
+    public TemplateJob succeeded(TemplateVersionCreated created) {
+        return new TemplateJob(id, contractName, JobStatus.SUCCEEDED, createdAt, Instant.now(), created, null);
+    }
+
+    public TemplateJob failed(String error) {
+        return new TemplateJob(id, contractName, JobStatus.FAILED, createdAt, Instant.now(), null, error);
+    }
+}
@@ -5,4 +5,16 @@ public record Version(int number) {
         if (number < 1) throw new IllegalArgumentException("Versão deve ser >= 1");
     }
     public String asString() { return "v" + number; }
+
+    /** Aceita "v3", "V3" ou "3". */
+    public static Version parse(String value) {
+        if (value == null || value.isBlank()) throw new IllegalArgumentException("Versão não informada.");
+        String v = value.trim();
+        if (v.startsWith("v") || v.startsWith("V")) v = v.substring(1);
+        try {
+            return new Version(Integer.parseInt(v));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Versão inválida: " + value);
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package com.poc.pocpdf.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Versão publicada de um contrato (docx e pdf gravados).
+ *
+ * @param fingerprint SHA-256 do template + cláusulas de entrada; null em versões anteriores ao metadado
+ */
+public record VersionInfo(
+        Version version,
+        Instant createdAt,
+        long docxSize,
+        long pdfSize,
+        String fingerprint
+) {}
@@ -0,0 +1,10 @@
+package com.poc.pocpdf.domain.model;
+
+import java.util.List;
+
+/** Página do histórico, da mais nova para a mais antiga; nextCursor null na última página. */
+public record VersionPage(
+        ContractName contractName,
+        List<VersionInfo> items,
+        String nextCursor
+) {}
@@ -0,0 +1,190 @@
+package com.poc.pocpdf.adapters.out.docx;
+
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.apache.poi.xwpf.usermodel.XWPFTableCell;
+import org.apache.poi.xwpf.usermodel.XWPFTableRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O editor em streaming tem que gerar o mesmo documento que o POI: mesmo texto por parágrafo,
+ * mesmos runs (texto, negrito, fonte, tamanho), no corpo e nas tabelas.
+ */
+class DocxEditorEquivalenceTest {
+
+    private static final List<String> CLAUSES = List.of(
+            "O locatário concorda com a vistoria.",
+            "Cláusula adicional 100: o prefixo enviado é trocado pela numeração.");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void placeholderInBody() throws IOException {
+        Path template = template(doc -> {
+            paragraph(doc, "Contrato de locação");
+            paragraph(doc, "Cláusulas extras: {{CLAUSULAS_EXTRAS}}");
+            paragraph(doc, "Assinaturas");
+        });
+
+        List<String> poi = assertSameOutput(template, CLAUSES);
+
+        assertTrue(poi.contains("p Cláusulas extras: Cláusula adicional 1: O locatário concorda com a vistoria.\n\n"
+                + "Cláusula adicional 2: o prefixo enviado é trocado pela numeração."), poi::toString);
+    }
+
+    @Test
+    void placeholderInTable() throws IOException {
+        Path template = template(doc -> {
+            paragraph(doc, "Contrato de locação");
+            XWPFTable table = doc.createTable(1, 2);
+            cell(table, 0, 0, "Anexo");
+            cell(table, 0, 1, "{{CLAUSULAS_EXTRAS}}");
+            paragraph(doc, "Assinaturas");
+        });
+
+        List<String> poi = assertSameOutput(template, CLAUSES);
+
+        assertTrue(poi.stream().anyMatch(l -> l.startsWith("t[0,1] Cláusula adicional 1: ")), poi::toString);
+    }
+
+    @Test
+    void placeholderSplitAcrossRuns() throws IOException {
+        Path template = template(doc -> {
+            paragraph(doc, "Contrato de locação");
+            paragraph(doc, "Texto antes ", "{{CLAUSULAS", "_EXTRAS}}");
+        });
+
+        List<String> poi = assertSameOutput(template, CLAUSES);
+
+        assertTrue(poi.stream().anyMatch(l -> l.startsWith("p Cláusula adicional 1: ")), poi::toString);
+    }
+
+    @Test
+    void appendAfterLastClause() throws IOException {
+        Path template = template(doc -> {
+            paragraph(doc, "Contrato de locação");
+            paragraph(doc, "Cláusula adicional 1: ", "Primeira.");
+            paragraph(doc, "Cláusula adicional 2: ", "Segunda.");
+            paragraph(doc, "Assinaturas");
+        });
+
+        List<String> poi = assertSameOutput(template, CLAUSES);
+
+        assertTrue(poi.contains("p Cláusula adicional 2: Segunda.\n\n"
+                + "Cláusula adicional 3: O locatário concorda com a vistoria.\n\n"
+                + "Cláusula adicional 4: o prefixo enviado é trocado pela numeração."), poi::toString);
+    }
+
+    @Test
+    void appendAfterLastClauseInTable() throws IOException {
+        Path template = template(doc -> {
+            paragraph(doc, "Cláusula adicional 1: Primeira.");
+            XWPFTable table = doc.createTable(1, 1);
+            cell(table, 0, 0, "Cláusula adicional 2: Segunda.");
+        });
+
+        List<String> poi = assertSameOutput(template, CLAUSES);
+
+        assertTrue(poi.stream().anyMatch(l -> l.startsWith("t[0,0] Cláusula adicional 2: Segunda.\n\nCláusula adicional 3: ")),
+                poi::toString);
+    }
+
+    @Test
+    void noClausesLeavesOnlyTheMarkerRemoved() throws IOException {
+        Path template = template(doc -> {
+            paragraph(doc, "Contrato de locação");
+            paragraph(doc, "Fim {{CLAUSULAS_EXTRAS}}");
+        });
+
+        List<String> poi = assertSameOutput(template, List.of());
+
+        assertTrue(poi.contains("p Fim "), poi::toString);
+    }
+
+    // roda os dois editores sobre o mesmo template e compara; devolve a descrição do POI
+    private List<String> assertSameOutput(Path template, List<String> clauses) throws IOException {
+        Path poiOut = new PoiDocxEditorAdapter().applyExtraClauses(template, dir.resolve("poi.docx"), clauses);
+        Path streamingOut = new StreamingDocxEditorAdapter().applyExtraClauses(template, dir.resolve("streaming.docx"), clauses);
+
+        List<String> poi = describe(poiOut);
+        assertEquals(poi, describe(streamingOut));
+        return poi;
+    }
+
+    private Path template(Consumer<XWPFDocument> content) throws IOException {
+        Path file = dir.resolve("template.docx");
+        try (XWPFDocument doc = new XWPFDocument();
+             OutputStream out = Files.newOutputStream(file)) {
+            content.accept(doc);
+            doc.write(out);
+        }
+        return file;
+    }
+
+    private static void paragraph(XWPFDocument doc, String... runs) {
+        addRuns(doc.createParagraph(), runs);
+    }
+
+    private static void cell(XWPFTable table, int row, int col, String text) {
+        addRuns(table.getRow(row).getCell(col).getParagraphs().get(0), text);
+    }
+
+    private static void addRuns(XWPFParagraph p, String... runs) {
+        for (String text : runs) {
+            XWPFRun r = p.createRun();
+            r.setFontFamily("Arial");
+            r.setFontSize(11);
+            r.setText(text);
+        }
+    }
+
+    private static List<String> describe(Path docx) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(docx);
+             XWPFDocument doc = new XWPFDocument(in)) {
+            for (IBodyElement element : doc.getBodyElements()) {
+                if (element instanceof XWPFParagraph p) {
+                    describe(p, "p", lines);
+                } else if (element instanceof XWPFTable t) {
+                    List<XWPFTableRow> rows = t.getRows();
+                    for (int r = 0; r < rows.size(); r++) {
+                        List<XWPFTableCell> cells = rows.get(r).getTableCells();
+                        for (int c = 0; c < cells.size(); c++) {
+                            for (XWPFParagraph p : cells.get(c).getParagraphs()) {
+                                describe(p, "t[" + r + "," + c + "]", lines);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static void describe(XWPFParagraph p, String where, List<String> lines) {
+        lines.add(where + " " + p.getText());
+        for (XWPFRun r : p.getRuns()) {
+            lines.add("  run bold=" + r.isBold()
+                    + " font=" + r.getFontFamily()
+                    + " size=" + r.getFontSizeAsDouble()
+                    + " text=" + r.text());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.poc.pocpdf.adapters.out.fs;
+
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.Version;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FileSystemManifestStoreTest {
+
+    private static final ContractName CONTRACT = new ContractName("Contrato Locação");
+
+    @TempDir
+    Path root;
+
+    @Test
+    void claimSkipsNumbersAlreadyClaimedElsewhere() throws IOException {
+        FileSystemManifestStore store = new FileSystemManifestStore(root);
+        store.publish(CONTRACT, store.claim(CONTRACT));
+
+        // outro nó reservou v2 e v3 sem atualizar o ponteiro
+        claimBehindPointer(store, 2);
+        claimBehindPointer(store, 3);
+
+        assertEquals(new Version(4), store.claim(CONTRACT));
+    }
+
+    @Test
+    void concurrentClaimsGetDistinctVersions() throws Exception {
+        FileSystemManifestStore store = new FileSystemManifestStore(root);
+        int claims = 20;
+
+        List<Callable<Version>> tasks = new ArrayList<>();
+        for (int i = 0; i < claims; i++) tasks.add(() -> store.claim(CONTRACT));
+
+        Set<Version> versions = new HashSet<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (Future<Version> f : executor.invokeAll(tasks)) versions.add(f.get());
+        }
+
+        assertEquals(claims, versions.size());
+    }
+
+    @Test
+    void publishNeverMovesLatestBack() {
+        FileSystemManifestStore store = new FileSystemManifestStore(root);
+        Version v1 = store.claim(CONTRACT);
+        Version v2 = store.claim(CONTRACT);
+
+        store.publish(CONTRACT, v2);
+        store.publish(CONTRACT, v1);
+
+        assertEquals(Optional.of(v2), store.latest(CONTRACT));
+    }
+
+    @Test
+    void storesOverTheSameRootShareThePointerLock() throws Exception {
+        // adapters de template e de saída criam cada um o seu store sobre o mesmo diretório
+        FileSystemManifestStore a = new FileSystemManifestStore(root);
+        FileSystemManifestStore b = new FileSystemManifestStore(root);
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            FileSystemManifestStore store = (i % 2 == 0) ? a : b;
+            Version v = new Version(i);
+            tasks.add(() -> {
+                store.publish(CONTRACT, v);
+                return null;
+            });
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (Future<Void> f : executor.invokeAll(tasks)) f.get();
+        }
+
+        assertEquals(Optional.of(new Version(20)), a.latest(CONTRACT));
+    }
+
+    private static void claimBehindPointer(FileSystemManifestStore store, int version) throws IOException {
+        Path claim = store.versionDir(CONTRACT, new Version(version)).resolve(".claim");
+        Files.createDirectories(claim.getParent());
+        Files.createFile(claim);
+    }
+}
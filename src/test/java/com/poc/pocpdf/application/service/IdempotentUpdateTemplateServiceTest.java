@@ -0,0 +1,183 @@
+package com.poc.pocpdf.application.service;
+
+import com.poc.pocpdf.adapters.out.idempotency.InMemoryIdempotencyStoreAdapter;
+import com.poc.pocpdf.application.exception.IdempotencyKeyMismatchException;
+import com.poc.pocpdf.application.port.in.AppendClausesUseCase;
+import com.poc.pocpdf.application.port.in.UpdateTemplateUseCase;
+import com.poc.pocpdf.domain.event.TemplateVersionCreated;
+import com.poc.pocpdf.domain.model.Clause;
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.Version;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class IdempotentUpdateTemplateServiceTest {
+
+    private static final ContractName CONTRACT = new ContractName("contrato-locacao");
+    private static final List<Clause> CLAUSES = List.of(new Clause("O locatário concorda com a vistoria."));
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger executions = new AtomicInteger();
+    // cada pedido concorrente na sua thread, como requisições HTTP
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void repeatedKeyReplaysTheCreatedVersion() {
+        IdempotentUpdateTemplateService service = service((contract, clauses) -> created(executions.incrementAndGet()));
+
+        TemplateVersionCreated first = service.appendClauses("chave-1", CONTRACT, CLAUSES);
+        TemplateVersionCreated again = service.appendClauses("chave-1", CONTRACT, CLAUSES);
+
+        assertSame(first, again);
+        assertEquals(1, executions.get());
+        assertEquals(1.0, outcome("replayed"));
+    }
+
+    @Test
+    void concurrentRepeatJoinsTheRunningRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IdempotentUpdateTemplateService service = service((contract, clauses) -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            return created(1);
+        });
+
+        CompletableFuture<TemplateVersionCreated> original =
+                CompletableFuture.supplyAsync(() -> service.appendClauses("chave-1", CONTRACT, CLAUSES), callers);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<TemplateVersionCreated> repeat =
+                CompletableFuture.supplyAsync(() -> service.appendClauses("chave-1", CONTRACT, CLAUSES), callers);
+        waitFor(() -> outcome("joined") == 1.0);
+        release.countDown();
+
+        assertSame(original.get(5, TimeUnit.SECONDS), repeat.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void failureReleasesTheKey() {
+        IdempotentUpdateTemplateService service = service((contract, clauses) -> {
+            if (executions.incrementAndGet() == 1) throw new IllegalStateException("falhou");
+            return created(1);
+        });
+
+        assertThrows(IllegalStateException.class, () -> service.appendClauses("chave-1", CONTRACT, CLAUSES));
+        TemplateVersionCreated retried = service.appendClauses("chave-1", CONTRACT, CLAUSES);
+
+        assertEquals(new Version(1), retried.version());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void joinedRequestGetsTheOriginalFailure() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IdempotentUpdateTemplateService service = service((contract, clauses) -> {
+            executions.incrementAndGet();
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("falhou");
+        });
+
+        CompletableFuture<TemplateVersionCreated> original =
+                CompletableFuture.supplyAsync(() -> service.appendClauses("chave-1", CONTRACT, CLAUSES), callers);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Throwable> repeat = CompletableFuture.supplyAsync(() ->
+                assertThrows(IllegalStateException.class, () -> service.appendClauses("chave-1", CONTRACT, CLAUSES)), callers);
+        waitFor(() -> outcome("joined") == 1.0);
+        release.countDown();
+
+        assertEquals("falhou", repeat.get(5, TimeUnit.SECONDS).getMessage());
+        assertThrows(Exception.class, () -> original.get(5, TimeUnit.SECONDS));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void sameKeyWithOtherClausesIsRejected() {
+        IdempotentUpdateTemplateService service = service((contract, clauses) -> created(executions.incrementAndGet()));
+        service.appendClauses("chave-1", CONTRACT, CLAUSES);
+
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> service.appendClauses("chave-1", CONTRACT, List.of(new Clause("Outra cláusula."))));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void sameKeyInAnotherContractIsAnotherRequest() {
+        IdempotentUpdateTemplateService service = service((contract, clauses) -> created(executions.incrementAndGet()));
+
+        service.appendClauses("chave-1", CONTRACT, CLAUSES);
+        service.appendClauses("chave-1", new ContractName("outro-contrato"), CLAUSES);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void withoutKeyEveryCallRuns() {
+        IdempotentUpdateTemplateService service = service((contract, clauses) -> created(executions.incrementAndGet()));
+
+        service.appendClauses(null, CONTRACT, CLAUSES);
+        service.appendClauses(" ", CONTRACT, CLAUSES);
+
+        assertEquals(2, executions.get());
+    }
+
+    private IdempotentUpdateTemplateService service(AppendClausesUseCase append) {
+        return new IdempotentUpdateTemplateService(
+                mock(UpdateTemplateUseCase.class),
+                append,
+                new InMemoryIdempotencyStoreAdapter(Duration.ofMinutes(5), 100),
+                registry);
+    }
+
+    private double outcome(String outcome) {
+        return registry.get("template.idempotency").tag("outcome", outcome).counter().count();
+    }
+
+    private static TemplateVersionCreated created(int version) {
+        return new TemplateVersionCreated(CONTRACT, new Version(version), "docx", "pdf");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("latch não liberado");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) throw new AssertionError("condição não atingida");
+            Thread.sleep(10);
+        }
+    }
+}
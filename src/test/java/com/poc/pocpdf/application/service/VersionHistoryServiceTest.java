@@ -0,0 +1,92 @@
+package com.poc.pocpdf.application.service;
+
+import com.poc.pocpdf.application.port.out.VersionedOutputPort;
+import com.poc.pocpdf.domain.event.TemplateVersionCreated;
+import com.poc.pocpdf.domain.model.ContractName;
+import com.poc.pocpdf.domain.model.Version;
+import com.poc.pocpdf.domain.model.VersionInfo;
+import com.poc.pocpdf.domain.model.VersionPage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VersionHistoryServiceTest {
+
+    private static final ContractName CONTRACT = new ContractName("contrato-locacao");
+
+    private VersionedOutputPort output;
+    private VersionHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        output = mock(VersionedOutputPort.class);
+        service = new VersionHistoryService(output, Duration.ofMinutes(5), 100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void cursorWalksFromNewestToOldest() {
+        // listagem do storage vem sem ordem
+        when(output.listVersions(CONTRACT)).thenReturn(versions(3, 1, 5, 2, 4));
+
+        VersionPage first = service.listVersions(CONTRACT, null, 2);
+        assertEquals(List.of(5, 4), numbers(first));
+
+        VersionPage second = service.listVersions(CONTRACT, first.nextCursor(), 2);
+        assertEquals(List.of(3, 2), numbers(second));
+
+        VersionPage last = service.listVersions(CONTRACT, second.nextCursor(), 2);
+        assertEquals(List.of(1), numbers(last));
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    void cursorKeepsItsPlaceWhenNewVersionsArrive() {
+        when(output.listVersions(CONTRACT)).thenReturn(versions(1, 2, 3, 4));
+        VersionPage first = service.listVersions(CONTRACT, null, 2);
+
+        // versão nova publicada por este nó: índice invalidado
+        when(output.listVersions(CONTRACT)).thenReturn(versions(1, 2, 3, 4, 5));
+        service.versionCreated(new TemplateVersionCreated(CONTRACT, new Version(5), "docx", "pdf"));
+
+        assertEquals(List.of(2, 1), numbers(service.listVersions(CONTRACT, first.nextCursor(), 2)));
+    }
+
+    @Test
+    void pageThatEndsExactlyOnTheLastVersionHasNoCursor() {
+        when(output.listVersions(CONTRACT)).thenReturn(versions(1, 2));
+
+        VersionPage page = service.listVersions(CONTRACT, null, 2);
+
+        assertEquals(List.of(2, 1), numbers(page));
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void rejectsCursorThatWasNotIssuedByTheService() {
+        when(output.listVersions(CONTRACT)).thenReturn(versions(1, 2));
+
+        assertThrows(IllegalArgumentException.class, () -> service.listVersions(CONTRACT, "não-é-base64!", 2));
+        assertThrows(IllegalArgumentException.class, () -> service.listVersions(CONTRACT, "eDM", 2)); // "x3"
+    }
+
+    private static List<VersionInfo> versions(int... numbers) {
+        return IntStream.of(numbers)
+                .mapToObj(n -> new VersionInfo(new Version(n), Instant.EPOCH, 10, 20, null))
+                .toList();
+    }
+
+    private static List<Integer> numbers(VersionPage page) {
+        return page.items().stream().map(v -> v.version().number()).toList();
+    }
+}